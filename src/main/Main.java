@@ -1,65 +1,57 @@
 package main;
 
+import model.ProcessScheduler;
+import model.ProcessSimulator;
+import model.SimProcess;
+import model.SimulationResult;
 import model.Simulator;
+import results.CsvResultSerializer;
+import sweep.ResultCache;
+import sweep.ShardedSweepRunner;
+import sweep.Sweep;
+import sweep.SweepPoint;
+import sweep.SweepRunner;
 import utils.Constants;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Main {
 
     private final static int NUMBER_OF_ITERATIONS = 100;
     private final static int MAX_NUMBER_RESOURCES = 25;
-
-    private static void saveToCsv(String filename, List<String> resultList) {
-        FileWriter fileWriter = null;
-
+    private final static int REPLICATIONS_PER_CHUNK = 25;
+    private final static int BENCHMARK_REPLICATIONS = 20;
+    private final static int MAX_PLATFORM_THREAD_PROCESSES = 2000;
+
+    /**
+     * Runs the sweep on all the available processors, writing both the
+     * full report of every replication and the summary of every point
+     *
+     * @param sweep the sweep to be run
+     */
+    private static void runSweep(Sweep sweep) {
         try {
-            fileWriter = new FileWriter(filename);
-
-            for (String result : resultList) {
-                fileWriter.append(result);
+            ResultCache resultCache = Constants.USE_RESULT_CACHE
+                    ? new ResultCache(Paths.get(Constants.RESULT_CACHE_DIRECTORY)) : null;
+            SweepRunner runner;
+            if (Constants.NUMBER_OF_WORKER_PROCESSES > 0) {
+                runner = new ShardedSweepRunner(Constants.NUMBER_OF_WORKER_PROCESSES, REPLICATIONS_PER_CHUNK,
+                        new CsvResultSerializer(), true, Constants.WRITE_COLUMNAR_RESULTS, resultCache,
+                        Constants.RESUMABLE_SWEEPS, Collections.emptyList());
+            } else {
+                runner = new SweepRunner(Runtime.getRuntime().availableProcessors(), REPLICATIONS_PER_CHUNK,
+                        new CsvResultSerializer(), true, Constants.WRITE_COLUMNAR_RESULTS, resultCache,
+                        Constants.RESUMABLE_SWEEPS);
             }
 
+            runner.run(sweep);
         } catch (IOException e) {
             e.printStackTrace();
-        } finally {
-            try {
-                fileWriter.flush();
-                fileWriter.close();
-            } catch (IOException e) {
-
-            }
         }
-
-    }
-
-    private static void runSimulationResources(List<String> resultsList,
-                                               int numberOfSeniorDevelopers,
-                                               int numberOfMidLevelDevelopers,
-                                               int numberOfJuniorDevelopers,
-                                               int numberOfTesters) {
-        Simulator simulator;
-
-        int iter = NUMBER_OF_ITERATIONS;
-        while (iter > 0) {
-            System.out.println("iter: " + iter);
-
-            simulator = new Simulator(false,
-                    numberOfSeniorDevelopers,
-                    numberOfMidLevelDevelopers,
-                    numberOfJuniorDevelopers,
-                    numberOfTesters);
-
-            simulator.setup();
-            simulator.run();
-            resultsList.add(simulator.getFullReport());
-            iter--;
-            Constants.SEED -= 1;
-        }
-
     }
 
     private static void runSimulationForTesters() {
@@ -67,25 +59,20 @@ public class Main {
         int numberOfMidLevelDevelopers = Constants.NUMBER_OF_MID_LEVEL_DEVELOPERS;
         int numberOfJuniorDevelopers = Constants.NUMBER_OF_JUNIOR_DEVELOPERS;
 
-        List<String> resultsList = new ArrayList<>();
-        resultsList.add(Simulator.getHeader());
-
-        String filename = "results_tester.csv";
+        List<SweepPoint> points = new ArrayList<>();
 
         int numberOfResources = 1;
         while (numberOfResources != MAX_NUMBER_RESOURCES) {
-            System.out.println("nr: " + numberOfResources);
-
-            runSimulationResources(resultsList,
+            points.add(new SweepPoint(false,
                     numberOfSeniorDevelopers,
                     numberOfMidLevelDevelopers,
                     numberOfJuniorDevelopers,
-                    numberOfResources);
+                    numberOfResources));
 
             numberOfResources += 1;
         }
 
-        saveToCsv(filename, resultsList);
+        runSweep(new Sweep("results_tester", points, NUMBER_OF_ITERATIONS, Constants.SEED, false));
     }
 
     private static void runSimulationForJuniors() {
@@ -93,25 +80,20 @@ public class Main {
         int numberOfMidLevelDevelopers = Constants.NUMBER_OF_MID_LEVEL_DEVELOPERS;
         int numberOfTesters = Constants.NUMBER_OF_TESTERS;
 
-        List<String> resultsList = new ArrayList<>();
-        resultsList.add(Simulator.getHeader());
-
-        String filename = "results_juniors.csv";
+        List<SweepPoint> points = new ArrayList<>();
 
         int numberOfResources = 1;
         while (numberOfResources != MAX_NUMBER_RESOURCES) {
-            System.out.println("nr: " + numberOfResources);
-
-            runSimulationResources(resultsList,
+            points.add(new SweepPoint(false,
                     numberOfSeniorDevelopers,
                     numberOfMidLevelDevelopers,
                     numberOfResources,
-                    numberOfTesters);
+                    numberOfTesters));
 
             numberOfResources += 1;
         }
 
-        saveToCsv(filename, resultsList);
+        runSweep(new Sweep("results_juniors", points, NUMBER_OF_ITERATIONS, Constants.SEED, false));
     }
 
     private static void runSimulationForMidLevels() {
@@ -119,26 +101,20 @@ public class Main {
         int numberOfJuniorDevelopers = Constants.NUMBER_OF_JUNIOR_DEVELOPERS;
         int numberOfTesters = Constants.NUMBER_OF_TESTERS;
 
-
-        List<String> resultsList = new ArrayList<>();
-        resultsList.add(Simulator.getHeader());
-
-        String filename = "results_midlevel.csv";
+        List<SweepPoint> points = new ArrayList<>();
 
         int numberOfResources = 1;
         while (numberOfResources != MAX_NUMBER_RESOURCES) {
-            System.out.println("nr: " + numberOfResources);
-
-            runSimulationResources(resultsList,
+            points.add(new SweepPoint(false,
                     numberOfSeniorDevelopers,
                     numberOfResources,
                     numberOfJuniorDevelopers,
-                    numberOfTesters);
+                    numberOfTesters));
 
             numberOfResources += 1;
         }
 
-        saveToCsv(filename, resultsList);
+        runSweep(new Sweep("results_midlevel", points, NUMBER_OF_ITERATIONS, Constants.SEED, false));
     }
 
     private static void runSimulationForSeniors() {
@@ -146,86 +122,164 @@ public class Main {
         int numberOfJuniorDevelopers = Constants.NUMBER_OF_JUNIOR_DEVELOPERS;
         int numberOfTesters = Constants.NUMBER_OF_TESTERS;
 
-
-        List<String> resultsList = new ArrayList<>();
-        resultsList.add(Simulator.getHeader());
-
-        String filename = "results_seniors.csv";
+        List<SweepPoint> points = new ArrayList<>();
 
         int numberOfResources = 1;
         while (numberOfResources != MAX_NUMBER_RESOURCES) {
-            System.out.println("nr: " + numberOfResources);
-
-            runSimulationResources(resultsList,
+            points.add(new SweepPoint(false,
                     numberOfResources,
                     numberOfMidLevelDevelopers,
                     numberOfJuniorDevelopers,
-                    numberOfTesters);
+                    numberOfTesters));
 
             numberOfResources += 1;
         }
 
-        saveToCsv(filename, resultsList);
+        runSweep(new Sweep("results_seniors", points, NUMBER_OF_ITERATIONS, Constants.SEED, false));
     }
 
     public static void runFinalSimulation() {
-        int numberOfSeniorDevelopers = Constants.NUMBER_OF_SENIOR_DEVELOPERS;
-        int numberOfMidLevelDevelopers = Constants.NUMBER_OF_MID_LEVEL_DEVELOPERS;
-        int numberOfJuniorDevelopers = Constants.NUMBER_OF_JUNIOR_DEVELOPERS;
-        int numberOfTesters = Constants.NUMBER_OF_TESTERS;
-
-
-        List<String> resultsList = new ArrayList<>();
-        resultsList.add(Simulator.getHeader());
+        List<SweepPoint> points = new ArrayList<>();
+        points.add(new SweepPoint(false,
+                Constants.NUMBER_OF_SENIOR_DEVELOPERS,
+                Constants.NUMBER_OF_MID_LEVEL_DEVELOPERS,
+                Constants.NUMBER_OF_JUNIOR_DEVELOPERS,
+                Constants.NUMBER_OF_TESTERS));
+
+        runSweep(new Sweep("results_final", points, NUMBER_OF_ITERATIONS, Constants.SEED, false));
+    }
 
-        String filename = "results_final.csv";
+    private static void runSimulationTdd() {
+        List<SweepPoint> points = new ArrayList<>();
+        points.add(new SweepPoint(false,
+                Constants.NUMBER_OF_SENIOR_DEVELOPERS,
+                Constants.NUMBER_OF_MID_LEVEL_DEVELOPERS,
+                Constants.NUMBER_OF_JUNIOR_DEVELOPERS,
+                Constants.NUMBER_OF_TESTERS));
+        points.add(new SweepPoint(true,
+                Constants.NUMBER_OF_SENIOR_DEVELOPERS,
+                Constants.NUMBER_OF_MID_LEVEL_DEVELOPERS,
+                Constants.NUMBER_OF_JUNIOR_DEVELOPERS,
+                Constants.NUMBER_OF_TESTERS));
+
+        // both points use the same seeds, so each tdd replication is paired with a non tdd one
+        runSweep(new Sweep("results_tdd", points, NUMBER_OF_ITERATIONS, Constants.SEED, true));
+    }
 
-        runSimulationResources(resultsList,
-                numberOfSeniorDevelopers,
-                numberOfMidLevelDevelopers,
-                numberOfJuniorDevelopers,
-                numberOfTesters);
+    public static void runDefaultSimulation() {
+        Simulator simulator = new Simulator(false);
+        simulator.setup();
+        simulator.run();
 
-        saveToCsv(filename, resultsList);
+        System.out.println(simulator.getReport());
     }
 
-    private static void runSimulationTdd() {
+    /**
+     * Runs the default configuration with the event-driven engine and the process-interaction one, and prints the
+     * time per replication of each engine and whether their results are the same
+     */
+    public static void runProcessBenchmark() {
+        long eventNanos = 0;
+        long processNanos = 0;
+        boolean same = true;
+        for (int replication = 0; replication < BENCHMARK_REPLICATIONS; replication++) {
+            long seed = Constants.SEED + replication;
+
+            long start = System.nanoTime();
+            Simulator simulator = new Simulator(false, Constants.NUMBER_OF_SENIOR_DEVELOPERS,
+                    Constants.NUMBER_OF_MID_LEVEL_DEVELOPERS, Constants.NUMBER_OF_JUNIOR_DEVELOPERS,
+                    Constants.NUMBER_OF_TESTERS, seed);
+            simulator.setup();
+            simulator.run();
+            eventNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            ProcessSimulator processSimulator = new ProcessSimulator(false, Constants.NUMBER_OF_SENIOR_DEVELOPERS,
+                    Constants.NUMBER_OF_MID_LEVEL_DEVELOPERS, Constants.NUMBER_OF_JUNIOR_DEVELOPERS,
+                    Constants.NUMBER_OF_TESTERS, seed);
+            processSimulator.setup();
+            processSimulator.run();
+            processNanos += System.nanoTime() - start;
+
+            SimulationResult eventResult = simulator.getResult();
+            SimulationResult processResult = processSimulator.getResult();
+            for (int metric = 0; metric < SimulationResult.getNumberOfMetrics(); metric++) {
+                same &= Double.compare(eventResult.getMetric(metric), processResult.getMetric(metric)) == 0;
+            }
+        }
 
-        List<String> resultsList = new ArrayList<>();
-        resultsList.add(Simulator.getHeader());
+        System.out.println("events: " + eventNanos / BENCHMARK_REPLICATIONS / 1000 + " us per replication");
+        System.out.println("processes on " + (ProcessScheduler.hasVirtualThreads() ? "virtual" : "platform")
+                + " threads: " + processNanos / BENCHMARK_REPLICATIONS / 1000 + " us per replication");
+        System.out.println("same results: " + same);
+    }
 
-        String filename = "results_tdd.csv";
+    /**
+     * Runs concurrent processes that hold a few times each, and prints the time per resumption and the memory of
+     * the suspended processes
+     * Every process keeps its thread while it is suspended, so without virtual threads (before Java 21) the number of
+     * processes is capped to {@link #MAX_PLATFORM_THREAD_PROCESSES}, the native threads would run out otherwise
+     *
+     * @param numberOfProcesses number of concurrent processes
+     */
+    public static void runProcessScalingBenchmark(int numberOfProcesses) {
+        if (!ProcessScheduler.hasVirtualThreads() && numberOfProcesses > MAX_PLATFORM_THREAD_PROCESSES) {
+            System.out.println("no virtual threads, " + numberOfProcesses + " processes capped to "
+                    + MAX_PLATFORM_THREAD_PROCESSES);
+            numberOfProcesses = MAX_PLATFORM_THREAD_PROCESSES;
+        }
 
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
 
-        int iter = NUMBER_OF_ITERATIONS;
-        while (iter > 0) {
-            System.out.println("iter: " + iter);
+        ProcessScheduler scheduler = new ProcessScheduler();
+        HoldingProcess[] processes = new HoldingProcess[numberOfProcesses];
+        for (int i = 0; i < numberOfProcesses; i++) {
+            processes[i] = new HoldingProcess(i);
+            scheduler.activate(processes[i], 0);
+        }
 
-            Simulator simulatorNonTdd = new Simulator(false);
+        long start = System.nanoTime();
+        // every process has started and holds for the first time
+        for (int i = 0; i < numberOfProcesses; i++) {
+            scheduler.step();
+        }
+        long startNanos = System.nanoTime() - start;
+        long usedSuspended = runtime.totalMemory() - runtime.freeMemory();
+
+        start = System.nanoTime();
+        scheduler.run();
+        long runNanos = System.nanoTime() - start;
+        scheduler.close();
+
+        long resumptions = (long) numberOfProcesses * HoldingProcess.HOLDS;
+        System.out.println(numberOfProcesses + " processes on "
+                + (ProcessScheduler.hasVirtualThreads() ? "virtual" : "platform") + " threads");
+        System.out.println("start: " + startNanos / numberOfProcesses + " ns per process, "
+                + (usedSuspended - usedBefore) / numberOfProcesses + " bytes per suspended process");
+        System.out.println("run: " + runNanos / resumptions + " ns per resumption");
+    }
 
-            simulatorNonTdd.setup();
-            simulatorNonTdd.run();
-            resultsList.add(simulatorNonTdd.getFullReport());
+    /**
+     * Process that holds a few times, for durations that spread the resumptions of the processes
+     */
+    private static final class HoldingProcess extends SimProcess {
 
-            Simulator simulatorTdd = new Simulator(true);
+        private static final int HOLDS = 10;
 
-            simulatorTdd.setup();
-            simulatorTdd.run();
-            resultsList.add(simulatorTdd.getFullReport());
+        private final int index;
 
-            iter--;
-            Constants.SEED -= 1;
+        private HoldingProcess(int index) {
+            this.index = index;
         }
 
-        saveToCsv(filename, resultsList);
-    }
-
-    public static void runDefaultSimulation() {
-        Simulator simulator = new Simulator(false);
-        simulator.setup();
-        simulator.run();
-
-        System.out.println(simulator.getReport());
+        @Override
+        protected void run() {
+            for (int i = 0; i < HOLDS; i++) {
+                hold(1 + (index * 31 + i) % 97);
+            }
+        }
     }
 
     public static void test1() {
@@ -243,6 +297,8 @@ public class Main {
         //runFinalSimulation();
         runDefaultSimulation();
         //runSimulationTdd();
+        //runProcessBenchmark();
+        //runProcessScalingBenchmark(100000);
     }
 
 }
\ No newline at end of file
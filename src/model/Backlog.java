@@ -1,9 +1,12 @@
 package model;
 
-import java.util.PriorityQueue;
+import java.util.List;
 import java.util.Queue;
 
-public class Backlog {
+/**
+ * Backlog that keeps its tasks on the heap, in a {@link TaskQueue}
+ */
+public class Backlog implements TaskBacklog {
 
     /**
      * Effort of the current backlog
@@ -13,13 +16,13 @@ public class Backlog {
     /**
      * Queue that stores the list of tasks of the current backlog
      */
-    private Queue<Task> taskQueue;
+    private final TaskQueue taskQueue;
 
     /**
      * Constructor
      */
     public Backlog() {
-        taskQueue = new PriorityQueue<>();
+        taskQueue = new TaskQueue();
         backlogEffort = 0;
     }
 
@@ -33,6 +36,32 @@ public class Backlog {
         backlogEffort += task.getEffort();
     }
 
+    /**
+     * Removes every task from the backlog, keeping the capacity of the queue
+     */
+    public void clear() {
+        taskQueue.clear();
+        backlogEffort = 0;
+    }
+
+    /**
+     * Adds several tasks to the backlog
+     * An empty backlog is built with a single heapify instead of one insertion per task
+     *
+     * @param tasks tasks to be added
+     */
+    public void addTasksToBacklog(List<Task> tasks) {
+        if (taskQueue.isEmpty()) {
+            taskQueue.fill(tasks);
+        } else {
+            taskQueue.addAll(tasks);
+        }
+
+        for (Task task : tasks) {
+            backlogEffort += task.getEffort();
+        }
+    }
+
     /**
      * Get the effort of the current backlog
      *
@@ -99,10 +128,14 @@ public class Backlog {
     }
 
     /**
-     * Updates the priority of the task on the taskQueue
+     * Assigns new priorities to the tasks to be done
+     * The tasks keep their positions in the task queue, so the order in which they are removed depends on both
+     * their previous and their new priorities
+     *
+     * @param taskCreator the task creator that samples the priorities
      */
-    public void updateTaskQueue(PriorityQueue<Task> newTaskQueue) {
-        taskQueue = new PriorityQueue<>(newTaskQueue);
+    public void updatePriorities(TaskCreator taskCreator) {
+        taskCreator.updatePriorityOfTasks(taskQueue);
     }
 
     private int getNumberOfTasksByType(Task.TaskType taskType) {
@@ -160,14 +193,4 @@ public class Backlog {
         }
         return numberOfLocs;
     }
-
-    /**
-     * Get the number of defects injected by 1000 LOCS
-     *
-     * @return the number of defects injected by 1000 LOCS
-     */
-    public float getNumberOfDefectsPerKLoc() {
-        int defects = getNumberOfMajorDefects() + getNumberOfMinorDefects();
-        return defects / (getNumberOfLocs() / 1000f);
-    }
 }
@@ -1,5 +1,7 @@
 package model;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Developer {
 
     public enum DeveloperType {
@@ -20,9 +22,18 @@ public class Developer {
             productivity = level;
             defectInjectionRate = defectRate;
         }
+
+        /**
+         * Get the productivity of the skill level, the factor applied to the effort of a task
+         *
+         * @return the productivity of the skill level
+         */
+        public float getProductivity() {
+            return productivity;
+        }
     }
 
-    private static int instanceCounter = 1;
+    private static final AtomicInteger instanceCounter = new AtomicInteger(1);
 
     private final int id;
 
@@ -57,11 +68,16 @@ public class Developer {
      */
     private double usageArea;
 
+    /**
+     * Index of the developer in the team of its resource
+     */
+    private int slot;
+
     public Developer(DeveloperType type,
                      float dailyEffort,
                      Skill skill) {
 
-        this.id = instanceCounter++;
+        this.id = instanceCounter.getAndIncrement();
         this.isBusy = false;
         this.type = type;
         this.dailyEffort = dailyEffort;
@@ -72,6 +88,7 @@ public class Developer {
 
     /**
      * Updates the status of the developer
+     * The developers of a resource are occupied and freed by the resource, which keeps count of its busy developers
      *
      * @param busy true when the developer has an assigned task
      *             false when he finishes the task
@@ -89,6 +106,24 @@ public class Developer {
         return isBusy;
     }
 
+    /**
+     * Get the index of the developer in the team of its resource
+     *
+     * @return the index of the developer
+     */
+    int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Sets the index of the developer in the team of its resource
+     *
+     * @param slot the index of the developer
+     */
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
     /**
      * Get the productivity of the developer
      * An older developer has an higher productivity
@@ -110,6 +145,15 @@ public class Developer {
     }
 
 
+    /**
+     * Get the skill level of the developer
+     *
+     * @return the skill level of the developer
+     */
+    public Skill getSkill() {
+        return skill;
+    }
+
     /** Get the type of the developer
      * @see DeveloperType
      * @return the type of the developer
@@ -138,9 +182,16 @@ public class Developer {
         return usageArea;
     }
 
+    /**
+     * Resets the usage area of the developer, for a new simulation
+     */
+    void resetUsageArea() {
+        usageArea = 0;
+    }
+
     @Override
     public String toString() {
-        return "id: " + id + ", type: " + type + ", skill: " + skill + ", isBusy: " + isBusy;
+        return "id: " + id + ", type: " + type + ", skill: " + skill + ", isBusy: " + isBusy();
     }
 
 }
@@ -0,0 +1,102 @@
+package model;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Policy of a resource that chooses which free developer takes a task, and in which order the waiting tasks are
+ * taken
+ * A policy keeps its own index of the free developers, updated by the resource every time a developer is occupied
+ * or freed, so a developer is chosen without scanning the team
+ * A policy instance belongs to a single resource
+ */
+public interface DispatchPolicy {
+
+    /**
+     * Policies available to the simulator
+     */
+    enum Type {
+        /**
+         * The first free developer in the order of the team, the order of the original simulator
+         */
+        FIRST_FREE,
+        /**
+         * The free developer with the highest skill level
+         */
+        MOST_SKILLED_FIRST,
+        /**
+         * The free developer that has been busy for the least time
+         */
+        LEAST_LOADED,
+        /**
+         * A free developer with the skill level preferred for the type of the task
+         */
+        SKILL_MATCHED,
+        /**
+         * The first free developer, and the waiting task with the least effort first
+         */
+        SHORTEST_EFFORT_FIRST;
+
+        /**
+         * Creates a new instance of the policy
+         *
+         * @return the new policy
+         */
+        public DispatchPolicy create() {
+            switch (this) {
+                case MOST_SKILLED_FIRST:
+                    return new MostSkilledFirstPolicy();
+                case LEAST_LOADED:
+                    return new LeastLoadedPolicy();
+                case SKILL_MATCHED:
+                    return new SkillMatchedPolicy();
+                case SHORTEST_EFFORT_FIRST:
+                    return new ShortestEffortFirstPolicy();
+                default:
+                    return new FirstFreePolicy();
+            }
+        }
+    }
+
+    /**
+     * Builds the index of the free developers of a resource
+     * The resource calls it once, when it is created
+     *
+     * @param resource   the resource, which gives the state of the developers by index
+     * @param developers the developers of the resource, a developer is identified by its index in the list
+     */
+    void attach(Resource resource, List<Developer> developers);
+
+    /**
+     * Updates the index when a developer is occupied or freed
+     *
+     * @param slot index of the developer
+     * @param busy true when the developer has been occupied
+     */
+    void updateState(int slot, boolean busy);
+
+    /**
+     * Updates the index when the entire team is occupied or freed at once
+     *
+     * @param busy true when the team has been occupied
+     */
+    void updateTeam(boolean busy);
+
+    /**
+     * Chooses the free developer that takes a task
+     * The developer is not occupied by the policy, the resource occupies it afterwards
+     *
+     * @param task the task to be taken, null if it is not known
+     * @return the index of the chosen developer, -1 only if every developer is busy
+     */
+    int selectDeveloper(Task task);
+
+    /**
+     * Get the key that orders the waiting tasks of the resource, lower keys first
+     *
+     * @return the key that orders the waiting tasks, null to order them as {@link Task#compareTo(Object)}
+     */
+    default ToLongFunction<Task> getQueueOrder() {
+        return null;
+    }
+}
@@ -0,0 +1,131 @@
+package model;
+
+/**
+ * Completed tasks of a simulation, folded into running aggregates as they are completed
+ * The tasks are not retained, so the memory used does not grow with the completed work
+ */
+public class DoneTaskSink {
+
+    private int size;
+
+    private int numberOfNewFeatures;
+    private int numberOfMajorDefects;
+    private int numberOfMinorDefects;
+
+    private int numberOfLocs;
+
+    /**
+     * Defects injected by the tasks completed since the last harvest
+     */
+    private float pendingInjectedDefects;
+
+    /**
+     * Constructor
+     */
+    public DoneTaskSink() {
+        clear();
+    }
+
+    /**
+     * Removes every completed task, for a new simulation
+     */
+    public void clear() {
+        size = 0;
+        numberOfNewFeatures = 0;
+        numberOfMajorDefects = 0;
+        numberOfMinorDefects = 0;
+        numberOfLocs = 0;
+        pendingInjectedDefects = 0;
+    }
+
+    /**
+     * Adds a completed task
+     * The task is no longer referenced once added
+     *
+     * @param task the completed task
+     */
+    public void addTask(Task task) {
+        size++;
+        numberOfLocs += task.getSize();
+        pendingInjectedDefects += task.getInjectedDefects();
+
+        switch (task.getType()) {
+            case NEW_FEATURE:
+                numberOfNewFeatures++;
+                break;
+            case MAJOR_DEFECT:
+                numberOfMajorDefects++;
+                break;
+            case MINOR_DEFECT:
+                numberOfMinorDefects++;
+                break;
+        }
+    }
+
+    /**
+     * Get the number of defects injected by the tasks completed since the last harvest
+     * The defects are harvested, so they are not returned again
+     *
+     * @return the number of injected defects
+     */
+    public int harvestInjectedDefects() {
+        int injectedDefects = (int) Math.ceil(pendingInjectedDefects);
+        pendingInjectedDefects = 0;
+        return injectedDefects;
+    }
+
+    /**
+     * Get the number of completed tasks
+     *
+     * @return the number of completed tasks
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of completed new features
+     *
+     * @return the number of completed new features
+     */
+    public int getNumberOfNewFeatures() {
+        return numberOfNewFeatures;
+    }
+
+    /**
+     * Get the number of completed major defects
+     *
+     * @return the number of completed major defects
+     */
+    public int getNumberOfMajorDefects() {
+        return numberOfMajorDefects;
+    }
+
+    /**
+     * Get the number of completed minor defects
+     *
+     * @return the number of completed minor defects
+     */
+    public int getNumberOfMinorDefects() {
+        return numberOfMinorDefects;
+    }
+
+    /**
+     * Get the number of lines of code (LOC) added by the completed tasks
+     *
+     * @return the number of lines of code (LOC) added
+     */
+    public int getNumberOfLocs() {
+        return numberOfLocs;
+    }
+
+    /**
+     * Get the number of defects injected by 1000 LOCS
+     *
+     * @return the number of defects injected by 1000 LOCS
+     */
+    public float getNumberOfDefectsPerKLoc() {
+        int defects = numberOfMajorDefects + numberOfMinorDefects;
+        return defects / (numberOfLocs / 1000f);
+    }
+}
@@ -0,0 +1,109 @@
+package model;
+
+import org.apache.commons.math3.distribution.EnumeratedDistribution;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Buffer of samples of an enumerated distribution, refilled in bulk
+ * The samples are buffered as the indices of their values in the probability mass function, found from the
+ * uniform values of the generator of the distribution as {@link EnumeratedDistribution#sample()} does
+ * The distribution is only sampled through the buffer, so the samples follow the same sequence as when
+ * they are drawn one at a time
+ *
+ * @param <T> type of the values of the distribution
+ */
+class EnumeratedSampleBuffer<T> {
+
+    private static final int INITIAL_BATCH_SIZE = 16;
+
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final RandomGenerator generator;
+
+    /**
+     * Values of the distribution, in the order of its probability mass function
+     */
+    private final List<T> values;
+
+    /**
+     * Normalized cumulative probabilities of the values
+     */
+    private final double[] cumulativeProbabilities;
+
+    private final int[] indices;
+
+    /**
+     * Number of samples of the current batch
+     */
+    private int batchSize;
+
+    private int position;
+
+    /**
+     * Constructor
+     *
+     * @param distribution the distribution
+     * @param generator    the generator of the distribution
+     */
+    EnumeratedSampleBuffer(EnumeratedDistribution<T> distribution, RandomGenerator generator) {
+        this.generator = generator;
+        this.values = new ArrayList<>();
+
+        List<Pair<T, Double>> pmf = distribution.getPmf();
+        double totalProbability = 0;
+        for (Pair<T, Double> entry : pmf) {
+            values.add(entry.getKey());
+            totalProbability += entry.getValue();
+        }
+        this.cumulativeProbabilities = new double[pmf.size()];
+        double cumulativeProbability = 0;
+        for (int i = 0; i < cumulativeProbabilities.length; i++) {
+            cumulativeProbability += pmf.get(i).getValue() / totalProbability;
+            cumulativeProbabilities[i] = cumulativeProbability;
+        }
+
+        this.indices = new int[MAX_BATCH_SIZE];
+        this.batchSize = 0;
+        this.position = 0;
+    }
+
+    /**
+     * Discards the buffered samples, used when the distribution is reseeded
+     */
+    void clear() {
+        batchSize = 0;
+        position = 0;
+    }
+
+    /**
+     * Get the next sample of the distribution
+     *
+     * @return the next sample of the distribution
+     */
+    T next() {
+        if (position == batchSize) {
+            refill();
+        }
+        return values.get(indices[position++]);
+    }
+
+    private void refill() {
+        batchSize = Math.min(Math.max(batchSize * 2, INITIAL_BATCH_SIZE), MAX_BATCH_SIZE);
+
+        for (int i = 0; i < batchSize; i++) {
+            double value = generator.nextDouble();
+            int index = Arrays.binarySearch(cumulativeProbabilities, value);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            // as in the distribution, a value on a boundary or past the last one falls on the last value
+            indices[i] = index < values.size() && value < cumulativeProbabilities[index] ? index : values.size() - 1;
+        }
+        position = 0;
+    }
+}
@@ -13,38 +13,79 @@ public class Event implements Comparable {
         PROJECT_END
     }
 
-    private static int instanceCounter = 1;
-
-    private final int id;
+    /**
+     * Identifier of the event, unique within a simulation
+     * Used to break ties between events with the same start time
+     */
+    private int id;
 
-    private final EventType type;
+    private EventType type;
 
     /**
      * Task associatd with the current event
      */
-    private final Task task;
+    private Task task;
 
     /**
      * Start time of the event
      * Defined when the event enters the events queue
      */
-    private final double startTime;
+    private double startTime;
+
+    /**
+     * Position of the event in the heap of its {@link EventQueue}, {@link EventQueue#IN_LANE} if it is in the
+     * lane of the queue, -1 if it is not queued
+     */
+    int queueIndex = -1;
 
     /**
      * Constructor
+     * @param id
      * @param type
      * @param task
      * @param startTime
      */
-    Event(EventType type,
-                 Task task,
-                 double startTime) {
-        this.id = instanceCounter++;
+    Event(int id,
+          EventType type,
+          Task task,
+          double startTime) {
+        reset(id, type, task, startTime);
+    }
+
+    /**
+     * Reinitializes the event, so a processed event can be reused
+     *
+     * @param id        identifier of the event
+     * @param type      type of the event
+     * @param task      task associated with the event
+     * @param startTime start time of the event
+     */
+    void reset(int id, EventType type, Task task, double startTime) {
+        this.id = id;
         this.type = type;
         this.task = task;
         this.startTime = startTime;
     }
 
+    /**
+     * Moves the event to another start time, keeping its identifier
+     * Only for events that are not queued
+     *
+     * @param startTime the new start time of the event
+     */
+    void setStartTime(double startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     * Get the identifier of the event
+     *
+     * @return the identifier of the event
+     */
+    int getId() {
+        return id;
+    }
+
     /**
      * Get the type of event
      *
@@ -0,0 +1,356 @@
+package model;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Queue of the scheduled events, ordered by start time and then by identifier as {@link Event#compareTo(Object)}
+ * The events scheduled for the start time of the last removed event skip the heap: they come after every event
+ * already scheduled for that time, since their identifiers are higher, so they are kept in a FIFO lane
+ * Every queued event knows its position, so it can be removed or rescheduled in O(log n)
+ */
+public class EventQueue extends AbstractQueue<Event> {
+
+    /**
+     * Position of the events kept in the lane
+     */
+    static final int IN_LANE = -2;
+
+    private Event[] heap;
+    private int heapSize;
+
+    /**
+     * Events scheduled for the current time, a ring buffer in the order they were scheduled
+     */
+    private Event[] lane;
+    private int laneHead;
+    private int laneSize;
+
+    /**
+     * Start time of the last removed event
+     */
+    private double currentTime;
+
+    /**
+     * Constructor
+     */
+    public EventQueue() {
+        this.heap = new Event[64];
+        this.lane = new Event[16];
+        clear();
+    }
+
+    @Override
+    public boolean offer(Event event) {
+        if (event == null) {
+            throw new NullPointerException();
+        }
+
+        if (fitsLane(event)) {
+            addToLane(event);
+        } else {
+            ensureHeapCapacity(1);
+            siftUp(heapSize++, event);
+        }
+        return true;
+    }
+
+    /**
+     * Adds several events at once
+     * When they are many compared to the scheduled events, the heap is rebuilt once instead of inserting
+     * them one at a time
+     *
+     * @param events the events to add
+     */
+    public void offerAll(List<Event> events) {
+        ensureHeapCapacity(events.size());
+
+        int firstAdded = heapSize;
+        for (Event event : events) {
+            if (fitsLane(event)) {
+                addToLane(event);
+            } else {
+                event.queueIndex = heapSize;
+                heap[heapSize++] = event;
+            }
+        }
+
+        int added = heapSize - firstAdded;
+        if (added > firstAdded) {
+            for (int i = (heapSize >>> 1) - 1; i >= 0; i--) {
+                siftDown(i, heap[i]);
+            }
+        } else {
+            for (int i = firstAdded; i < heapSize; i++) {
+                siftUp(i, heap[i]);
+            }
+        }
+    }
+
+    @Override
+    public Event poll() {
+        Event event;
+        if (laneSize > 0 && (heapSize == 0 || precedes(lane[laneHead], heap[0]))) {
+            event = lane[laneHead];
+            lane[laneHead] = null;
+            laneHead = (laneHead + 1) & (lane.length - 1);
+            laneSize--;
+        } else if (heapSize > 0) {
+            event = heap[0];
+            removeFromHeap(0);
+        } else {
+            return null;
+        }
+
+        event.queueIndex = -1;
+        currentTime = event.getStartTime();
+        return event;
+    }
+
+    /**
+     * Removes a scheduled event, so it is not processed
+     * O(log n) for the events in the heap, the lane only holds the few events of the current time
+     *
+     * @param o the event to remove
+     * @return true if the event was queued
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Event)) {
+            return false;
+        }
+
+        Event event = (Event) o;
+        int index = event.queueIndex;
+        if (index == IN_LANE) {
+            removeFromLane(event);
+        } else if (index >= 0 && index < heapSize && heap[index] == event) {
+            removeFromHeap(index);
+        } else {
+            return false;
+        }
+
+        event.queueIndex = -1;
+        return true;
+    }
+
+    /**
+     * Moves a scheduled event to another start time
+     * The event keeps its identifier, so among the events of the new start time it keeps its scheduling order
+     *
+     * @param event     the event to move
+     * @param startTime the new start time of the event
+     * @return true if the event was queued and has been moved
+     */
+    public boolean reschedule(Event event, double startTime) {
+        if (!remove(event)) {
+            return false;
+        }
+        event.setStartTime(startTime);
+        offer(event);
+        return true;
+    }
+
+    /**
+     * Adds the events that start before a time to a list, visiting only the part of the heap that holds them
+     *
+     * @param end    the time before which the events start
+     * @param events the list the events are added to, in no particular order
+     */
+    public void collectBefore(double end, List<Event> events) {
+        for (int i = 0; i < laneSize; i++) {
+            Event event = lane[(laneHead + i) & (lane.length - 1)];
+            if (event.getStartTime() < end) {
+                events.add(event);
+            }
+        }
+        collectBefore(0, end, events);
+    }
+
+    /**
+     * Adds the events of a subtree of the heap that start before a time to a list
+     */
+    private void collectBefore(int index, double end, List<Event> events) {
+        if (index < heapSize && heap[index].getStartTime() < end) {
+            events.add(heap[index]);
+            collectBefore((index << 1) + 1, end, events);
+            collectBefore((index << 1) + 2, end, events);
+        }
+    }
+
+    @Override
+    public Event peek() {
+        if (laneSize > 0 && (heapSize == 0 || precedes(lane[laneHead], heap[0]))) {
+            return lane[laneHead];
+        }
+        return heapSize > 0 ? heap[0] : null;
+    }
+
+    @Override
+    public int size() {
+        return heapSize + laneSize;
+    }
+
+    /**
+     * Removes every event, for a new simulation starting at time 0
+     */
+    @Override
+    public void clear() {
+        for (Event event : this) {
+            event.queueIndex = -1;
+        }
+        Arrays.fill(heap, 0, heapSize, null);
+        Arrays.fill(lane, null);
+        heapSize = 0;
+        laneHead = 0;
+        laneSize = 0;
+        currentTime = 0;
+    }
+
+    /**
+     * Iterates the events in the order they are stored, not in start time order
+     *
+     * @return an iterator over the events
+     */
+    @Override
+    public Iterator<Event> iterator() {
+        return new Iterator<Event>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < heapSize + laneSize;
+            }
+
+            @Override
+            public Event next() {
+                if (next >= heapSize + laneSize) {
+                    throw new NoSuchElementException();
+                }
+                int index = next++;
+                if (index < heapSize) {
+                    return heap[index];
+                }
+                return lane[(laneHead + index - heapSize) & (lane.length - 1)];
+            }
+        };
+    }
+
+    /**
+     * Returns true if the first event is removed before the second one
+     */
+    private static boolean precedes(Event first, Event second) {
+        return first.getStartTime() < second.getStartTime()
+                || (first.getStartTime() == second.getStartTime() && first.getId() < second.getId());
+    }
+
+    /**
+     * Removes the event at a position of the heap, filling the gap with the last event
+     */
+    private void removeFromHeap(int index) {
+        int last = --heapSize;
+        Event moved = heap[last];
+        heap[last] = null;
+        if (index != last) {
+            siftDown(index, moved);
+            if (heap[index] == moved) {
+                siftUp(index, moved);
+            }
+        }
+    }
+
+    /**
+     * Removes an event from the lane, keeping the order of the others
+     */
+    private void removeFromLane(Event event) {
+        int mask = lane.length - 1;
+        int i = 0;
+        while (lane[(laneHead + i) & mask] != event) {
+            i++;
+        }
+        for (; i < laneSize - 1; i++) {
+            lane[(laneHead + i) & mask] = lane[(laneHead + i + 1) & mask];
+        }
+        lane[(laneHead + laneSize - 1) & mask] = null;
+        laneSize--;
+    }
+
+    /**
+     * Returns true if the event can be appended to the lane keeping it ordered: it is scheduled for the current
+     * time after the last event of the lane, which only a rescheduled event may not be
+     */
+    private boolean fitsLane(Event event) {
+        return event.getStartTime() == currentTime
+                && (laneSize == 0 || lane[(laneHead + laneSize - 1) & (lane.length - 1)].getId() < event.getId());
+    }
+
+    /**
+     * Appends an event to the lane, doubling it when full
+     */
+    private void addToLane(Event event) {
+        if (laneSize == lane.length) {
+            Event[] grown = new Event[lane.length * 2];
+            for (int i = 0; i < laneSize; i++) {
+                grown[i] = lane[(laneHead + i) & (lane.length - 1)];
+            }
+            lane = grown;
+            laneHead = 0;
+        }
+        lane[(laneHead + laneSize) & (lane.length - 1)] = event;
+        laneSize++;
+        event.queueIndex = IN_LANE;
+    }
+
+    /**
+     * Grows the heap so it can hold the given number of additional events
+     */
+    private void ensureHeapCapacity(int additional) {
+        if (heapSize + additional > heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(heapSize + additional, heap.length + (heap.length >> 1)));
+        }
+    }
+
+    /**
+     * Moves an event up the heap until its parent precedes it
+     */
+    private void siftUp(int k, Event event) {
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            Event parentEvent = heap[parent];
+            if (!precedes(event, parentEvent)) {
+                break;
+            }
+            heap[k] = parentEvent;
+            parentEvent.queueIndex = k;
+            k = parent;
+        }
+        heap[k] = event;
+        event.queueIndex = k;
+    }
+
+    /**
+     * Moves an event down the heap until it precedes its children
+     */
+    private void siftDown(int k, Event event) {
+        int half = heapSize >>> 1;
+        while (k < half) {
+            int child = (k << 1) + 1;
+            Event childEvent = heap[child];
+            int right = child + 1;
+            if (right < heapSize && precedes(heap[right], childEvent)) {
+                childEvent = heap[child = right];
+            }
+            if (!precedes(childEvent, event)) {
+                break;
+            }
+            heap[k] = childEvent;
+            childEvent.queueIndex = k;
+            k = child;
+        }
+        heap[k] = event;
+        event.queueIndex = k;
+    }
+}
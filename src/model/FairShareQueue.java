@@ -0,0 +1,211 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Queue of the tasks of several teams waiting for a shared resource, served one task per team in turn
+ * Every team has its own priority queue, and the teams with waiting tasks are kept in a ring in the order they are
+ * served, so adding and removing a task only touch the queue of its team and the ring
+ */
+public class FairShareQueue {
+
+    private TaskQueue[] queues;
+    private int numberOfTeams;
+
+    /**
+     * Teams with waiting tasks, from the next team to be served, in a circular buffer
+     */
+    private int[] ring;
+    private int head;
+    private int activeTeams;
+
+    /**
+     * Number of waiting tasks of all the teams
+     */
+    private int size;
+
+    /**
+     * Team of the last task removed from the queue
+     */
+    private int lastTeam;
+
+    /**
+     * Constructor
+     */
+    public FairShareQueue() {
+        this.queues = new TaskQueue[16];
+        this.numberOfTeams = 0;
+        this.ring = new int[16];
+        this.head = 0;
+        this.activeTeams = 0;
+        this.size = 0;
+        this.lastTeam = -1;
+    }
+
+    /**
+     * Adds a team to the queue
+     *
+     * @return the index of the team
+     */
+    public int addTeam() {
+        int team = numberOfTeams++;
+        if (team == queues.length) {
+            queues = Arrays.copyOf(queues, team + (team >> 1));
+
+            // the ring keeps its order when it grows, the buffer is unrolled from the head
+            int[] grownRing = new int[queues.length];
+            for (int i = 0; i < activeTeams; i++) {
+                grownRing[i] = ring[(head + i) % ring.length];
+            }
+            ring = grownRing;
+            head = 0;
+        }
+        queues[team] = new TaskQueue();
+        return team;
+    }
+
+    /**
+     * Adds a waiting task of a team
+     * A team without waiting tasks is served after the teams that already have some
+     *
+     * @param team index of the team
+     * @param task the waiting task
+     */
+    public void add(int team, Task task) {
+        if (queues[team].isEmpty()) {
+            ring[(head + activeTeams) % ring.length] = team;
+            activeTeams++;
+        }
+        queues[team].add(task);
+        size++;
+    }
+
+    /**
+     * Removes the next waiting task, the first task of the next team in turn
+     *
+     * @return the next waiting task, null if no task is waiting
+     */
+    public Task poll() {
+        if (size == 0) {
+            return null;
+        }
+
+        int team = ring[head];
+        head = (head + 1) % ring.length;
+        activeTeams--;
+
+        Task task = queues[team].poll();
+        if (!queues[team].isEmpty()) {
+            ring[(head + activeTeams) % ring.length] = team;
+            activeTeams++;
+        }
+        size--;
+        lastTeam = team;
+        return task;
+    }
+
+    /**
+     * Get the team of the next task to be removed by {@link #poll()}
+     *
+     * @return the index of the team, -1 if no task is waiting
+     */
+    public int peekTeam() {
+        return (size == 0) ? -1 : ring[head];
+    }
+
+    /**
+     * Get the team of the last task removed by {@link #poll()}
+     *
+     * @return the index of the team, -1 if no task has been removed
+     */
+    public int getLastTeam() {
+        return lastTeam;
+    }
+
+    /**
+     * Removes the first waiting task of a team, out of turn
+     *
+     * @param team index of the team
+     * @return the first waiting task of the team, null if the team has no waiting task
+     */
+    public Task poll(int team) {
+        if (queues[team].isEmpty()) {
+            return null;
+        }
+
+        Task task = queues[team].poll();
+        if (queues[team].isEmpty()) {
+            removeFromRing(team);
+        }
+        size--;
+        return task;
+    }
+
+    /**
+     * Removes every waiting task of a team
+     *
+     * @param team index of the team
+     */
+    public void clear(int team) {
+        if (!queues[team].isEmpty()) {
+            size -= queues[team].size();
+            queues[team].clear();
+            removeFromRing(team);
+        }
+    }
+
+    /**
+     * Removes every waiting task
+     */
+    public void clear() {
+        for (int team = 0; team < numberOfTeams; team++) {
+            queues[team].clear();
+        }
+        head = 0;
+        activeTeams = 0;
+        size = 0;
+        lastTeam = -1;
+    }
+
+    /**
+     * Get the number of waiting tasks of a team
+     *
+     * @param team index of the team
+     * @return the number of waiting tasks of the team
+     */
+    public int size(int team) {
+        return queues[team].size();
+    }
+
+    /**
+     * Get the number of waiting tasks
+     *
+     * @return the number of waiting tasks
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if no task is waiting
+     *
+     * @return true if no task is waiting
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes a team from the ring, keeping the order of the other teams
+     */
+    private void removeFromRing(int team) {
+        int i = 0;
+        while (ring[(head + i) % ring.length] != team) {
+            i++;
+        }
+        for (; i < activeTeams - 1; i++) {
+            ring[(head + i) % ring.length] = ring[(head + i + 1) % ring.length];
+        }
+        activeTeams--;
+    }
+}
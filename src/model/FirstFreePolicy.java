@@ -0,0 +1,13 @@
+package model;
+
+/**
+ * Chooses the first free developer in the order of the team, as the original simulator did
+ * The teams are created junior developers first, so juniors take the tasks first
+ */
+public class FirstFreePolicy extends SkillIndexedPolicy {
+
+    @Override
+    public int selectDeveloper(Task task) {
+        return firstFree();
+    }
+}
@@ -0,0 +1,61 @@
+package model;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Chooses the free developer that has been busy for the least time, the first in the order of the team among equals
+ * The usage area of a developer only grows while the developer is busy, so the free developers are kept in a sorted
+ * set by the usage area they had when they were freed, and the least loaded one is found in logarithmic time
+ */
+public class LeastLoadedPolicy implements DispatchPolicy {
+
+    private Resource resource;
+
+    /**
+     * Usage area of every free developer when it was freed, by position in the team
+     */
+    private double[] loads;
+
+    private TreeSet<Integer> free;
+
+    @Override
+    public void attach(Resource resource, List<Developer> developers) {
+        this.resource = resource;
+        this.loads = new double[developers.size()];
+        this.free = new TreeSet<>(Comparator.comparingDouble((Integer slot) -> loads[slot])
+                .thenComparingInt(slot -> slot));
+
+        for (int slot = 0; slot < loads.length; slot++) {
+            if (!resource.isBusy(slot)) {
+                updateState(slot, false);
+            }
+        }
+    }
+
+    @Override
+    public void updateState(int slot, boolean busy) {
+        if (busy) {
+            free.remove(slot);
+        } else {
+            loads[slot] = resource.getUsageArea(slot);
+            free.add(slot);
+        }
+    }
+
+    @Override
+    public void updateTeam(boolean busy) {
+        free.clear();
+        if (!busy) {
+            for (int slot = 0; slot < loads.length; slot++) {
+                updateState(slot, false);
+            }
+        }
+    }
+
+    @Override
+    public int selectDeveloper(Task task) {
+        return free.isEmpty() ? -1 : free.first();
+    }
+}
@@ -0,0 +1,528 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Backlog that keeps its tasks out of the heap, as fixed width records of a memory mapped file
+ * Only the priority index stays on the heap, a binary heap of packed sort keys and record slots, so the
+ * operating system pages the records of the tasks in and out as needed
+ * The index follows the same steps as the {@link TaskQueue} of {@link Backlog}, so both backlogs hand out
+ * the tasks in the same order
+ */
+public class MappedBacklog implements TaskBacklog, Closeable {
+
+    /**
+     * Layout of a task record
+     */
+    private static final int ID_OFFSET = 0;
+    private static final int TYPE_OFFSET = 4;
+    private static final int STATUS_OFFSET = 5;
+    private static final int PRIORITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int CODING_EFFORT_OFFSET = 16;
+    private static final int TEST_EFFORT_OFFSET = 20;
+    private static final int INJECTED_DEFECTS_OFFSET = 24;
+    private static final int ARRIVAL_TIME_OFFSET = 32;
+    private static final int RECORD_SIZE = 40;
+
+    /**
+     * The file is mapped in regions of 2^20 records
+     */
+    private static final int REGION_BITS = 20;
+    private static final int REGION_MASK = (1 << REGION_BITS) - 1;
+    private static final long REGION_BYTES = (long) RECORD_SIZE << REGION_BITS;
+
+    private static final Task.TaskType[] TASK_TYPES = Task.TaskType.values();
+    private static final Task.TaskStatus[] TASK_STATUSES = Task.TaskStatus.values();
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> regions;
+
+    /**
+     * Priority index, the sort key and the record slot of every task
+     */
+    private long[] keys;
+    private int[] slots;
+    private int size;
+
+    /**
+     * Record slots released by removed tasks, reused before the file grows
+     */
+    private int[] freeSlots;
+    private int numberOfFreeSlots;
+    private int nextSlot;
+
+    private double backlogEffort;
+    private final int[] numberOfTasksByType;
+    private int numberOfLocs;
+
+    /**
+     * True while a bulk load is in progress, the index is built once it finishes
+     */
+    private boolean bulkLoading;
+    private boolean pendingHeapify;
+
+    /**
+     * Provides the tasks handed out by the backlog
+     */
+    private final Supplier<Task> taskSupplier;
+
+    /**
+     * Receives the tasks once stored, since the backlog does not reference them
+     */
+    private final Consumer<Task> taskRecycler;
+
+    /**
+     * Task used to read and update records in place
+     */
+    private final Task scratchTask;
+
+    /**
+     * Constructor
+     * The file of the records is deleted when the backlog is closed
+     *
+     * @param directory    directory of the file of the records
+     * @param taskSupplier provides the tasks handed out by the backlog
+     * @param taskRecycler receives the tasks once stored
+     * @throws IOException if the file of the records cannot be created
+     */
+    public MappedBacklog(Path directory, Supplier<Task> taskSupplier, Consumer<Task> taskRecycler)
+            throws IOException {
+        Path file = Files.createTempFile(directory, "backlog", ".tasks");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        this.regions = new ArrayList<>();
+
+        this.keys = new long[1024];
+        this.slots = new int[1024];
+        this.freeSlots = new int[1024];
+        this.numberOfTasksByType = new int[TASK_TYPES.length];
+
+        this.taskSupplier = taskSupplier;
+        this.taskRecycler = taskRecycler;
+        this.scratchTask = new Task(0, Task.TaskType.NEW_FEATURE, 0f, 0f, 0);
+
+        clear();
+    }
+
+    /**
+     * Adds a new task to the backlog
+     * The task is stored and handed to the recycler, so it must not be used afterwards
+     *
+     * @param task task to be added
+     */
+    @Override
+    public void addTaskToBacklog(Task task) {
+        int slot = store(task);
+        offer(task.getSortKey(), slot);
+        backlogEffort += task.getEffort();
+        taskRecycler.accept(task);
+    }
+
+    /**
+     * Adds several tasks to the backlog
+     * An empty backlog is built with a single heapify instead of one insertion per task
+     * The tasks are stored and handed to the recycler, so they must not be used afterwards
+     *
+     * @param tasks tasks to be added
+     */
+    @Override
+    public void addTasksToBacklog(List<Task> tasks) {
+        boolean heapify = size == 0 || pendingHeapify;
+
+        for (Task task : tasks) {
+            int slot = store(task);
+            if (heapify) {
+                ensureIndexCapacity();
+                keys[size] = task.getSortKey();
+                slots[size] = slot;
+                size++;
+            } else {
+                offer(task.getSortKey(), slot);
+            }
+        }
+
+        if (heapify) {
+            if (bulkLoading) {
+                pendingHeapify = true;
+            } else {
+                heapify();
+            }
+        }
+
+        for (Task task : tasks) {
+            backlogEffort += task.getEffort();
+            taskRecycler.accept(task);
+        }
+    }
+
+    /**
+     * Starts a bulk load, the tasks added by the following calls to {@link #addTasksToBacklog(List)} are
+     * indexed as if they were added by a single call
+     */
+    public void beginBulkLoad() {
+        bulkLoading = true;
+    }
+
+    /**
+     * Finishes a bulk load, building the index of the loaded tasks
+     */
+    public void endBulkLoad() {
+        bulkLoading = false;
+        if (pendingHeapify) {
+            heapify();
+            pendingHeapify = false;
+        }
+    }
+
+    /**
+     * Removes every task from the backlog, keeping the file of the records
+     */
+    @Override
+    public void clear() {
+        size = 0;
+        numberOfFreeSlots = 0;
+        nextSlot = 0;
+        backlogEffort = 0;
+        Arrays.fill(numberOfTasksByType, 0);
+        numberOfLocs = 0;
+        bulkLoading = false;
+        pendingHeapify = false;
+    }
+
+    /**
+     * Get the effort of the current backlog
+     *
+     * @return the effort of the current backlog
+     */
+    @Override
+    public double getBacklogEffort() {
+        return backlogEffort;
+    }
+
+    /**
+     * Returns true if no tasks are left in the task queue
+     *
+     * @return true if no tasks are left in the task queue
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the next task on the task queue according to the task priority
+     * The task is loaded from its record into a task of the task supplier
+     *
+     * @return the next task on the task queue according to the task priority
+     */
+    @Override
+    public Task getNextTask() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+
+        int slot = slots[0];
+        int last = --size;
+        if (last > 0) {
+            siftDown(0, keys[last], slots[last]);
+        }
+
+        Task task = taskSupplier.get();
+        load(slot, task);
+        release(slot, task);
+        backlogEffort -= task.getEffort();
+        return task;
+    }
+
+    /**
+     * Get the size of the backlog
+     *
+     * @return the size of the backlog
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the total number of injected defects on the tasks that
+     * are part of the task queue
+     *
+     * @return the total number of injected defects
+     */
+    @Override
+    public int getInjectedDefects() {
+        float curInjectedDefects = 0;
+        for (int i = 0; i < size; i++) {
+            MappedByteBuffer region = region(slots[i]);
+            int offset = offset(slots[i]);
+            if (TASK_STATUSES[region.get(offset + STATUS_OFFSET)] == Task.TaskStatus.TESTING) {
+                curInjectedDefects += region.getDouble(offset + INJECTED_DEFECTS_OFFSET);
+                region.put(offset + STATUS_OFFSET, (byte) Task.TaskStatus.DONE.ordinal());
+                keys[i] = sortKey(region, offset);
+            }
+        }
+
+        return (int) Math.ceil(curInjectedDefects);
+    }
+
+    /**
+     * Assigns new priorities to the tasks to be done
+     * The records are updated in place and the index is not reordered, as the task queue of {@link Backlog}, so
+     * the tasks are handed out in the same order
+     *
+     * @param taskCreator the task creator that samples the priorities
+     */
+    @Override
+    public void updatePriorities(TaskCreator taskCreator) {
+        int round = taskCreator.nextPriorityRound();
+        for (int i = 0; i < size; i++) {
+            load(slots[i], scratchTask);
+            taskCreator.updatePriorityOfTask(scratchTask, round);
+
+            region(slots[i]).putInt(offset(slots[i]) + PRIORITY_OFFSET, scratchTask.getPriority());
+            keys[i] = scratchTask.getSortKey();
+        }
+    }
+
+    /**
+     * Get the total number of minor defects that
+     * are part of the task queue
+     *
+     * @return the total number of minor defects
+     */
+    @Override
+    public int getNumberOfMinorDefects() {
+        return numberOfTasksByType[Task.TaskType.MINOR_DEFECT.ordinal()];
+    }
+
+    /**
+     * Get the total number of major defects that
+     * are part of the task queue
+     *
+     * @return the total number of major defects
+     */
+    @Override
+    public int getNumberOfMajorDefects() {
+        return numberOfTasksByType[Task.TaskType.MAJOR_DEFECT.ordinal()];
+    }
+
+    /**
+     * Get the total number of new features that
+     * are part of the task queue
+     *
+     * @return the total number of new features
+     */
+    @Override
+    public int getNumberOfNewFeatures() {
+        return numberOfTasksByType[Task.TaskType.NEW_FEATURE.ordinal()];
+    }
+
+    /**
+     * Get the number of lines of code (LOC) added
+     * by the tasks that are part of the task queue
+     *
+     * @return the number of lines of code (LOC) added
+     */
+    @Override
+    public int getNumberOfLocs() {
+        return numberOfLocs;
+    }
+
+    /**
+     * Closes the file of the records, which deletes it
+     * The mapped regions are dropped, their memory is unmapped once they are garbage collected
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        clear();
+        regions.clear();
+        channel.close();
+    }
+
+    /**
+     * Writes the record of a task into a free slot
+     *
+     * @param task the task to store
+     * @return the slot of the record
+     */
+    private int store(Task task) {
+        if (task.getDeveloper() != null) {
+            throw new IllegalArgumentException("Tasks assigned to a developer cannot be stored out of core");
+        }
+
+        int slot = numberOfFreeSlots > 0 ? freeSlots[--numberOfFreeSlots] : nextSlot++;
+        MappedByteBuffer region = region(slot);
+        int offset = offset(slot);
+
+        region.putInt(offset + ID_OFFSET, task.getId());
+        region.put(offset + TYPE_OFFSET, (byte) task.getType().ordinal());
+        region.put(offset + STATUS_OFFSET, (byte) task.getStatus().ordinal());
+        region.putInt(offset + PRIORITY_OFFSET, task.getPriority());
+        region.putInt(offset + SIZE_OFFSET, task.getSize());
+        region.putFloat(offset + CODING_EFFORT_OFFSET, (float) task.getCodingEffort());
+        region.putFloat(offset + TEST_EFFORT_OFFSET, (float) task.getTestEffort());
+        region.putDouble(offset + INJECTED_DEFECTS_OFFSET, task.getInjectedDefects());
+        region.putDouble(offset + ARRIVAL_TIME_OFFSET, task.getArrivalTime());
+
+        numberOfTasksByType[task.getType().ordinal()]++;
+        numberOfLocs += task.getSize();
+        return slot;
+    }
+
+    /**
+     * Reads the record of a task
+     *
+     * @param slot the slot of the record
+     * @param task the task to initialize with the record
+     */
+    private void load(int slot, Task task) {
+        MappedByteBuffer region = region(slot);
+        int offset = offset(slot);
+
+        task.reset(region.getInt(offset + ID_OFFSET),
+                TASK_TYPES[region.get(offset + TYPE_OFFSET)],
+                region.getFloat(offset + CODING_EFFORT_OFFSET),
+                region.getFloat(offset + TEST_EFFORT_OFFSET),
+                region.getInt(offset + SIZE_OFFSET));
+        task.updateStatus(TASK_STATUSES[region.get(offset + STATUS_OFFSET)]);
+        task.setPriority(region.getInt(offset + PRIORITY_OFFSET));
+        task.updateInjectedDefects(region.getDouble(offset + INJECTED_DEFECTS_OFFSET));
+        task.updateArrivalTime(region.getDouble(offset + ARRIVAL_TIME_OFFSET));
+    }
+
+    /**
+     * Frees the slot of a removed task
+     *
+     * @param slot the slot of the record
+     * @param task the removed task
+     */
+    private void release(int slot, Task task) {
+        if (numberOfFreeSlots == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[numberOfFreeSlots++] = slot;
+
+        numberOfTasksByType[task.getType().ordinal()]--;
+        numberOfLocs -= task.getSize();
+    }
+
+    /**
+     * Get the mapped region that holds a slot, mapping it if the file does not reach it yet
+     */
+    private MappedByteBuffer region(int slot) {
+        int index = slot >>> REGION_BITS;
+        while (regions.size() <= index) {
+            try {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE,
+                        regions.size() * REGION_BYTES, REGION_BYTES);
+                region.order(ByteOrder.nativeOrder());
+                regions.add(region);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return regions.get(index);
+    }
+
+    /**
+     * Get the offset of a slot within its region
+     */
+    private static int offset(int slot) {
+        return (slot & REGION_MASK) * RECORD_SIZE;
+    }
+
+    /**
+     * Get the sort key of a record
+     */
+    private static long sortKey(MappedByteBuffer region, int offset) {
+        return Task.sortKey(TASK_STATUSES[region.get(offset + STATUS_OFFSET)],
+                TASK_TYPES[region.get(offset + TYPE_OFFSET)],
+                region.getInt(offset + PRIORITY_OFFSET),
+                region.getInt(offset + ID_OFFSET));
+    }
+
+    /**
+     * Grows the index if it is full
+     */
+    private void ensureIndexCapacity() {
+        if (size == keys.length) {
+            int capacity = keys.length + (keys.length >> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+        }
+    }
+
+    /**
+     * Inserts a task in the index
+     */
+    private void offer(long key, int slot) {
+        ensureIndexCapacity();
+        siftUp(size++, key, slot);
+    }
+
+    /**
+     * Orders the whole index
+     */
+    private void heapify() {
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, keys[i], slots[i]);
+        }
+    }
+
+    /**
+     * Moves a task up the index until its parent precedes it, as {@link TaskQueue}
+     */
+    private void siftUp(int k, long key, int slot) {
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (key >= keys[parent]) {
+                break;
+            }
+            keys[k] = keys[parent];
+            slots[k] = slots[parent];
+            k = parent;
+        }
+        keys[k] = key;
+        slots[k] = slot;
+    }
+
+    /**
+     * Moves a task down the index until it precedes its children, as {@link TaskQueue}
+     */
+    private void siftDown(int k, long key, int slot) {
+        int half = size >>> 1;
+        while (k < half) {
+            int child = (k << 1) + 1;
+            int right = child + 1;
+            if (right < size && keys[child] > keys[right]) {
+                child = right;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[k] = keys[child];
+            slots[k] = slots[child];
+            k = child;
+        }
+        keys[k] = key;
+        slots[k] = slot;
+    }
+}
@@ -0,0 +1,16 @@
+package model;
+
+/**
+ * Chooses the free developer with the highest skill level, the first in the order of the team among equals
+ */
+public class MostSkilledFirstPolicy extends SkillIndexedPolicy {
+
+    private static final Developer.Skill[] MOST_SKILLED_FIRST = {
+            Developer.Skill.SENIOR, Developer.Skill.MID_LEVEL, Developer.Skill.JUNIOR
+    };
+
+    @Override
+    public int selectDeveloper(Task task) {
+        return firstFree(MOST_SKILLED_FIRST);
+    }
+}
@@ -0,0 +1,100 @@
+package model;
+
+/**
+ * Counter based random generator, Philox4x32 with 10 rounds (Salmon et al., "Parallel random numbers: as easy
+ * as 1, 2, 3")
+ * Every value is a function of the key and of a counter, so a value can be drawn in any order, on any thread,
+ * without the state of a sequential stream
+ */
+public class PhiloxRandom {
+
+    private static final int ROUNDS = 10;
+
+    private static final long M0 = 0xd2511f53L;
+    private static final long M1 = 0xcd9e8d57L;
+
+    private static final int W0 = 0x9e3779b9;
+    private static final int W1 = 0xbb67ae85;
+
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private final int key0;
+    private final int key1;
+
+    /**
+     * Constructor
+     *
+     * @param key key of the generator
+     */
+    public PhiloxRandom(long key) {
+        this.key0 = (int) key;
+        this.key1 = (int) (key >>> 32);
+    }
+
+    /**
+     * Get the uniform value of a counter
+     *
+     * @param counter0 first word of the counter
+     * @param counter1 second word of the counter
+     * @param counter2 third word of the counter
+     * @return a value uniformly distributed in [0, 1)
+     */
+    public double nextDouble(int counter0, int counter1, int counter2) {
+        return (encrypt(counter0, counter1, counter2, 0, null) >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Get the block of four words of a counter
+     *
+     * @param counter0 first word of the counter
+     * @param counter1 second word of the counter
+     * @param counter2 third word of the counter
+     * @param counter3 fourth word of the counter
+     * @param block    receives the four words of the block of the counter
+     */
+    public void generate(int counter0, int counter1, int counter2, int counter3, int[] block) {
+        encrypt(counter0, counter1, counter2, counter3, block);
+    }
+
+    /**
+     * Runs the rounds of Philox on a counter
+     *
+     * @param counter0 first word of the counter
+     * @param counter1 second word of the counter
+     * @param counter2 third word of the counter
+     * @param counter3 fourth word of the counter
+     * @param block    receives the four words of the block, null if only the first two words are needed
+     * @return the first two words of the block, the first one in the high bits
+     */
+    private long encrypt(int counter0, int counter1, int counter2, int counter3, int[] block) {
+        int c0 = counter0;
+        int c1 = counter1;
+        int c2 = counter2;
+        int c3 = counter3;
+        int k0 = key0;
+        int k1 = key1;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long product0 = M0 * (c0 & 0xffffffffL);
+            long product1 = M1 * (c2 & 0xffffffffL);
+
+            int next0 = (int) (product1 >>> 32) ^ c1 ^ k0;
+            int next2 = (int) (product0 >>> 32) ^ c3 ^ k1;
+            c1 = (int) product1;
+            c3 = (int) product0;
+            c0 = next0;
+            c2 = next2;
+
+            k0 += W0;
+            k1 += W1;
+        }
+
+        if (block != null) {
+            block[0] = c0;
+            block[1] = c1;
+            block[2] = c2;
+            block[3] = c3;
+        }
+        return ((c0 & 0xffffffffL) << 32) | (c1 & 0xffffffffL);
+    }
+}
@@ -0,0 +1,765 @@
+package model;
+
+import profiling.ReplicationEvent;
+import utils.Constants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Portfolio of teams, each one with its own project, backlogs and developers, that share a single pool of testers
+ * The teams are simulated in a single event loop: every team keeps its own events queue, and the teams are kept in
+ * a heap ordered by the start time of their next event, so the next event of the portfolio is found in logarithmic
+ * time whatever the number of teams
+ * The tasks waiting for a tester are served one task per team in turn, see {@link SharedResource}
+ * Every team reports its results as a single simulation does, with the statistics of the testers from the point of
+ * view of the team
+ * The teams can also be simulated in parallel, in conservative time windows, with the same results, see
+ * {@link #run(int)}
+ */
+public class Portfolio implements AutoCloseable {
+
+    private final int numberOfTesters;
+
+    private final SharedResource testers;
+
+    private final List<Simulator> teams;
+
+    /**
+     * Share of the testers of every team
+     */
+    private final List<TaskResource> testerShares;
+
+    /**
+     * Heap of the teams with scheduled events, ordered by the start time of their next event and then by index
+     */
+    private int[] heap;
+    private int heapSize;
+
+    /**
+     * Position of every team in the heap, -1 if the team is not in the heap
+     */
+    private int[] positions;
+
+    /**
+     * Start time of the next event of every team
+     */
+    private double[] nextEventTimes;
+
+    /**
+     * True for the teams whose simulation has ended
+     */
+    private boolean[] ended;
+
+    private ReplicationEvent[] replicationEvents;
+
+    /**
+     * Time of the event being processed
+     */
+    private double clock;
+
+    /**
+     * Team of the event being processed
+     */
+    private int currentTeam;
+
+    /**
+     * Least number of teams simulated in a time window for the window to be split among the threads
+     */
+    private static final int MIN_PARALLEL_TEAMS = 8;
+
+    /**
+     * Order of the operations on the shared testers, the order of the events in the sequential engine
+     */
+    private static final Comparator<Operation> OPERATION_ORDER = Comparator
+            .comparingDouble((Operation operation) -> operation.event.getStartTime())
+            .thenComparingInt(operation -> operation.team)
+            .thenComparing((operation, other) -> operation.event.compareTo(other.event));
+
+    /**
+     * True while the teams are simulated in a time window
+     */
+    private boolean windowed;
+
+    /**
+     * State of every team in the current time window
+     */
+    private TeamWindow[] windows;
+
+    /**
+     * Teams simulated in the current time window
+     */
+    private int[] windowTeams;
+    private int numberOfWindowTeams;
+
+    /**
+     * Events of the teams in the current time window, and the team of every event
+     */
+    private final List<Event> windowEvents = new ArrayList<>();
+    private int[] eventTeams = new int[64];
+
+    /**
+     * Operations on the shared testers in the current time window, the first ones of a list reused by every window
+     */
+    private final List<Operation> operations = new ArrayList<>();
+    private int numberOfOperations;
+
+    /**
+     * Constructor
+     *
+     * @param numberOfTesters number of testers shared by the teams
+     */
+    public Portfolio(int numberOfTesters) {
+        this.numberOfTesters = numberOfTesters;
+
+        List<Developer> testersList = new ArrayList<>();
+        for (int i = 0; i < numberOfTesters; i++) {
+            testersList.add(new Developer(Developer.DeveloperType.TESTER,
+                    Constants.DAILY_EFFORT, Developer.Skill.MID_LEVEL));
+        }
+        this.testers = new SharedResource(testersList, Constants.TESTER_DISPATCH_POLICY.create());
+
+        this.teams = new ArrayList<>();
+        this.testerShares = new ArrayList<>();
+    }
+
+    /**
+     * Adds a team with its own project
+     *
+     * @param useTdd  true if tdd is used
+     * @param seniors number of senior developers
+     * @param mid     number of mid level developers
+     * @param juniors number of junior developers
+     * @param seed    seed of the probability distributions of the team, -1 to leave them unseeded
+     * @return the index of the team
+     */
+    public int addTeam(boolean useTdd, int seniors, int mid, int juniors, long seed) {
+        Simulator team = new Simulator(useTdd, seniors, mid, juniors, numberOfTesters, seed);
+        TaskResource testerShare = testers.createShare(team::getClock);
+        team.joinPortfolio(this, teams.size(), testerShare);
+
+        teams.add(team);
+        testerShares.add(testerShare);
+        return teams.size() - 1;
+    }
+
+    /**
+     * Setup routine, sets up every team
+     */
+    public void setup() {
+        testers.reset();
+        clock = 0;
+        for (Simulator team : teams) {
+            team.setup();
+        }
+    }
+
+    /**
+     * Main routine, runs the projects of every team until all of them have ended
+     */
+    public void run() {
+        begin();
+        while (heapSize > 0) {
+            processNextEvent();
+        }
+        finish();
+    }
+
+    /**
+     * Main routine, runs the projects of every team until all of them have ended, simulating the teams in parallel
+     * The teams only interact through the shared testers, and no development or testing session is shorter than the
+     * lookahead, the shortest effort a task can have, so a session started in a time window as long as the lookahead
+     * ends after the window. The operations on the shared testers within a window are therefore known when the
+     * window starts: they are replayed first in the order of the sequential engine, then every team simulates its
+     * events of the window on its own, with the testers and waiting tasks handed to it by the replay. The results
+     * are the same as the ones of {@link #run()}
+     * Falls back to {@link #run()} with a single thread or when the efforts of {@link Constants} give no lookahead
+     *
+     * @param numberOfThreads number of threads that simulate the teams
+     */
+    public void run(int numberOfThreads) {
+        double lookahead = calculateLookahead();
+        if (numberOfThreads <= 1 || lookahead <= 0) {
+            run();
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+        try {
+            begin();
+            windows = new TeamWindow[teams.size()];
+            for (int team = 0; team < windows.length; team++) {
+                windows[team] = new TeamWindow();
+            }
+            windowTeams = new int[teams.size()];
+
+            while (heapSize > 0) {
+                if (!processWindow(lookahead, pool, numberOfThreads)) {
+                    processNextEvent();
+                }
+            }
+            finish();
+        } finally {
+            windows = null;
+            windowTeams = null;
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Get the lookahead of the time windows, the shortest duration a development or testing session can have
+     * The efforts are rounded to hundredths, so the shortest effort is half an hundredth below its lower limit
+     *
+     * @return the lookahead, in ticks of the clock with a clock resolution and in hours otherwise
+     */
+    private static double calculateLookahead() {
+        double minEffort = Math.min(Constants.NEW_FEATURE_EFFORT_LOWER_LIMIT,
+                Math.min(Constants.MINOR_DEFECT_EFFORT_LOWER_LIMIT, Constants.MAJOR_DEFECT_EFFORT_LOWER_LIMIT)) - 0.005;
+
+        double minProductivity = Double.POSITIVE_INFINITY;
+        for (Developer.Skill skill : Developer.Skill.values()) {
+            minProductivity = Math.min(minProductivity, skill.getProductivity());
+        }
+
+        double coding = minEffort * (1 - Constants.TESTING_DEFECT_EFFORT_PERC)
+                * Math.min(Constants.TDD_CODING_EFFORT, Constants.NONTDD_CODING_EFFORT) * minProductivity;
+        double testing = minEffort * Constants.TESTING_DEFECT_EFFORT_PERC
+                * Math.min(Constants.TDD_TESTING_EFFORT, Constants.NONTDD_TESTING_EFFORT)
+                * Developer.Skill.MID_LEVEL.getProductivity();
+
+        // the efforts are computed in floats, the margin covers their rounding
+        double lookahead = Math.min(coding, testing) * (1 - 1e-6);
+        if (Constants.CLOCK_TICKS_PER_HOUR == 0) {
+            return lookahead;
+        }
+        return Math.round(lookahead * Constants.CLOCK_TICKS_PER_HOUR);
+    }
+
+    /**
+     * Prepares the heap of the teams and starts the replication of every team
+     */
+    private void begin() {
+        int numberOfTeams = teams.size();
+        heap = new int[numberOfTeams];
+        heapSize = 0;
+        positions = new int[numberOfTeams];
+        nextEventTimes = new double[numberOfTeams];
+        ended = new boolean[numberOfTeams];
+        replicationEvents = new ReplicationEvent[numberOfTeams];
+
+        Arrays.fill(positions, -1);
+        for (int team = 0; team < numberOfTeams; team++) {
+            replicationEvents[team] = new ReplicationEvent();
+            replicationEvents[team].begin();
+            updateTeam(team);
+        }
+    }
+
+    /**
+     * Ends the teams still waiting for testers once no team has events left
+     */
+    private void finish() {
+        // a team can only wait for testers while another team is using them
+        for (int team = 0; team < teams.size(); team++) {
+            if (!ended[team]) {
+                endTeam(team, false);
+            }
+        }
+    }
+
+    /**
+     * Processes the next event of the portfolio
+     */
+    private void processNextEvent() {
+        currentTeam = heap[0];
+        clock = nextEventTimes[currentTeam];
+        testers.advanceTo(clock);
+
+        Simulator team = teams.get(currentTeam);
+        if (team.processNextEvent()) {
+            endTeam(currentTeam, true);
+        } else {
+            updateTeam(currentTeam);
+        }
+    }
+
+    /**
+     * Processes the events of the time window that starts with the next event of the portfolio
+     * The window ends a lookahead later, or at the first end of a project scheduled beforehand, since ending a
+     * project frees testers at a time no replay can foresee
+     *
+     * @param lookahead       the lookahead of the time windows
+     * @param pool            the threads that simulate the teams
+     * @param numberOfThreads the number of threads
+     * @return false if the window is empty, the next event must then be processed on its own
+     */
+    private boolean processWindow(double lookahead, ForkJoinPool pool, int numberOfThreads) {
+        double start = nextEventTimes[heap[0]];
+        double limit = start + lookahead;
+
+        findTeamsBefore(limit);
+        for (int i = 0; i < numberOfWindowTeams; i++) {
+            int team = windowTeams[i];
+            int first = windowEvents.size();
+            teams.get(team).collectEventsBefore(limit, windowEvents);
+            if (eventTeams.length < windowEvents.size()) {
+                eventTeams = Arrays.copyOf(eventTeams, Math.max(windowEvents.size(), eventTeams.length << 1));
+            }
+            for (int j = first; j < windowEvents.size(); j++) {
+                eventTeams[j] = team;
+                if (windowEvents.get(j).getType() == Event.EventType.PROJECT_END) {
+                    limit = Math.min(limit, windowEvents.get(j).getStartTime());
+                }
+            }
+        }
+
+        if (limit <= start) {
+            numberOfWindowTeams = 0;
+            windowEvents.clear();
+            return false;
+        }
+        double end = limit;
+
+        numberOfOperations = 0;
+        for (int i = 0; i < windowEvents.size(); i++) {
+            Event event = windowEvents.get(i);
+            if (event.getStartTime() < end && (event.getType() == Event.EventType.DEVELOPMENT_END
+                    || event.getType() == Event.EventType.TEST_END)) {
+                if (numberOfOperations == operations.size()) {
+                    operations.add(new Operation());
+                }
+                Operation operation = operations.get(numberOfOperations++);
+                operation.team = eventTeams[i];
+                operation.event = event;
+            }
+        }
+        windowEvents.clear();
+
+        int simulatedTeams = 0;
+        for (int i = 0; i < numberOfWindowTeams; i++) {
+            int team = windowTeams[i];
+            if (nextEventTimes[team] < end) {
+                windowTeams[simulatedTeams++] = team;
+                windows[team].simulated = true;
+            }
+        }
+        numberOfWindowTeams = simulatedTeams;
+        replayOperations();
+
+        for (int i = 0; i < numberOfWindowTeams; i++) {
+            teams.get(windowTeams[i]).setHorizon(end);
+        }
+
+        windowed = true;
+        testers.setWindowed(true);
+        int numberOfTeams = numberOfWindowTeams;
+        if (numberOfTeams < MIN_PARALLEL_TEAMS) {
+            for (int i = 0; i < numberOfTeams; i++) {
+                simulateWindow(windowTeams[i], end);
+            }
+        } else {
+            int chunks = Math.min(numberOfTeams, numberOfThreads * 4);
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                for (int i = chunk; i < numberOfTeams; i += chunks) {
+                    simulateWindow(windowTeams[i], end);
+                }
+            })).join();
+        }
+        testers.setWindowed(false);
+        windowed = false;
+
+        Arrays.sort(windowTeams, 0, numberOfWindowTeams);
+        for (int i = 0; i < numberOfWindowTeams; i++) {
+            clock = Math.max(clock, teams.get(windowTeams[i]).getClock());
+        }
+        testers.advanceTo(clock);
+
+        for (int i = 0; i < numberOfWindowTeams; i++) {
+            int team = windowTeams[i];
+            teams.get(team).setHorizon(Double.NEGATIVE_INFINITY);
+            TeamWindow window = windows[team];
+            if (window.projectEnd) {
+                endTeam(team, true);
+            } else {
+                updateTeam(team);
+            }
+            window.clear();
+        }
+        numberOfWindowTeams = 0;
+        for (int i = 0; i < numberOfOperations; i++) {
+            operations.get(i).event = null;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the teams whose next event starts before a time, walking down the heap only where it can find them
+     */
+    private void findTeamsBefore(double end) {
+        numberOfWindowTeams = 0;
+        if (heapSize > 0 && nextEventTimes[heap[0]] < end) {
+            windowTeams[numberOfWindowTeams++] = heap[0];
+        }
+        for (int i = 0; i < numberOfWindowTeams; i++) {
+            int position = positions[windowTeams[i]];
+            for (int child = (position << 1) + 1; child <= (position << 1) + 2 && child < heapSize; child++) {
+                if (nextEventTimes[heap[child]] < end) {
+                    windowTeams[numberOfWindowTeams++] = heap[child];
+                }
+            }
+        }
+    }
+
+    /**
+     * Replays the operations on the shared testers of the time window in the order of the sequential engine
+     * Every tester taken or handed over is assigned to the share of its team, and every waiting task handed a tester
+     * freed by another team is recorded for its team, which starts its test at the time of the hand over
+     */
+    private void replayOperations() {
+        operations.subList(0, numberOfOperations).sort(OPERATION_ORDER);
+        for (int i = 0; i < numberOfOperations; i++) {
+            Operation operation = operations.get(i);
+            Task task = operation.event.getTask();
+            TeamWindow window = windows[operation.team];
+            if (operation.event.getType() == Event.EventType.DEVELOPMENT_END) {
+                testers.assign(operation.team, task);
+                continue;
+            }
+
+            testers.releaseDeveloper(task);
+
+            // a single tester is freed, it takes at most one waiting task
+            Task waitingTask = testers.pollWaitingTask();
+            if (waitingTask == null) {
+                window.ownHandOffs.add(null);
+                continue;
+            }
+            int team = testers.getLastTeam();
+            testers.assign(team, waitingTask);
+            if (team == operation.team) {
+                window.ownHandOffs.add(waitingTask);
+            } else {
+                window.ownHandOffs.add(null);
+                windows[team].handOffs.add(new HandOff(operation.event.getStartTime(), operation.team, waitingTask));
+                if (!windows[team].simulated) {
+                    // a team waiting for testers is simulated in the window to start its tests
+                    windows[team].simulated = true;
+                    windowTeams[numberOfWindowTeams++] = team;
+                }
+            }
+        }
+    }
+
+    /**
+     * Simulates the events of a team in the time window, with the hand overs of the other teams in the order of the
+     * sequential engine: before the events that start later, and before the events that start at the same time when
+     * the team handing over precedes the team
+     * Only touches the state of the team and its share of the testers, so the teams are simulated concurrently
+     */
+    private void simulateWindow(int team, double end) {
+        Simulator simulator = teams.get(team);
+        TeamWindow window = windows[team];
+
+        double next = simulator.getNextEventTime();
+        while (next < end) {
+            while (window.nextHandOff < window.handOffs.size()) {
+                HandOff handOff = window.handOffs.get(window.nextHandOff);
+                if (handOff.time > next || handOff.time == next && handOff.team > team) {
+                    break;
+                }
+                handOver(team, handOff);
+            }
+
+            if (simulator.processNextEvent()) {
+                window.projectEnd = true;
+                return;
+            }
+            next = simulator.getNextEventTime();
+        }
+
+        while (window.nextHandOff < window.handOffs.size()) {
+            handOver(team, window.handOffs.get(window.nextHandOff));
+        }
+    }
+
+    /**
+     * Starts the test of a waiting task of a team with the tester freed by another team
+     */
+    private void handOver(int team, HandOff handOff) {
+        windows[team].nextHandOff++;
+        testers.takeWaitingTask(team, handOff.time);
+        teams.get(team).startTest(handOff.task, handOff.time);
+    }
+
+    /**
+     * Hands the free testers to the waiting tasks, one task per team in turn
+     * Called by a team when it frees a tester
+     * In a time window the testers have already been handed over by the replay, the team only starts the test of
+     * its own task handed the freed tester
+     *
+     * @param team index of the team that frees the tester
+     */
+    void dispatchTesters(int team) {
+        if (windowed) {
+            TeamWindow window = windows[team];
+            Task task = window.ownHandOffs.get(window.nextOwnHandOff++);
+            if (task != null) {
+                Simulator simulator = teams.get(team);
+                testers.takeWaitingTask(team, simulator.getClock());
+                simulator.startTest(task, simulator.getClock());
+            }
+            return;
+        }
+        dispatchTesters();
+    }
+
+    /**
+     * Hands the free testers to the waiting tasks, one task per team in turn
+     */
+    private void dispatchTesters() {
+        while (testers.hasFreeDeveloper() && !testers.isTaskQueueEmpty()) {
+            Task task = testers.getNextTask();
+            int team = testers.getLastTeam();
+            teams.get(team).startTest(task, clock);
+            if (team != currentTeam) {
+                updateTeam(team);
+            }
+        }
+    }
+
+    /**
+     * Updates the position of a team in the heap after its events changed
+     * A team without events leaves the heap, and ends unless some of its tasks are waiting for or being tested by
+     * the shared testers
+     */
+    private void updateTeam(int team) {
+        double nextEventTime = teams.get(team).getNextEventTime();
+        if (nextEventTime == Double.POSITIVE_INFINITY) {
+            removeFromHeap(team);
+            TaskResource testerShare = testerShares.get(team);
+            if (testerShare.isTaskQueueEmpty() && testerShare.isTeamFree()) {
+                endTeam(team, false);
+            }
+            return;
+        }
+
+        nextEventTimes[team] = nextEventTime;
+        if (positions[team] < 0) {
+            positions[team] = heapSize;
+            heap[heapSize++] = team;
+        }
+        siftUp(positions[team]);
+        siftDown(positions[team]);
+    }
+
+    /**
+     * Ends the simulation of a team
+     * When the project ends with tasks still waiting for or being tested by the shared testers, they are withdrawn
+     * and the freed testers are handed to the other teams
+     *
+     * @param team       index of the team
+     * @param projectEnd true if the team processed the event that ends its project
+     */
+    private void endTeam(int team, boolean projectEnd) {
+        if (ended[team]) {
+            return;
+        }
+        ended[team] = true;
+        removeFromHeap(team);
+
+        Simulator simulator = teams.get(team);
+        simulator.endRun(replicationEvents[team]);
+
+        if (projectEnd) {
+            simulator.releaseSharedTesters();
+            testers.withdraw(team);
+            dispatchTesters();
+        }
+    }
+
+    /**
+     * Get a team of the portfolio
+     *
+     * @param team index of the team
+     * @return the simulator of the team, with the results of the team once the portfolio has been run
+     */
+    public Simulator getTeam(int team) {
+        return teams.get(team);
+    }
+
+    /**
+     * Get the number of teams
+     *
+     * @return the number of teams
+     */
+    public int getNumberOfTeams() {
+        return teams.size();
+    }
+
+    /**
+     * Get the shared testers, with the statistics of all the teams
+     *
+     * @return the shared testers
+     */
+    public SharedResource getTesters() {
+        return testers;
+    }
+
+    /**
+     * Get the time at which the last team ended
+     *
+     * @return the end of simulation time of the portfolio
+     */
+    public double getSimTime() {
+        return clock;
+    }
+
+    /**
+     * Releases the project backlogs of the teams kept out of the heap, once the portfolio is no longer used
+     *
+     * @see Simulator#close()
+     */
+    @Override
+    public void close() {
+        for (Simulator team : teams) {
+            team.close();
+        }
+    }
+
+    /**
+     * Get the full report of every team, one line per team in the order of the teams
+     *
+     * @return the full report of the portfolio
+     * @see Simulator#getFullReport()
+     */
+    public String getFullReport() {
+        StringBuilder builder = new StringBuilder();
+        for (Simulator team : teams) {
+            builder.append(team.getFullReport()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns true if a team precedes another one in the heap
+     */
+    private boolean precedes(int team, int other) {
+        double time = nextEventTimes[team];
+        double otherTime = nextEventTimes[other];
+        return time < otherTime || (time == otherTime && team < other);
+    }
+
+    private void removeFromHeap(int team) {
+        int position = positions[team];
+        if (position < 0) {
+            return;
+        }
+
+        positions[team] = -1;
+        int last = heap[--heapSize];
+        if (position < heapSize) {
+            heap[position] = last;
+            positions[last] = position;
+            siftUp(position);
+            siftDown(positions[last]);
+        }
+    }
+
+    private void siftUp(int position) {
+        int team = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!precedes(team, heap[parent])) {
+                break;
+            }
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = team;
+        positions[team] = position;
+    }
+
+    private void siftDown(int position) {
+        int team = heap[position];
+        int half = heapSize >>> 1;
+        while (position < half) {
+            int child = (position << 1) + 1;
+            int right = child + 1;
+            if (right < heapSize && precedes(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!precedes(heap[child], team)) {
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = team;
+        positions[team] = position;
+    }
+
+    /**
+     * Event of a team that touches the shared testers
+     */
+    private static final class Operation {
+
+        private int team;
+        private Event event;
+    }
+
+    /**
+     * Waiting task of a team handed a tester freed by another team
+     */
+    private static final class HandOff {
+
+        private final double time;
+
+        /**
+         * Team that frees the tester
+         */
+        private final int team;
+        private final Task task;
+
+        private HandOff(double time, int team, Task task) {
+            this.time = time;
+            this.team = team;
+            this.task = task;
+        }
+    }
+
+    /**
+     * State of a team in a time window
+     */
+    private static final class TeamWindow {
+
+        /**
+         * Own task handed the tester freed by every test of the team that ends in the window, null if none
+         */
+        private final List<Task> ownHandOffs = new ArrayList<>();
+        private int nextOwnHandOff;
+
+        /**
+         * Waiting tasks of the team handed testers freed by other teams, in the order they are handed over
+         */
+        private final List<HandOff> handOffs = new ArrayList<>();
+        private int nextHandOff;
+
+        private boolean simulated;
+        private boolean projectEnd;
+
+        private void clear() {
+            ownHandOffs.clear();
+            nextOwnHandOff = 0;
+            handOffs.clear();
+            nextHandOff = 0;
+            simulated = false;
+            projectEnd = false;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package model;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Deterministic scheduler of the processes of a process-interaction simulation
+ * Every process runs on its own thread, a virtual thread when the runtime has them and a platform thread otherwise,
+ * but a single process runs at a time: the scheduler resumes it and waits until it holds, passivates or ends, so the
+ * processes are written as sequential code and the simulation is as deterministic as an events queue
+ * The processes are resumed in order of time and then in the order they were scheduled, and a process resumed by
+ * another one with {@link SimProcess#resume(SimProcess)} runs at once, before the process that resumed it goes on
+ */
+public class ProcessScheduler {
+
+    /**
+     * Stack size of the platform threads, the processes only hold a few frames
+     */
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    /**
+     * Methods that create a virtual thread, null when the runtime has no virtual threads
+     */
+    private static final Method OF_VIRTUAL;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            unstarted = Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+            // a preview api without --enable-preview fails on the first use
+            ofVirtual.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ofVirtual = null;
+            unstarted = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        UNSTARTED = unstarted;
+    }
+
+    /**
+     * Processes scheduled to resume, ordered by time and then by sequence number
+     */
+    private final PriorityQueue<SimProcess> agenda;
+    private long nextSequence;
+
+    /**
+     * Processes to resume at the current time before the next scheduled one, the last one pushed first
+     */
+    private final Deque<SimProcess> ready;
+
+    /**
+     * Processes waiting for a developer, by the task they want a developer for
+     */
+    private final Map<Task, SimProcess> waiting;
+
+    /**
+     * Processes started and not ended
+     */
+    private final List<SimProcess> alive;
+
+    /**
+     * Builder of the virtual threads, null with platform threads
+     */
+    private final Object virtualThreadBuilder;
+
+    private Thread schedulerThread;
+    private double now;
+    private boolean closed;
+
+    /**
+     * Failure of the last process resumed, rethrown by the scheduler
+     */
+    private Throwable failure;
+
+    /**
+     * Constructor
+     */
+    public ProcessScheduler() {
+        this.agenda = new PriorityQueue<>((first, second) -> first.wakeTime != second.wakeTime
+                ? Double.compare(first.wakeTime, second.wakeTime)
+                : Long.compare(first.sequence, second.sequence));
+        this.ready = new ArrayDeque<>();
+        this.waiting = new IdentityHashMap<>();
+        this.alive = new ArrayList<>();
+        this.virtualThreadBuilder = createVirtualThreadBuilder();
+        this.now = 0;
+    }
+
+    private static Object createVirtualThreadBuilder() {
+        if (OF_VIRTUAL == null) {
+            return null;
+        }
+        try {
+            return OF_VIRTUAL.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the processes run on virtual threads
+     *
+     * @return true if the runtime has virtual threads
+     */
+    public static boolean hasVirtualThreads() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Get the current time of the simulation
+     *
+     * @return the current time
+     */
+    public double now() {
+        return now;
+    }
+
+    /**
+     * Schedules a process to resume, or to start if it has not started yet, after a delay
+     *
+     * @param process the process, not scheduled yet
+     * @param delay   the delay from the current time
+     */
+    public void activate(SimProcess process, double delay) {
+        if (process.scheduler == null) {
+            process.scheduler = this;
+        } else if (process.scheduler != this) {
+            throw new IllegalArgumentException("The process belongs to another scheduler");
+        }
+        if (process.scheduled || process.ended) {
+            throw new IllegalStateException("The process is already scheduled or has ended");
+        }
+
+        process.wakeTime = now + delay;
+        process.sequence = nextSequence++;
+        process.scheduled = true;
+        agenda.add(process);
+    }
+
+    /**
+     * Returns true if a process is scheduled
+     *
+     * @return true if a process is scheduled
+     */
+    public boolean hasNext() {
+        return !agenda.isEmpty();
+    }
+
+    /**
+     * Get the time of the next scheduled process
+     *
+     * @return the time the next process resumes, infinity if no process is scheduled
+     */
+    public double getNextTime() {
+        SimProcess next = agenda.peek();
+        return (next == null) ? Double.POSITIVE_INFINITY : next.wakeTime;
+    }
+
+    /**
+     * Resumes the next scheduled process, and the processes it resumes, until all of them hold, passivate or end
+     *
+     * @return false if no process is scheduled
+     */
+    public boolean step() {
+        SimProcess process = agenda.poll();
+        if (process == null) {
+            return false;
+        }
+        if (closed) {
+            throw new IllegalStateException("The scheduler is closed");
+        }
+
+        schedulerThread = Thread.currentThread();
+        process.scheduled = false;
+        now = process.wakeTime;
+        switchTo(process);
+        while (!ready.isEmpty()) {
+            switchTo(ready.pop());
+        }
+        return true;
+    }
+
+    /**
+     * Runs the scheduled processes until none is scheduled
+     */
+    public void run() {
+        while (step()) {
+            // every step resumes the next process
+        }
+    }
+
+    /**
+     * Ends every process still alive, waiting for their threads to end
+     * Must be called once the simulation is over, the processes otherwise keep their threads
+     */
+    public void close() {
+        closed = true;
+        agenda.clear();
+        ready.clear();
+        waiting.clear();
+        for (SimProcess process : alive) {
+            process.killed = true;
+            process.running = true;
+            LockSupport.unpark(process.thread);
+        }
+        for (SimProcess process : alive) {
+            try {
+                process.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        alive.clear();
+    }
+
+    /**
+     * Runs a process until it holds, passivates or ends
+     */
+    private void switchTo(SimProcess process) {
+        process.running = true;
+        if (process.thread == null) {
+            process.thread = createThread(process);
+            process.aliveIndex = alive.size();
+            alive.add(process);
+            process.thread.start();
+        } else {
+            LockSupport.unpark(process.thread);
+        }
+
+        while (process.running) {
+            LockSupport.park(this);
+        }
+
+        if (process.ended) {
+            // the last process takes the place of the ended one
+            SimProcess last = alive.remove(alive.size() - 1);
+            if (last != process) {
+                alive.set(process.aliveIndex, last);
+                last.aliveIndex = process.aliveIndex;
+            }
+        }
+        if (failure != null) {
+            Throwable processFailure = failure;
+            failure = null;
+            if (processFailure instanceof RuntimeException) {
+                throw (RuntimeException) processFailure;
+            }
+            if (processFailure instanceof Error) {
+                throw (Error) processFailure;
+            }
+            throw new IllegalStateException(processFailure);
+        }
+    }
+
+    private Thread createThread(SimProcess process) {
+        Runnable body = () -> runProcess(process);
+        if (virtualThreadBuilder != null) {
+            try {
+                return (Thread) UNSTARTED.invoke(virtualThreadBuilder, body);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        Thread thread = new Thread(null, body, "process-" + process.sequence, PLATFORM_STACK_SIZE);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Body of the thread of a process
+     */
+    private void runProcess(SimProcess process) {
+        try {
+            process.run();
+        } catch (ProcessKilled e) {
+            return;
+        } catch (Throwable e) {
+            failure = e;
+        }
+        process.ended = true;
+        handBack(process);
+    }
+
+    /**
+     * Hands the control back to the scheduler, and waits until the scheduler resumes the process
+     * Called by the thread of the process
+     */
+    void suspend(SimProcess process) {
+        handBack(process);
+        while (!process.running) {
+            LockSupport.park(this);
+        }
+        if (process.killed) {
+            throw new ProcessKilled();
+        }
+    }
+
+    private void handBack(SimProcess process) {
+        process.running = false;
+        LockSupport.unpark(schedulerThread);
+    }
+
+    /**
+     * Runs a process at once, before the process that resumes it goes on
+     * Called by the thread of the process that resumes it
+     */
+    void resume(SimProcess current, SimProcess process) {
+        if (process.scheduled || process.ended) {
+            throw new IllegalStateException("The process is already scheduled or has ended");
+        }
+        process.scheduler = this;
+        ready.push(current);
+        ready.push(process);
+        suspend(current);
+    }
+
+    /**
+     * Records the process waiting for a developer to take a task
+     */
+    void await(Task task, SimProcess process) {
+        waiting.put(task, process);
+    }
+
+    /**
+     * Removes the process waiting for a developer to take a task
+     */
+    SimProcess removeWaiting(Task task) {
+        SimProcess process = waiting.remove(task);
+        if (process == null) {
+            throw new IllegalStateException("No process is waiting for " + task);
+        }
+        return process;
+    }
+
+    /**
+     * Unwinds the thread of a process ended by {@link #close()}
+     */
+    private static final class ProcessKilled extends Error {
+
+        private static final long serialVersionUID = 1L;
+
+        private ProcessKilled() {
+            super(null, null, false, false);
+        }
+    }
+}
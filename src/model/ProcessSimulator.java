@@ -0,0 +1,351 @@
+package model;
+
+import utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simulation of a project written in the process-interaction style, an alternative to the events of {@link Simulator}
+ * The planning of the project and the life of every task are written as sequential code that holds for the planning
+ * durations and efforts and acquires developers and testers, see {@link SimProcess}
+ * The developers and testers are the resources of the event-driven engine, with their dispatch policies and
+ * statistics, and the processes resume in the order the events are processed, so the results are the same as the
+ * ones of {@link Simulator} for the same configuration and seed
+ * The project backlog is always kept on the heap
+ */
+public class ProcessSimulator {
+
+    private final boolean useTdd;
+    private final int numberOfSeniorDevelopers;
+    private final int numberOfMidLevelDevelopers;
+    private final int numberOfJuniorDevelopers;
+    private final int numberOfTesters;
+    private final long seed;
+
+    private ProcessScheduler scheduler;
+    private int clockTicksPerHour;
+    private double timeLastEvent;
+    private boolean projectEnd;
+
+    private Resource developers;
+    private Resource testers;
+
+    private Backlog projectBacklog;
+    private Backlog releaseBacklog;
+    private final List<Task> sprintTasks = new ArrayList<>();
+    private final List<Task> releaseTasks = new ArrayList<>();
+    private DoneTaskSink doneTasks;
+
+    private TaskCreator taskCreator;
+    private PlanningProcess planning;
+
+    private int curRelease;
+    private int curSprint;
+
+    /**
+     * Result of the simulation, created at the end of the run
+     */
+    private SimulationResult result;
+
+    /**
+     * Constructor
+     *
+     * @param useTdd  true if tdd is used
+     * @param seniors number of senior developers
+     * @param mid     number of mid level developers
+     * @param juniors number of junior developers
+     * @param testers number of testers
+     * @param seed    seed of the probability distributions, -1 to leave them unseeded
+     */
+    public ProcessSimulator(boolean useTdd, int seniors, int mid, int juniors, int testers, long seed) {
+        this.useTdd = useTdd;
+        this.numberOfSeniorDevelopers = seniors;
+        this.numberOfMidLevelDevelopers = mid;
+        this.numberOfJuniorDevelopers = juniors;
+        this.numberOfTesters = testers;
+        this.seed = seed;
+    }
+
+    /**
+     * Setup routine, creates the team and starts the planning of the project
+     */
+    public void setup() {
+        scheduler = new ProcessScheduler();
+        clockTicksPerHour = Constants.CLOCK_TICKS_PER_HOUR;
+        timeLastEvent = -1;
+        projectEnd = false;
+        result = null;
+        curRelease = 0;
+        curSprint = 0;
+
+        taskCreator = new TaskCreator(useTdd, seed);
+        createResources();
+        projectBacklog = new Backlog();
+        releaseBacklog = new Backlog();
+        doneTasks = new DoneTaskSink();
+
+        developers.occupyTeam();
+        testers.occupyTeam();
+
+        // the planning starts when the project planning ends, as the first event of the event-driven engine
+        planning = new PlanningProcess();
+        scheduler.activate(planning, duration(Constants.PROJECT_PLANNING_DURATION));
+        if (Constants.SET_MAX_PROJECT_DURATION) {
+            scheduler.activate(new DeadlineProcess(), duration(Constants.MAX_PROJECT_DURATION));
+        }
+    }
+
+    /**
+     * Main routine, resumes the processes until the project ends or no process is scheduled
+     *
+     * @return -1 if the project ended, 0 if no process was left to resume
+     */
+    public int run() {
+        try {
+            while (scheduler.hasNext()) {
+                updateStatistics(scheduler.getNextTime());
+                scheduler.step();
+                if (projectEnd) {
+                    endRun();
+                    return -1;
+                }
+            }
+            endRun();
+            return 0;
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    private void endRun() {
+        result = new SimulationResult(useTdd, seed,
+                numberOfSeniorDevelopers, numberOfMidLevelDevelopers, numberOfJuniorDevelopers, numberOfTesters,
+                scheduler.now(), clockTicksPerHour,
+                developers, testers,
+                projectBacklog, releaseBacklog, doneTasks, null);
+    }
+
+    /**
+     * Get the result of the simulation
+     *
+     * @return the result of the simulation, null if the simulation has not been run
+     */
+    public SimulationResult getResult() {
+        return result;
+    }
+
+    /**
+     * Creates the developers and testers, with the dispatch policies of {@link Constants}
+     */
+    private void createResources() {
+        List<Developer> developersList = new ArrayList<>();
+        for (int i = 0; i < numberOfJuniorDevelopers; i++) {
+            developersList.add(new Developer(Developer.DeveloperType.DEVELOPER,
+                    Constants.DAILY_EFFORT, Developer.Skill.JUNIOR));
+        }
+        for (int i = 0; i < numberOfMidLevelDevelopers; i++) {
+            developersList.add(new Developer(Developer.DeveloperType.DEVELOPER,
+                    Constants.DAILY_EFFORT, Developer.Skill.MID_LEVEL));
+        }
+        for (int i = 0; i < numberOfSeniorDevelopers; i++) {
+            developersList.add(new Developer(Developer.DeveloperType.DEVELOPER,
+                    Constants.DAILY_EFFORT, Developer.Skill.SENIOR));
+        }
+        developers = new Resource(developersList, Constants.DEVELOPER_DISPATCH_POLICY.create());
+
+        List<Developer> testersList = new ArrayList<>();
+        for (int i = 0; i < numberOfTesters; i++) {
+            testersList.add(new Developer(Developer.DeveloperType.TESTER,
+                    Constants.DAILY_EFFORT, Developer.Skill.MID_LEVEL));
+        }
+        testers = new Resource(testersList, Constants.TESTER_DISPATCH_POLICY.create());
+    }
+
+    /**
+     * Updates the statistics of the resources up to the time of the next resumed process
+     */
+    private void updateStatistics(double time) {
+        if (timeLastEvent == -1) {
+            timeLastEvent = time;
+        }
+
+        double timeSinceLastEvent = time - timeLastEvent;
+        timeLastEvent = time;
+
+        developers.updateTaskWaitingArea(timeSinceLastEvent);
+        developers.updateUsageArea(timeSinceLastEvent);
+
+        testers.updateTaskWaitingArea(timeSinceLastEvent);
+        testers.updateUsageArea(timeSinceLastEvent);
+    }
+
+    /**
+     * Get the duration of an activity on the clock
+     * With a clock resolution the duration is rounded to whole ticks
+     *
+     * @param hours the duration, in hours
+     * @return the duration, in the unit of the clock
+     */
+    private double duration(double hours) {
+        return (clockTicksPerHour == 0) ? hours : Math.round(hours * clockTicksPerHour);
+    }
+
+    /**
+     * Returns true if no task of the sprint is waiting for or taken by a developer or tester
+     */
+    private boolean isSprintDone() {
+        return testers.isTaskQueueEmpty() && developers.isTaskQueueEmpty()
+                && developers.isTeamFree() && testers.isTeamFree();
+    }
+
+    /**
+     * Planning of the project: plans the releases and their sprints, waiting for the end of every sprint
+     */
+    private final class PlanningProcess extends SimProcess {
+
+        @Override
+        protected void run() {
+            createProject();
+            hold(duration(Constants.RELEASE_PLANNING_DURATION));
+            createRelease();
+            hold(duration(Constants.SPRINT_PLANNING_DURATION));
+
+            while (true) {
+                createSprint();
+
+                // the last task of the sprint resumes the planning
+                passivate();
+                harvestDefects();
+
+                if (releaseBacklog.isEmpty() && projectBacklog.isEmpty()
+                        || Constants.SET_MAX_PROJECT_DURATION && curRelease == Constants.NUMBER_RELEASES_PER_PROJECT) {
+                    projectEnd = true;
+                    return;
+                }
+
+                if (curSprint == Constants.NUMBER_SPRINTS_PER_RELEASE
+                        || releaseBacklog.getBacklogEffort() < Constants.MAX_SPRINT_EFFORT
+                        && !projectBacklog.isEmpty()) {
+                    hold(duration(Constants.RELEASE_PLANNING_DURATION));
+                    createRelease();
+                }
+                hold(duration(Constants.SPRINT_PLANNING_DURATION));
+            }
+        }
+
+        private void createProject() {
+            developers.freeTeam();
+            testers.freeTeam();
+
+            double targetEffort = Constants.MAX_PROJECT_EFFORT * (1.0 - Constants.PROJECT_DEFECT_EFFORT_PERC);
+            projectBacklog.addTasksToBacklog(taskCreator.createProjectTasks(projectBacklog.getBacklogEffort(),
+                    targetEffort));
+
+            developers.occupyTeam();
+            testers.occupyTeam();
+        }
+
+        private void createRelease() {
+            developers.freeTeam();
+            testers.freeTeam();
+
+            curRelease += 1;
+            curSprint = 0;
+
+            projectBacklog.updatePriorities(taskCreator);
+            projectBacklog.selectTasks(releaseBacklog.getBacklogEffort(), Constants.MAX_RELEASE_EFFORT,
+                    releaseTasks);
+            for (Task task : releaseTasks) {
+                releaseBacklog.addTaskToBacklog(task);
+            }
+            releaseTasks.clear();
+
+            developers.occupyTeam();
+            testers.occupyTeam();
+        }
+
+        /**
+         * Selects the tasks of the sprint and starts their processes in the order of the sprint
+         */
+        private void createSprint() {
+            developers.freeTeam();
+            testers.freeTeam();
+
+            curSprint += 1;
+
+            releaseBacklog.selectTasks(0, Constants.MAX_SPRINT_EFFORT, sprintTasks);
+            sprintTasks.sort(null);
+
+            for (Task task : sprintTasks) {
+                resume(new TaskProcess(task));
+            }
+            sprintTasks.clear();
+        }
+
+        private void harvestDefects() {
+            int injectedDefects = doneTasks.harvestInjectedDefects();
+            for (int i = 0; i < injectedDefects; i++) {
+                // tasks of the type defect do not increase the system size
+                Task.TaskType defectType = taskCreator.getDefectType();
+                releaseBacklog.addTaskToBacklog(taskCreator.createTask(defectType));
+            }
+
+            // reset priorities when defects are detected
+            if (injectedDefects != 0) {
+                releaseBacklog.updatePriorities(taskCreator);
+            }
+        }
+    }
+
+    /**
+     * Life of a task of a sprint: developed by a developer, then tested by a tester
+     */
+    private final class TaskProcess extends SimProcess {
+
+        private final Task task;
+
+        private TaskProcess(Task task) {
+            this.task = task;
+        }
+
+        @Override
+        protected void run() {
+            task.updateArrivalTime(now());
+            task.setDeveloper(acquire(developers, task));
+            task.updateStatus(Task.TaskStatus.IN_PROGRESS);
+            developers.addDelay(now() - task.getArrivalTime());
+            hold(duration(task.getCodingEffort()));
+
+            task.updateArrivalTime(now());
+            release(developers, task);
+
+            task.setDeveloper(acquire(testers, task));
+            task.updateStatus(Task.TaskStatus.TESTING);
+            testers.addDelay(now() - task.getArrivalTime());
+            hold(duration(task.getTestEffort()));
+
+            task.updateArrivalTime(now());
+            release(testers, task);
+
+            taskCreator.detectDefects(task);
+            doneTasks.addTask(task);
+            taskCreator.releaseTask(task);
+
+            if (isSprintDone()) {
+                resume(planning);
+            }
+        }
+    }
+
+    /**
+     * Ends the project once its maximum duration has elapsed
+     */
+    private final class DeadlineProcess extends SimProcess {
+
+        @Override
+        protected void run() {
+            projectEnd = true;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package model;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Node of a hierarchy of random streams: experiment, sweep point, replication and purpose
+ * Every node is identified by a 64 bit key derived from the key of its parent and its index, so any stream
+ * can be created directly, regardless of the order in which replications are run or of where they are run
+ * The streams of the leaves are L64X128MixRandom generators, whose key selects both the additive constant of the
+ * underlying LCG and the initial state; generators with different keys produce independent, non overlapping
+ * sequences, which is what {@link java.util.random.RandomGenerator.SplittableGenerator#split()} relies on
+ */
+public class RandomStreams {
+
+    /**
+     * Purpose of the random streams of a replication
+     */
+    public enum Purpose {
+        TASK_SIZE,
+        NEW_FEATURE_EFFORT,
+        MINOR_DEFECT_EFFORT,
+        MAJOR_DEFECT_EFFORT,
+        NEW_FEATURE_PRIORITY,
+        MINOR_DEFECT_PRIORITY,
+        MAJOR_DEFECT_PRIORITY,
+        DEFECT_TYPE,
+        DEFECT_INJECTION
+    }
+
+    private static final String ALGORITHM = "L64X128MixRandom";
+
+    private static final RandomGeneratorFactory<java.util.random.RandomGenerator> FACTORY =
+            RandomGeneratorFactory.of(ALGORITHM);
+
+    /**
+     * Odd constant of SplitMix64, separates the children of a node
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long key;
+
+    /**
+     * Constructor
+     *
+     * @param key key of the node
+     */
+    public RandomStreams(long key) {
+        this.key = key;
+    }
+
+    /**
+     * Get the root of the streams of an experiment
+     *
+     * @param seed seed of the experiment
+     * @return the root of the streams of the experiment
+     */
+    public static RandomStreams forExperiment(long seed) {
+        return new RandomStreams(mix(seed));
+    }
+
+    /**
+     * Get the key of the node, from which all its streams are derived
+     *
+     * @return the key of the node
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Get a child of the node
+     *
+     * @param index index of the child
+     * @return the child of the node
+     */
+    public RandomStreams getChild(long index) {
+        return new RandomStreams(mix(key + mix((index + 1) * GOLDEN_GAMMA)));
+    }
+
+    /**
+     * Creates the generator of a purpose of the node
+     *
+     * @param purpose the purpose
+     * @return a new generator of the stream of the purpose
+     */
+    public RandomGenerator createGenerator(Purpose purpose) {
+        return new StreamRandomGenerator(getGeneratorSeed(purpose));
+    }
+
+    /**
+     * Get the seed of the generator of a purpose of the node
+     * Reseeding a generator created by {@link #createGenerator(Purpose)} with it restarts the stream
+     *
+     * @param purpose the purpose
+     * @return the seed of the generator of the purpose
+     */
+    public long getGeneratorSeed(Purpose purpose) {
+        return getChild(purpose.ordinal()).key;
+    }
+
+    /**
+     * Variant 13 of the SplitMix64 finalizer
+     *
+     * @param z the value to be mixed
+     * @return the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Adapts a generator of the JDK to the distributions, which use the generators of commons-math
+     */
+    private static class StreamRandomGenerator implements RandomGenerator {
+
+        private java.util.random.RandomGenerator generator;
+
+        StreamRandomGenerator(long seed) {
+            setSeed(seed);
+        }
+
+        @Override
+        public void setSeed(int seed) {
+            setSeed((long) seed);
+        }
+
+        @Override
+        public void setSeed(int[] seed) {
+            long combined = 0;
+            for (int value : seed) {
+                combined = combined * GOLDEN_GAMMA + value;
+            }
+            setSeed(combined);
+        }
+
+        @Override
+        public void setSeed(long seed) {
+            generator = FACTORY.create(seed);
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            generator.nextBytes(bytes);
+        }
+
+        @Override
+        public int nextInt() {
+            return generator.nextInt();
+        }
+
+        @Override
+        public int nextInt(int n) {
+            return generator.nextInt(n);
+        }
+
+        @Override
+        public long nextLong() {
+            return generator.nextLong();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return generator.nextBoolean();
+        }
+
+        @Override
+        public float nextFloat() {
+            return generator.nextFloat();
+        }
+
+        @Override
+        public double nextDouble() {
+            return generator.nextDouble();
+        }
+
+        @Override
+        public double nextGaussian() {
+            return generator.nextGaussian();
+        }
+    }
+}
@@ -1,15 +1,16 @@
 package model;
 
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
 
-public class Resource {
+/**
+ * Developers or testers of a single team, with the queue of the tasks that wait for them
+ */
+public class Resource implements TaskResource {
 
     /**
      * Queue that stores the list of tasks of the current backlog
      */
-    private Queue<Task> taskQueue;
+    private final TaskQueue taskQueue;
 
     /**
      * List that stores the developers available to process the tasks of the task queue
@@ -28,9 +29,45 @@ public class Resource {
      */
     private double totalDelays;
 
+    /**
+     * Number of busy developers, kept up to date as the resource occupies and frees them
+     */
+    private int numberOfBusyDevelopers;
+
+    /**
+     * Policy that chooses the developer that takes a task and orders the task queue
+     */
+    private final DispatchPolicy dispatchPolicy;
+
+    /**
+     * Constructor of a resource whose tasks are taken by the first free developer in the order of the list
+     *
+     * @param assignedDevelopers the developers of the resource
+     */
     public Resource(List<Developer> assignedDevelopers) {
+        this(assignedDevelopers, new FirstFreePolicy());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param assignedDevelopers the developers of the resource
+     * @param dispatchPolicy     policy that chooses the developer that takes a task, not shared with another resource
+     */
+    public Resource(List<Developer> assignedDevelopers, DispatchPolicy dispatchPolicy) {
         this.developers = assignedDevelopers;
-        this.taskQueue = new PriorityQueue<>();
+        this.dispatchPolicy = dispatchPolicy;
+
+        this.numberOfBusyDevelopers = 0;
+        for (int i = 0; i < assignedDevelopers.size(); i++) {
+            Developer developer = assignedDevelopers.get(i);
+            developer.setSlot(i);
+            if (developer.isBusy()) {
+                numberOfBusyDevelopers++;
+            }
+        }
+        dispatchPolicy.attach(this, assignedDevelopers);
+        this.taskQueue = new TaskQueue(dispatchPolicy.getQueueOrder());
 
         this.taskWaitingArea = 0;
         this.delays = 0;
@@ -38,6 +75,21 @@ public class Resource {
         this.taskWaitingArea = 0;
     }
 
+    /**
+     * Resets the queue and statistics of the resource and frees the team, for a new simulation
+     */
+    public void reset() {
+        taskQueue.clear();
+        taskWaitingArea = 0;
+        delays = 0;
+        totalDelays = 0;
+
+        for (Developer developer : developers) {
+            developer.resetUsageArea();
+        }
+        freeTeam();
+    }
+
     /**
      * Adds a new task to the task queue
      *
@@ -47,6 +99,15 @@ public class Resource {
         taskQueue.add(task);
     }
 
+    /**
+     * Frees the developer of a task at the end of its development or testing session
+     *
+     * @param task the task whose session ends
+     */
+    public void releaseDeveloper(Task task) {
+        updateState(task.getDeveloper(), false);
+    }
+
     /**
      * Returns true if the task queue of the current resource is empty
      *
@@ -63,14 +124,60 @@ public class Resource {
      * @return available developer
      */
     public Developer getFreeDeveloper() {
-        for (Developer developer : developers) {
-            if (!developer.isBusy()) {
-                developer.updateState(true);
-                return developer;
-            }
+        return getFreeDeveloper(null);
+    }
+
+    /**
+     * Get the available developer chosen by the dispatch policy to take a task
+     * If no developers are available null is returned
+     *
+     * @param task the task to be taken
+     * @return available developer
+     */
+    public Developer getFreeDeveloper(Task task) {
+        if (numberOfBusyDevelopers == developers.size()) {
+            return null;
+        }
+
+        Developer developer = developers.get(dispatchPolicy.selectDeveloper(task));
+        updateState(developer, true);
+        return developer;
+    }
+
+    /**
+     * Occupies free developers for a list of tasks, the same ones as successive calls to
+     * {@link #getFreeDeveloper(Task)}, until every task has a developer or every developer is busy
+     *
+     * @param tasks          the tasks to be taken, in order
+     * @param freeDevelopers receives the occupied developers, in the order of the tasks
+     * @return the number of occupied developers, the number of tasks that have a developer
+     */
+    public int getFreeDevelopers(List<Task> tasks, Developer[] freeDevelopers) {
+        int found = 0;
+        while (found < tasks.size() && numberOfBusyDevelopers < developers.size()) {
+            Developer developer = developers.get(dispatchPolicy.selectDeveloper(tasks.get(found)));
+            updateState(developer, true);
+            freeDevelopers[found++] = developer;
         }
+        return found;
+    }
 
-        return null;
+    /**
+     * Returns true if at least one developer is free
+     *
+     * @return true if at least one developer is free
+     */
+    public boolean hasFreeDeveloper() {
+        return numberOfBusyDevelopers < developers.size();
+    }
+
+    /**
+     * Get the number of developers of the resource
+     *
+     * @return the number of developers
+     */
+    public int getNumberOfDevelopers() {
+        return developers.size();
     }
 
     /**
@@ -82,6 +189,8 @@ public class Resource {
         for (Developer developer : developers) {
             developer.updateState(true);
         }
+        numberOfBusyDevelopers = developers.size();
+        dispatchPolicy.updateTeam(true);
     }
 
     /**
@@ -93,6 +202,8 @@ public class Resource {
         for (Developer developer : developers) {
             developer.updateState(false);
         }
+        numberOfBusyDevelopers = 0;
+        dispatchPolicy.updateTeam(false);
     }
 
     /**
@@ -101,13 +212,41 @@ public class Resource {
      * @return true if the entire team is free
      */
     public boolean isTeamFree() {
-        for (Developer developer: developers) {
-            if (developer.isBusy()) {
-                return false;
-            }
+        return numberOfBusyDevelopers == 0;
+    }
+
+    /**
+     * Updates the state of a developer of the resource, and the index of its dispatch policy
+     *
+     * @param developer the developer
+     * @param busy      true when the developer has an assigned task
+     */
+    private void updateState(Developer developer, boolean busy) {
+        if (developer.isBusy() != busy) {
+            developer.updateState(busy);
+            numberOfBusyDevelopers += busy ? 1 : -1;
+            dispatchPolicy.updateState(developer.getSlot(), busy);
         }
+    }
+
+    /**
+     * Returns true if a developer is busy
+     *
+     * @param slot index of the developer
+     * @return true if the developer is busy
+     */
+    boolean isBusy(int slot) {
+        return developers.get(slot).isBusy();
+    }
 
-        return true;
+    /**
+     * Get the usage area of a developer
+     *
+     * @param slot index of the developer
+     * @return the usage area of the developer
+     */
+    double getUsageArea(int slot) {
+        return developers.get(slot).getUsageArea();
     }
 
     /**
@@ -153,6 +292,10 @@ public class Resource {
      * @param timeLastEvent
      */
     public void updateUsageArea(double timeLastEvent) {
+        if (numberOfBusyDevelopers == 0) {
+            return;
+        }
+
         for (Developer developer : developers) {
             developer.updateUsageArea(timeLastEvent);
         }
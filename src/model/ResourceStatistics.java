@@ -0,0 +1,40 @@
+package model;
+
+/**
+ * Statistics of the developers of a resource and of the tasks that wait for them
+ */
+public interface ResourceStatistics {
+
+    /**
+     * Get the total number of delays of the resource
+     *
+     * @return the total number of delays of the resource
+     */
+    double getDelays();
+
+    /**
+     * Calculates the waiting time average per task
+     * d(n) = totalDelays / delays
+     *
+     * @return waiting time average per task
+     */
+    double calculateWaitingTimeAverage();
+
+    /**
+     * Calculates the average number of tasks waiting to be developed for the given simTime
+     * q(n) = taskWaitingArea / simTime
+     *
+     * @param simTime current simulation time
+     * @return average number of tasks waiting
+     */
+    double calculateWaitingAverage(double simTime);
+
+    /**
+     * Calculates developers usage rate for the given simTime
+     * u(n) = usageArea / simTime / numberOfDevelopers
+     *
+     * @param simTime current simulation time
+     * @return developers usage rate
+     */
+    double calculateUsageRate(double simTime);
+}
@@ -0,0 +1,501 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Developers shared by several teams
+ * Every team uses the developers through its share, the resource of the team, that holds the statistics of the team:
+ * the delays and waiting tasks of the team, and the time the shared developers spend on its tasks
+ * The statistics of the shared developers are the ones of all the teams
+ * The tasks waiting for a developer are served one task per team in turn, see {@link FairShareQueue}
+ * The statistics of a share change when another team hands a freed developer to one of its tasks, so they are
+ * integrated at every change instead of at every event of the team
+ * In a time window of the parallel engine of the {@link Portfolio}, the developers are assigned beforehand, in the
+ * order of the sequential engine, and every share hands out the developers granted to its team, so the teams only
+ * touch their own share while they are simulated in parallel
+ */
+public class SharedResource implements ResourceStatistics {
+
+    /**
+     * The shared developers, chosen by the dispatch policy of the resource
+     * The tasks do not wait in the queue of the pool but in the queue of their team
+     */
+    private final Resource pool;
+
+    private final FairShareQueue queue;
+
+    private final List<Share> shares;
+
+    /**
+     * Current time of the simulation, set before every event
+     */
+    private double clock;
+
+    /**
+     * True while the developers of a time window have been assigned beforehand
+     */
+    private boolean windowed;
+
+    /**
+     * Constructor
+     *
+     * @param assignedDevelopers the shared developers
+     * @param dispatchPolicy     policy that chooses the developer that takes a task
+     */
+    public SharedResource(List<Developer> assignedDevelopers, DispatchPolicy dispatchPolicy) {
+        this.pool = new Resource(assignedDevelopers, dispatchPolicy);
+        this.queue = new FairShareQueue();
+        this.shares = new ArrayList<>();
+        this.clock = 0;
+    }
+
+    /**
+     * Creates the share of a new team
+     * The teams are numbered in the order their shares are created
+     *
+     * @param teamClock current simulation time of the team
+     * @return the share of the team, to be used by the team as its resource
+     */
+    public TaskResource createShare(DoubleSupplier teamClock) {
+        Share share = new Share(this, queue.addTeam(), teamClock);
+        shares.add(share);
+        return share;
+    }
+
+    /**
+     * Sets the current time of the simulation
+     *
+     * @param time the time of the event about to be processed
+     */
+    void advanceTo(double time) {
+        clock = time;
+    }
+
+    /**
+     * Get the team of the last task removed by {@link #getNextTask()}
+     *
+     * @return the index of the team
+     */
+    public int getLastTeam() {
+        return queue.getLastTeam();
+    }
+
+    /**
+     * Removes the waiting tasks of a team that no longer uses the resource
+     *
+     * @param team index of the team
+     */
+    public void withdraw(int team) {
+        Share share = shares.get(team);
+        share.integrate();
+        share.waitingTasks = 0;
+        queue.clear(team);
+    }
+
+    /**
+     * Starts or ends a time window in which the developers are assigned beforehand
+     * Every developer assigned with {@link #assign(int, Task)} must have been handed out when the window ends
+     *
+     * @param windowed true to start the window, false to end it
+     */
+    void setWindowed(boolean windowed) {
+        if (!windowed) {
+            for (Share share : shares) {
+                if (share.nextGrant != share.grants.size()) {
+                    throw new IllegalStateException("Developers assigned to team " + share.team + " were not used");
+                }
+                share.grants.clear();
+                share.nextGrant = 0;
+            }
+        }
+        this.windowed = windowed;
+    }
+
+    /**
+     * Assigns a free developer to a task of a team beforehand, or queues the task if every developer is busy
+     * The share of the team hands out the result to the next request of the team
+     *
+     * @param team index of the team
+     * @param task the task that requests a developer
+     * @return true if a developer has been assigned
+     */
+    boolean assign(int team, Task task) {
+        Developer developer = pool.getFreeDeveloper(task);
+        shares.get(team).grants.add(developer);
+        if (developer == null) {
+            queue.add(team, task);
+        }
+        return developer != null;
+    }
+
+    /**
+     * Removes the next waiting task beforehand, without changing the statistics of its team
+     * The team of the task is given by {@link #getLastTeam()}
+     *
+     * @return the next waiting task, null if no task is waiting
+     */
+    Task pollWaitingTask() {
+        return queue.poll();
+    }
+
+    /**
+     * Updates the statistics of a team when one of its waiting tasks is handed a developer
+     *
+     * @param team index of the team
+     * @param time current simulation time
+     */
+    void takeWaitingTask(int team, double time) {
+        Share share = shares.get(team);
+        share.integrate(time);
+        share.waitingTasks--;
+    }
+
+    /**
+     * Resets the queue of the waiting tasks and frees the shared developers, for a new simulation
+     * The statistics are reset by the shares of the teams
+     */
+    public void reset() {
+        pool.reset();
+        queue.clear();
+        clock = 0;
+    }
+
+    /**
+     * Get the shared developer chosen by the dispatch policy to take a task
+     *
+     * @param task the task to be taken
+     * @return available developer, null if every developer is busy
+     */
+    Developer getFreeDeveloper(Task task) {
+        return pool.getFreeDeveloper(task);
+    }
+
+    /**
+     * Frees the shared developer of a task
+     *
+     * @param task the task whose session ends
+     */
+    public void releaseDeveloper(Task task) {
+        pool.releaseDeveloper(task);
+    }
+
+    /**
+     * Returns true if at least one shared developer is free
+     *
+     * @return true if at least one shared developer is free
+     */
+    public boolean hasFreeDeveloper() {
+        return pool.hasFreeDeveloper();
+    }
+
+    /**
+     * Get the number of shared developers
+     *
+     * @return the number of shared developers
+     */
+    public int getNumberOfDevelopers() {
+        return pool.getNumberOfDevelopers();
+    }
+
+    /**
+     * Returns true if no task of any team is waiting for a shared developer
+     *
+     * @return true if no task is waiting
+     */
+    public boolean isTaskQueueEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Gets the next waiting task, of the next team in turn
+     * The team of the task is given by {@link #getLastTeam()}
+     *
+     * @return next task
+     */
+    public Task getNextTask() {
+        int team = queue.peekTeam();
+        if (team < 0) {
+            throw new NoSuchElementException();
+        }
+        takeWaitingTask(team, clock);
+        return queue.poll();
+    }
+
+    @Override
+    public double getDelays() {
+        double delays = 0;
+        for (Share share : shares) {
+            delays += share.getDelays();
+        }
+        return delays;
+    }
+
+    @Override
+    public double calculateWaitingTimeAverage() {
+        double delays = 0;
+        double totalDelays = 0;
+        for (Share share : shares) {
+            delays += share.getDelays();
+            totalDelays += share.calculateWaitingTimeAverage() * share.getDelays();
+        }
+        return (delays == 0) ? 0 : totalDelays / delays;
+    }
+
+    @Override
+    public double calculateWaitingAverage(double simTime) {
+        double waitingAverage = 0;
+        for (Share share : shares) {
+            waitingAverage += share.calculateWaitingAverage(simTime);
+        }
+        return waitingAverage;
+    }
+
+    @Override
+    public double calculateUsageRate(double simTime) {
+        double usageRate = 0;
+        for (Share share : shares) {
+            usageRate += share.calculateUsageRate(simTime);
+        }
+        return usageRate;
+    }
+
+    /**
+     * Share of a team of the shared resource
+     */
+    private static final class Share implements TaskResource {
+
+        private final SharedResource resource;
+
+        private final int team;
+
+        private final DoubleSupplier teamClock;
+
+        /**
+         * Number of shared developers occupied by tasks of the team
+         */
+        private int busyDevelopers;
+
+        /**
+         * Number of tasks of the team waiting for a shared developer
+         */
+        private int waitingTasks;
+
+        /**
+         * Number of delays of the tasks of the team, and their total
+         */
+        private double delays;
+        private double totalDelays;
+
+        /**
+         * Developers assigned beforehand to the requests of the team in a time window, null for a queued request
+         */
+        private final List<Developer> grants;
+        private int nextGrant;
+
+        private double taskWaitingArea;
+        private double usageArea;
+
+        /**
+         * Time of the last change of the waiting tasks or occupied developers of the team
+         */
+        private double lastChange;
+
+        private Share(SharedResource resource, int team, DoubleSupplier teamClock) {
+            this.resource = resource;
+            this.team = team;
+            this.teamClock = teamClock;
+            this.grants = new ArrayList<>();
+        }
+
+        /**
+         * Integrates the statistics of the team up to the given time
+         */
+        private void integrate(double time) {
+            double elapsed = time - lastChange;
+            taskWaitingArea += waitingTasks * elapsed;
+            usageArea += busyDevelopers * elapsed;
+            lastChange = time;
+        }
+
+        /**
+         * Integrates the statistics of the team up to the current time of the team
+         */
+        private void integrate() {
+            integrate(teamClock.getAsDouble());
+        }
+
+        @Override
+        public void reset() {
+            resource.queue.clear(team);
+            busyDevelopers = 0;
+            waitingTasks = 0;
+            delays = 0;
+            totalDelays = 0;
+            taskWaitingArea = 0;
+            usageArea = 0;
+            lastChange = 0;
+        }
+
+        /**
+         * Adds a task of the team to the waiting tasks
+         * In a time window the task has already been queued when the request was assigned
+         *
+         * @param task task to be added
+         */
+        @Override
+        public void addTaskToQueue(Task task) {
+            integrate();
+            waitingTasks++;
+            if (!resource.windowed) {
+                resource.queue.add(team, task);
+            }
+        }
+
+        @Override
+        public boolean isTaskQueueEmpty() {
+            return waitingTasks == 0;
+        }
+
+        /**
+         * Gets the next waiting task of the team, out of turn
+         *
+         * @return next task
+         */
+        @Override
+        public Task getNextTask() {
+            integrate();
+            Task task = resource.queue.poll(team);
+            if (task == null) {
+                throw new NoSuchElementException();
+            }
+            waitingTasks--;
+            return task;
+        }
+
+        /**
+         * Get the shared developer that takes a task of the team
+         * In a time window the developer assigned beforehand is handed out
+         *
+         * @param task the task to be taken
+         * @return available developer, null if the task must wait
+         */
+        @Override
+        public Developer getFreeDeveloper(Task task) {
+            Developer developer;
+            if (resource.windowed) {
+                if (nextGrant == grants.size()) {
+                    throw new IllegalStateException("No developer was assigned to the request of team " + team);
+                }
+                developer = grants.get(nextGrant++);
+            } else {
+                developer = resource.getFreeDeveloper(task);
+            }
+
+            if (developer != null) {
+                integrate();
+                busyDevelopers++;
+            }
+            return developer;
+        }
+
+        /**
+         * Frees the shared developer of a task of the team
+         * In a time window the developer has already been freed when the developers were assigned
+         *
+         * @param task the task whose session ends
+         */
+        @Override
+        public void releaseDeveloper(Task task) {
+            integrate();
+            busyDevelopers--;
+            if (!resource.windowed) {
+                resource.releaseDeveloper(task);
+            }
+        }
+
+        @Override
+        public boolean hasFreeDeveloper() {
+            return resource.hasFreeDeveloper();
+        }
+
+        @Override
+        public int getNumberOfDevelopers() {
+            return resource.getNumberOfDevelopers();
+        }
+
+        /**
+         * The shared developers are not taken by the planning activities of a team
+         */
+        @Override
+        public void occupyTeam() {
+        }
+
+        /**
+         * The shared developers are not taken by the planning activities of a team
+         */
+        @Override
+        public void freeTeam() {
+        }
+
+        /**
+         * Returns true if no shared developer is occupied by a task of the team
+         *
+         * @return true if no shared developer is occupied by a task of the team
+         */
+        @Override
+        public boolean isTeamFree() {
+            return busyDevelopers == 0;
+        }
+
+        @Override
+        public void addDelay(double delay) {
+            delays++;
+            totalDelays += delay;
+        }
+
+        @Override
+        public double getDelays() {
+            return delays;
+        }
+
+        @Override
+        public double calculateWaitingTimeAverage() {
+            return (delays == 0) ? 0 : ((float) totalDelays / delays);
+        }
+
+        /**
+         * The statistics of the team are integrated at every change
+         */
+        @Override
+        public void updateTaskWaitingArea(double timeLastEvent) {
+        }
+
+        /**
+         * The statistics of the team are integrated at every change
+         */
+        @Override
+        public void updateUsageArea(double timeLastEvent) {
+        }
+
+        @Override
+        public double calculateWaitingAverage(double simTime) {
+            double area = taskWaitingArea + waitingTasks * (simTime - lastChange);
+            return area / simTime;
+        }
+
+        /**
+         * Calculates the share of the shared developers used by the team for the given simTime
+         *
+         * @param simTime current simulation time
+         * @return the usage rate of the shared developers by the team
+         */
+        @Override
+        public double calculateUsageRate(double simTime) {
+            double area = usageArea + busyDevelopers * (simTime - lastChange);
+            return area / simTime / resource.getNumberOfDevelopers();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package model;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Chooses the first free developer in the order of the team, and takes the waiting task with the least effort first
+ * The effort is the coding effort for developers and the test effort for testers, and tasks of equal effort are
+ * taken in the order they were created
+ */
+public class ShortestEffortFirstPolicy extends FirstFreePolicy {
+
+    private ToLongFunction<Task> queueOrder;
+
+    @Override
+    public void attach(Resource resource, List<Developer> developers) {
+        super.attach(resource, developers);
+
+        boolean testers = !developers.isEmpty() && developers.get(0).getType() == Developer.DeveloperType.TESTER;
+        queueOrder = testers
+                ? task -> effortKey(task.getTestEffort(), task.getId())
+                : task -> effortKey(task.getCodingEffort(), task.getId());
+    }
+
+    @Override
+    public ToLongFunction<Task> getQueueOrder() {
+        return queueOrder;
+    }
+
+    /**
+     * Packs an effort and a task id in a key ordered by effort and then by id
+     * The bits of a non-negative float are ordered as the float, and the efforts are sampled as floats
+     *
+     * @param effort the effort of the task, non-negative
+     * @param id     the id of the task
+     * @return the key of the task
+     */
+    private static long effortKey(double effort, int id) {
+        return (long) Float.floatToIntBits((float) effort) << 32 | (id ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,103 @@
+package model;
+
+/**
+ * Process of a process-interaction simulation, an activity written as sequential code
+ * The body of the process runs on its own thread, and gives the control back to its {@link ProcessScheduler} when it
+ * holds for a duration, passivates until another process resumes it, or waits for a developer
+ */
+public abstract class SimProcess {
+
+    /**
+     * Scheduler of the process, set when the process is first activated or resumed
+     */
+    ProcessScheduler scheduler;
+    Thread thread;
+
+    /**
+     * Time the process is scheduled to resume, and the order it was scheduled in
+     */
+    double wakeTime;
+    long sequence;
+
+    boolean scheduled;
+    boolean ended;
+    int aliveIndex;
+
+    /**
+     * True while the process has the control, handed between the threads of the process and of the scheduler
+     */
+    volatile boolean running;
+    boolean killed;
+
+    /**
+     * Body of the process
+     */
+    protected abstract void run();
+
+    /**
+     * Get the current time of the simulation
+     *
+     * @return the current time
+     */
+    protected final double now() {
+        return scheduler.now();
+    }
+
+    /**
+     * Holds the process for a duration, the other processes go on meanwhile
+     *
+     * @param duration the duration, in the unit of the clock
+     */
+    protected final void hold(double duration) {
+        scheduler.activate(this, duration);
+        scheduler.suspend(this);
+    }
+
+    /**
+     * Suspends the process until another process resumes it
+     */
+    protected final void passivate() {
+        scheduler.suspend(this);
+    }
+
+    /**
+     * Runs a passive or new process at once, this process goes on when the other one holds, passivates or ends
+     *
+     * @param process the process to run
+     */
+    protected final void resume(SimProcess process) {
+        scheduler.resume(this, process);
+    }
+
+    /**
+     * Waits until a developer of a resource takes a task, in the order of the queue of the resource
+     * The developer is chosen by the dispatch policy of the resource, as {@link TaskResource#getFreeDeveloper(Task)}
+     *
+     * @param resource the resource
+     * @param task     the task to be taken
+     * @return the developer that takes the task
+     */
+    protected final Developer acquire(TaskResource resource, Task task) {
+        Developer developer = resource.getFreeDeveloper(task);
+        while (developer == null) {
+            resource.addTaskToQueue(task);
+            scheduler.await(task, this);
+            passivate();
+            developer = resource.getFreeDeveloper(task);
+        }
+        return developer;
+    }
+
+    /**
+     * Frees the developer of a task, and hands it at once to the next task waiting for the resource
+     *
+     * @param resource the resource
+     * @param task     the task whose developer is freed
+     */
+    protected final void release(TaskResource resource, Task task) {
+        resource.releaseDeveloper(task);
+        if (!resource.isTaskQueueEmpty()) {
+            resume(scheduler.removeWaiting(resource.getNextTask()));
+        }
+    }
+}
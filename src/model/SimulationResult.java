@@ -0,0 +1,604 @@
+package model;
+
+/**
+ * Immutable result of a simulation
+ * Created once at the end of {@link Simulator#run()}, every metric is stored as a primitive
+ * so results can be aggregated and serialized without going through strings
+ */
+public class SimulationResult {
+
+    private static final String[] METRIC_HEADER = {
+            "DEVS_DELAYS",
+            "DEVS_USAGE_RATE",
+            "DEVS_WAITING_TIME_AVERAGE",
+            "DEVS_WAITING_AVERAGE",
+
+            "TESTERS_DELAYS",
+            "TESTERS_USAGE_RATE",
+            "TESTERS_WAITING_TIME_AVERAGE",
+            "TESTERS_WAITING_AVERAGE",
+
+            "NUMBER_OF_LOCS",
+            "NUMBER_DEFECTS_KLOC",
+            "NUMBER_OF_NEW_FEATURES",
+            "NUMBER_OF_MAJOR_DEFECTS",
+            "NUMBER_OF_MINOR_DEFECTS",
+
+            "SIM_TIME"
+    };
+
+    /**
+     * Number of backlog counts expected by the constructor
+     */
+    public static final int NUMBER_OF_BACKLOG_COUNTS = 13;
+
+    /**
+     * Simulation configuration
+     */
+    private final int numberOfJuniorDevelopers;
+    private final int numberOfMidLevelDevelopers;
+    private final int numberOfSeniorDevelopers;
+    private final int numberOfTesters;
+    private final boolean useTdd;
+    private final long seed;
+
+    /**
+     * Developers statistics
+     */
+    private final double developersDelays;
+    private final double developersUsageRate;
+    private final double developersWaitingTimeAverage;
+    private final double developersWaitingAverage;
+
+    /**
+     * Testers statistics
+     */
+    private final double testersDelays;
+    private final double testersUsageRate;
+    private final double testersWaitingTimeAverage;
+    private final double testersWaitingAverage;
+
+    /**
+     * Done backlog statistics
+     */
+    private final int numberOfLocs;
+    private final float numberOfDefectsPerKLoc;
+    private final int numberOfNewFeatures;
+    private final int numberOfMajorDefects;
+    private final int numberOfMinorDefects;
+
+    /**
+     * Undone tasks left on each backlog at the end of the simulation
+     */
+    private final int projectBacklogSize;
+    private final int projectBacklogNewFeatures;
+    private final int projectBacklogMajorDefects;
+    private final int projectBacklogMinorDefects;
+
+    private final int releaseBacklogSize;
+    private final int releaseBacklogNewFeatures;
+    private final int releaseBacklogMajorDefects;
+    private final int releaseBacklogMinorDefects;
+
+    private final int sprintBacklogSize;
+    private final int sprintBacklogNewFeatures;
+    private final int sprintBacklogMajorDefects;
+    private final int sprintBacklogMinorDefects;
+
+    private final int doneBacklogSize;
+
+    private final double simTime;
+
+    /**
+     * Profile of the event handlers, null when profiling is disabled
+     */
+    private final long[] profile;
+
+    /**
+     * Constructor
+     * Collects the statistics of the given resources, backlogs and completed tasks
+     * The times are converted to hours when the clock counts ticks
+     */
+    SimulationResult(boolean useTdd, long seed,
+                     int seniors, int mid, int juniors, int testers,
+                     double simTime, int clockTicksPerHour,
+                     ResourceStatistics developersResource, ResourceStatistics testersResource,
+                     TaskBacklog projectBacklog, TaskBacklog releaseBacklog, DoneTaskSink doneTasks,
+                     long[] profile) {
+        this(useTdd, seed, seniors, mid, juniors, testers,
+                developersResource.getDelays(),
+                developersResource.calculateUsageRate(simTime),
+                toHours(developersResource.calculateWaitingTimeAverage(), clockTicksPerHour),
+                developersResource.calculateWaitingAverage(simTime),
+                testersResource.getDelays(),
+                testersResource.calculateUsageRate(simTime),
+                toHours(testersResource.calculateWaitingTimeAverage(), clockTicksPerHour),
+                testersResource.calculateWaitingAverage(simTime),
+                doneTasks.getNumberOfLocs(),
+                doneTasks.getNumberOfDefectsPerKLoc(),
+                doneTasks.getNumberOfNewFeatures(),
+                doneTasks.getNumberOfMajorDefects(),
+                doneTasks.getNumberOfMinorDefects(),
+                new int[]{
+                        projectBacklog.size(),
+                        projectBacklog.getNumberOfNewFeatures(),
+                        projectBacklog.getNumberOfMajorDefects(),
+                        projectBacklog.getNumberOfMinorDefects(),
+                        releaseBacklog.size(),
+                        releaseBacklog.getNumberOfNewFeatures(),
+                        releaseBacklog.getNumberOfMajorDefects(),
+                        releaseBacklog.getNumberOfMinorDefects(),
+                        // the tasks of a sprint are handed to the developers as soon as it is planned
+                        0, 0, 0, 0,
+                        doneTasks.size()
+                },
+                toHours(simTime, clockTicksPerHour),
+                profile);
+    }
+
+    /**
+     * Converts a time of the simulation clock to hours
+     *
+     * @param time              the time, in ticks if the clock has a resolution
+     * @param clockTicksPerHour the resolution of the clock, 0 for a continuous clock
+     * @return the time in hours
+     */
+    static double toHours(double time, int clockTicksPerHour) {
+        return (clockTicksPerHour == 0) ? time : time / clockTicksPerHour;
+    }
+
+    /**
+     * Constructor
+     * Used to restore a result that was previously serialized
+     *
+     * @param useTdd                       true if tdd is used
+     * @param seed                         seed of the probability distributions
+     * @param seniors                      number of senior developers
+     * @param mid                          number of mid level developers
+     * @param juniors                      number of junior developers
+     * @param testers                      number of testers
+     * @param developersDelays             number of delays of the developers
+     * @param developersUsageRate          developers usage rate
+     * @param developersWaitingTimeAverage waiting time average of the tasks waiting for developers
+     * @param developersWaitingAverage     average number of tasks waiting for developers
+     * @param testersDelays                number of delays of the testers
+     * @param testersUsageRate             testers usage rate
+     * @param testersWaitingTimeAverage    waiting time average of the tasks waiting for testers
+     * @param testersWaitingAverage        average number of tasks waiting for testers
+     * @param numberOfLocs                 number of lines of code of the done tasks
+     * @param numberOfDefectsPerKLoc       number of defects injected by 1000 LOCS
+     * @param numberOfNewFeatures          number of done new features
+     * @param numberOfMajorDefects         number of done major defects
+     * @param numberOfMinorDefects         number of done minor defects
+     * @param backlogCounts                size, new features, major defects and minor defects of the project,
+     *                                     release and sprint backlogs, followed by the size of the done backlog
+     * @param simTime                      end of simulation time
+     * @param profile                      profile of the event handlers, null when profiling is disabled
+     */
+    public SimulationResult(boolean useTdd, long seed,
+                            int seniors, int mid, int juniors, int testers,
+                            double developersDelays, double developersUsageRate,
+                            double developersWaitingTimeAverage, double developersWaitingAverage,
+                            double testersDelays, double testersUsageRate,
+                            double testersWaitingTimeAverage, double testersWaitingAverage,
+                            int numberOfLocs, float numberOfDefectsPerKLoc,
+                            int numberOfNewFeatures, int numberOfMajorDefects, int numberOfMinorDefects,
+                            int[] backlogCounts,
+                            double simTime,
+                            long[] profile) {
+        if (backlogCounts.length != NUMBER_OF_BACKLOG_COUNTS) {
+            throw new IllegalArgumentException("Expected " + NUMBER_OF_BACKLOG_COUNTS + " backlog counts");
+        }
+
+        this.useTdd = useTdd;
+        this.seed = seed;
+        this.numberOfSeniorDevelopers = seniors;
+        this.numberOfMidLevelDevelopers = mid;
+        this.numberOfJuniorDevelopers = juniors;
+        this.numberOfTesters = testers;
+
+        this.developersDelays = developersDelays;
+        this.developersUsageRate = developersUsageRate;
+        this.developersWaitingTimeAverage = developersWaitingTimeAverage;
+        this.developersWaitingAverage = developersWaitingAverage;
+
+        this.testersDelays = testersDelays;
+        this.testersUsageRate = testersUsageRate;
+        this.testersWaitingTimeAverage = testersWaitingTimeAverage;
+        this.testersWaitingAverage = testersWaitingAverage;
+
+        this.numberOfLocs = numberOfLocs;
+        this.numberOfDefectsPerKLoc = numberOfDefectsPerKLoc;
+        this.numberOfNewFeatures = numberOfNewFeatures;
+        this.numberOfMajorDefects = numberOfMajorDefects;
+        this.numberOfMinorDefects = numberOfMinorDefects;
+
+        this.projectBacklogSize = backlogCounts[0];
+        this.projectBacklogNewFeatures = backlogCounts[1];
+        this.projectBacklogMajorDefects = backlogCounts[2];
+        this.projectBacklogMinorDefects = backlogCounts[3];
+
+        this.releaseBacklogSize = backlogCounts[4];
+        this.releaseBacklogNewFeatures = backlogCounts[5];
+        this.releaseBacklogMajorDefects = backlogCounts[6];
+        this.releaseBacklogMinorDefects = backlogCounts[7];
+
+        this.sprintBacklogSize = backlogCounts[8];
+        this.sprintBacklogNewFeatures = backlogCounts[9];
+        this.sprintBacklogMajorDefects = backlogCounts[10];
+        this.sprintBacklogMinorDefects = backlogCounts[11];
+
+        this.doneBacklogSize = backlogCounts[12];
+
+        this.simTime = simTime;
+        this.profile = (profile == null) ? null : profile.clone();
+    }
+
+    /**
+     * Get the names of the measured values
+     * These are the columns of the full report that are not part of the simulation configuration
+     *
+     * @return the names of the measured values
+     * @see #getMetric(int)
+     */
+    public static String[] getMetricHeader() {
+        return METRIC_HEADER.clone();
+    }
+
+    /**
+     * Get the number of measured values
+     *
+     * @return the number of measured values
+     */
+    public static int getNumberOfMetrics() {
+        return METRIC_HEADER.length;
+    }
+
+    /**
+     * Get a measured value by its index on {@link #getMetricHeader()}
+     *
+     * @param index index of the measured value
+     * @return the measured value
+     */
+    public double getMetric(int index) {
+        switch (index) {
+            case 0:
+                return developersDelays;
+            case 1:
+                return developersUsageRate;
+            case 2:
+                return developersWaitingTimeAverage;
+            case 3:
+                return developersWaitingAverage;
+            case 4:
+                return testersDelays;
+            case 5:
+                return testersUsageRate;
+            case 6:
+                return testersWaitingTimeAverage;
+            case 7:
+                return testersWaitingAverage;
+            case 8:
+                return numberOfLocs;
+            case 9:
+                return numberOfDefectsPerKLoc;
+            case 10:
+                return numberOfNewFeatures;
+            case 11:
+                return numberOfMajorDefects;
+            case 12:
+                return numberOfMinorDefects;
+            case 13:
+                return simTime;
+            default:
+                throw new IndexOutOfBoundsException("Unknown metric: " + index);
+        }
+    }
+
+    /**
+     * Get the number of junior developers
+     *
+     * @return the number of junior developers
+     */
+    public int getNumberOfJuniorDevelopers() {
+        return numberOfJuniorDevelopers;
+    }
+
+    /**
+     * Get the number of mid level developers
+     *
+     * @return the number of mid level developers
+     */
+    public int getNumberOfMidLevelDevelopers() {
+        return numberOfMidLevelDevelopers;
+    }
+
+    /**
+     * Get the number of senior developers
+     *
+     * @return the number of senior developers
+     */
+    public int getNumberOfSeniorDevelopers() {
+        return numberOfSeniorDevelopers;
+    }
+
+    /**
+     * Get the number of testers
+     *
+     * @return the number of testers
+     */
+    public int getNumberOfTesters() {
+        return numberOfTesters;
+    }
+
+    /**
+     * Returns true if tdd is used
+     *
+     * @return true if tdd is used
+     */
+    public boolean isUseTdd() {
+        return useTdd;
+    }
+
+    /**
+     * Get the seed of the probability distributions
+     *
+     * @return the seed of the probability distributions
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the developers delays
+     *
+     * @return the developers delays
+     */
+    public double getDevelopersDelays() {
+        return developersDelays;
+    }
+
+    /**
+     * Get the developers usage rate
+     *
+     * @return the developers usage rate
+     */
+    public double getDevelopersUsageRate() {
+        return developersUsageRate;
+    }
+
+    /**
+     * Get the developers waiting time average
+     *
+     * @return the developers waiting time average
+     */
+    public double getDevelopersWaitingTimeAverage() {
+        return developersWaitingTimeAverage;
+    }
+
+    /**
+     * Get the developers waiting average
+     *
+     * @return the developers waiting average
+     */
+    public double getDevelopersWaitingAverage() {
+        return developersWaitingAverage;
+    }
+
+    /**
+     * Get the testers delays
+     *
+     * @return the testers delays
+     */
+    public double getTestersDelays() {
+        return testersDelays;
+    }
+
+    /**
+     * Get the testers usage rate
+     *
+     * @return the testers usage rate
+     */
+    public double getTestersUsageRate() {
+        return testersUsageRate;
+    }
+
+    /**
+     * Get the testers waiting time average
+     *
+     * @return the testers waiting time average
+     */
+    public double getTestersWaitingTimeAverage() {
+        return testersWaitingTimeAverage;
+    }
+
+    /**
+     * Get the testers waiting average
+     *
+     * @return the testers waiting average
+     */
+    public double getTestersWaitingAverage() {
+        return testersWaitingAverage;
+    }
+
+    /**
+     * Get the number of lines of code (LOC)
+     *
+     * @return the number of lines of code (LOC)
+     */
+    public int getNumberOfLocs() {
+        return numberOfLocs;
+    }
+
+    /**
+     * Get the number of defects injected by 1000 LOCS
+     *
+     * @return the number of defects injected by 1000 LOCS
+     */
+    public float getNumberOfDefectsPerKLoc() {
+        return numberOfDefectsPerKLoc;
+    }
+
+    /**
+     * Get the number of new features
+     *
+     * @return the number of new features
+     */
+    public int getNumberOfNewFeatures() {
+        return numberOfNewFeatures;
+    }
+
+    /**
+     * Get the number of major defects
+     *
+     * @return the number of major defects
+     */
+    public int getNumberOfMajorDefects() {
+        return numberOfMajorDefects;
+    }
+
+    /**
+     * Get the number of minor defects
+     *
+     * @return the number of minor defects
+     */
+    public int getNumberOfMinorDefects() {
+        return numberOfMinorDefects;
+    }
+
+    /**
+     * Get the project backlog size
+     *
+     * @return the project backlog size
+     */
+    public int getProjectBacklogSize() {
+        return projectBacklogSize;
+    }
+
+    /**
+     * Get the project backlog new features
+     *
+     * @return the project backlog new features
+     */
+    public int getProjectBacklogNewFeatures() {
+        return projectBacklogNewFeatures;
+    }
+
+    /**
+     * Get the project backlog major defects
+     *
+     * @return the project backlog major defects
+     */
+    public int getProjectBacklogMajorDefects() {
+        return projectBacklogMajorDefects;
+    }
+
+    /**
+     * Get the project backlog minor defects
+     *
+     * @return the project backlog minor defects
+     */
+    public int getProjectBacklogMinorDefects() {
+        return projectBacklogMinorDefects;
+    }
+
+    /**
+     * Get the release backlog size
+     *
+     * @return the release backlog size
+     */
+    public int getReleaseBacklogSize() {
+        return releaseBacklogSize;
+    }
+
+    /**
+     * Get the release backlog new features
+     *
+     * @return the release backlog new features
+     */
+    public int getReleaseBacklogNewFeatures() {
+        return releaseBacklogNewFeatures;
+    }
+
+    /**
+     * Get the release backlog major defects
+     *
+     * @return the release backlog major defects
+     */
+    public int getReleaseBacklogMajorDefects() {
+        return releaseBacklogMajorDefects;
+    }
+
+    /**
+     * Get the release backlog minor defects
+     *
+     * @return the release backlog minor defects
+     */
+    public int getReleaseBacklogMinorDefects() {
+        return releaseBacklogMinorDefects;
+    }
+
+    /**
+     * Get the sprint backlog size
+     *
+     * @return the sprint backlog size
+     */
+    public int getSprintBacklogSize() {
+        return sprintBacklogSize;
+    }
+
+    /**
+     * Get the sprint backlog new features
+     *
+     * @return the sprint backlog new features
+     */
+    public int getSprintBacklogNewFeatures() {
+        return sprintBacklogNewFeatures;
+    }
+
+    /**
+     * Get the sprint backlog major defects
+     *
+     * @return the sprint backlog major defects
+     */
+    public int getSprintBacklogMajorDefects() {
+        return sprintBacklogMajorDefects;
+    }
+
+    /**
+     * Get the sprint backlog minor defects
+     *
+     * @return the sprint backlog minor defects
+     */
+    public int getSprintBacklogMinorDefects() {
+        return sprintBacklogMinorDefects;
+    }
+
+    /**
+     * Get the number of tasks on the done backlog
+     *
+     * @return the number of tasks on the done backlog
+     */
+    public int getDoneBacklogSize() {
+        return doneBacklogSize;
+    }
+
+    /**
+     * Get the simulation time
+     *
+     * @return the simulation time
+     */
+    public double getSimTime() {
+        return simTime;
+    }
+
+    /**
+     * Get the profile of the event handlers
+     *
+     * @return the profile in the order of {@link profiling.HandlerProfiler#getColumnNames()},
+     * null when profiling is disabled
+     */
+    public long[] getProfile() {
+        return (profile == null) ? null : profile.clone();
+    }
+}
@@ -1,53 +1,150 @@
 package model;
 
+import profiling.DefectHarvestEvent;
+import profiling.HandlerProfiler;
+import profiling.PlanningEvent;
+import profiling.ReplicationEvent;
+import profiling.ReportEvent;
+import results.CsvResultSerializer;
 import utils.Constants;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.logging.*;
 
-public class Simulator {
+public class Simulator implements AutoCloseable {
 
     private static final Logger LOGGER = Logger.getLogger(Simulator.class.getName());
 
+    static {
+        // configured once, a handler added by every simulator would be called by every log record of every run
+        Level level = Level.SEVERE;
+        ConsoleHandler handler = new ConsoleHandler();
+        handler.setLevel(level);
+        LOGGER.addHandler(handler);
+        LOGGER.setLevel(level);
+    }
+
+    /**
+     * Version of the simulation engine
+     * Must be incremented whenever a change alters the results obtained for the same configuration and seed,
+     * so previously cached results are not reused
+     */
+    public static final int ENGINE_VERSION = 2;
+
     /**
      * State variables
      */
     private double simTime;
     private double timeLastEvent;
+
+    /**
+     * Resolution of the clock, 0 for a continuous clock
+     * With a resolution the time is counted in ticks, whole numbers held exactly by the doubles
+     */
+    private int clockTicksPerHour;
     private int curProject;
     private int curRelease;
     private int curSprint;
+    private int processedEvents;
 
     /**
      * Queue that stores the events scheduled during the simulation
      */
-    private Queue<Event> eventsQueue;
+    private EventQueue eventsQueue;
+
+    /**
+     * Events of the tasks dispatched together, added to the events queue at once
+     */
+    private final List<Event> dispatchedEvents = new ArrayList<>();
+
+    /**
+     * Developers occupied by the tasks dispatched together
+     */
+    private Developer[] dispatchedDevelopers;
 
     /**
      * Available resources
      */
-    private Resource developers;
-    private Resource testers;
+    private TaskResource developers;
+    private TaskResource testers;
+
+    /**
+     * Dispatch policies of the developers and testers, the resources are created again when they change
+     */
+    private DispatchPolicy.Type developerDispatchPolicy;
+    private DispatchPolicy.Type testerDispatchPolicy;
+
+    /**
+     * Portfolio the team belongs to, and its share of the testers of the portfolio, null for a single team
+     */
+    private Portfolio portfolio;
+    private int portfolioTeam;
+    private TaskResource testerShare;
+
+    /**
+     * Time before which no development or testing session may end while the portfolio simulates the teams in a
+     * time window, minus infinity otherwise
+     */
+    private double horizon = Double.NEGATIVE_INFINITY;
 
     /**
      * Project backlogs
      */
-    private Backlog projectBacklog;
+    private TaskBacklog projectBacklog;
     private Backlog releaseBacklog;
-    private Backlog sprintBacklog;
-    private Backlog doneBacklog;
+
+    /**
+     * Tasks selected for the current sprint, in the order they are handed to the developers
+     */
+    private final List<Task> sprintTasks = new ArrayList<>();
+
+    /**
+     * Tasks selected for the current release, before they are added to the release backlog
+     */
+    private final List<Task> releaseTasks = new ArrayList<>();
+
+    /**
+     * Completed tasks, only their aggregates are kept
+     */
+    private DoneTaskSink doneTasks;
 
     private boolean useTdd;
 
-    private String result;
+    /**
+     * Result of the simulation, created at the end of the run
+     */
+    private SimulationResult result;
 
     private final int numberOfSeniorDevelopers;
     private final int numberOfMidLevelDevelopers;
     private final int numberOfJuniorDevelopers;
     private final int numberOfTesters;
 
+    /**
+     * Seed of the probability distributions of the current simulation
+     */
+    private long seed;
+
+    /**
+     * Identifier of the next event to be scheduled
+     */
+    private int nextEventId;
+
     private TaskCreator taskCreator;
 
+    /**
+     * Processed events, reused by the events scheduled later
+     */
+    private final Deque<Event> freeEvents = new ArrayDeque<>();
+
+    /**
+     * Profiler of the event handlers, null when profiling is disabled
+     */
+    private HandlerProfiler profiler;
+
     /**
      * Default constructor
      *
@@ -55,18 +152,12 @@ public class Simulator {
      */
     public Simulator(boolean useTdd) {
         this.useTdd = useTdd;
-        this.result = "";
 
         this.numberOfSeniorDevelopers = Constants.NUMBER_OF_SENIOR_DEVELOPERS;
         this.numberOfMidLevelDevelopers = Constants.NUMBER_OF_MID_LEVEL_DEVELOPERS;
         this.numberOfJuniorDevelopers = Constants.NUMBER_OF_JUNIOR_DEVELOPERS;
         this.numberOfTesters = Constants.NUMBER_OF_TESTERS;
-
-        Level level = Level.SEVERE;
-        ConsoleHandler handler = new ConsoleHandler();
-        handler.setLevel(level);
-        LOGGER.addHandler(handler);
-        LOGGER.setLevel(level);
+        this.seed = Constants.SEED;
     }
 
     /**
@@ -79,94 +170,355 @@ public class Simulator {
      * @param testers number of testers
      */
     public Simulator(boolean useTdd, int seniors, int mid, int juniors, int testers) {
+        this(useTdd, seniors, mid, juniors, testers, Constants.SEED);
+    }
+
+    /**
+     * Constructor
+     * Does not depend on {@link Constants#SEED}, so several simulations can be run concurrently
+     *
+     * @param useTdd  true if tdd is used
+     * @param seniors number of senior developers
+     * @param mid     number of mid level developers
+     * @param juniors number of junior developers
+     * @param testers number of testers
+     * @param seed    seed of the probability distributions, -1 to leave them unseeded
+     */
+    public Simulator(boolean useTdd, int seniors, int mid, int juniors, int testers, long seed) {
         this.useTdd = useTdd;
-        this.result = "";
 
         this.numberOfSeniorDevelopers = seniors;
         this.numberOfMidLevelDevelopers = mid;
         this.numberOfJuniorDevelopers = juniors;
         this.numberOfTesters = testers;
-
-        Level level = Level.SEVERE;
-        ConsoleHandler handler = new ConsoleHandler();
-        handler.setLevel(level);
-        LOGGER.addHandler(handler);
-        LOGGER.setLevel(level);
+        this.seed = seed;
     }
 
     /**
      * Main routine
      */
     public int run() {
+        ReplicationEvent replicationEvent = new ReplicationEvent();
+        replicationEvent.begin();
+
         if (eventsQueue.isEmpty()) {
+            endRun(replicationEvent);
             return -1;
         } else {
             do {
-                Event curEvent = eventsQueue.remove();
-                simTime = curEvent.getStartTime();
-
-                LOGGER.log(Level.CONFIG, "\ncurEventType: " + curEvent.getType() + ", simTime: " + simTime);
-
-                Task curTask = curEvent.getTask();
-
-                updateStatistics();
-
-                switch (curEvent.getType()) {
-                    case PROJECT_PLANNING_END:
-                        createProject();
-                        break;
-                    case RELEASE_PLANNING_END:
-                        createRelease();
-                        break;
-                    case SPRINT_PLANNING_END:
-                        createSprint();
-                        break;
-                    case DEVELOPMENT_END:
-                        developmentSession(curTask);
-                        break;
-                    case TEST_END:
-                        testingSession(curTask);
-                        break;
-                    case PROJECT_END:
-                        return -1;
+                if (processNextEvent()) {
+                    endRun(replicationEvent);
+                    return -1;
                 }
-
             } while (!eventsQueue.isEmpty());
         }
 
+        endRun(replicationEvent);
         return 0;
     }
 
+    /**
+     * Removes the next event from the events queue and processes it
+     *
+     * @return true if the event ends the project
+     */
+    boolean processNextEvent() {
+        Event curEvent = eventsQueue.remove();
+        simTime = curEvent.getStartTime();
+        processedEvents++;
+
+        // guarded, the message would otherwise be built for every event
+        if (LOGGER.isLoggable(Level.CONFIG)) {
+            LOGGER.log(Level.CONFIG, "\ncurEventType: " + curEvent.getType() + ", simTime: " + simTime);
+        }
+
+        Task curTask = curEvent.getTask();
+
+        boolean projectEnd;
+        if (profiler == null) {
+            updateStatistics();
+            projectEnd = processEvent(curEvent.getType(), curTask);
+        } else {
+            profiler.begin();
+            updateStatistics();
+            profiler.end(HandlerProfiler.UPDATE_STATISTICS);
+
+            profiler.begin();
+            projectEnd = processEvent(curEvent.getType(), curTask);
+            profiler.end(curEvent.getType().ordinal());
+        }
+
+        // the event has been processed, it is reused by the next scheduled event
+        if (curTask != null && curTask.getEndEvent() == curEvent) {
+            curTask.setEndEvent(null);
+        }
+        curEvent.reset(0, null, null, 0);
+        freeEvents.push(curEvent);
+
+        return projectEnd;
+    }
+
+    /**
+     * Get the start time of the next event
+     *
+     * @return the start time of the next event, infinity if the events queue is empty
+     */
+    double getNextEventTime() {
+        Event nextEvent = eventsQueue.peek();
+        return (nextEvent == null) ? Double.POSITIVE_INFINITY : nextEvent.getStartTime();
+    }
+
+    /**
+     * Adds the scheduled events that start before a time to a list
+     *
+     * @param end    the time before which the events start
+     * @param events the list the events are added to, in no particular order
+     */
+    void collectEventsBefore(double end, List<Event> events) {
+        eventsQueue.collectBefore(end, events);
+    }
+
+    /**
+     * Sets the time before which no development or testing session may end
+     * The portfolio uses it to detect a session shorter than the lookahead of its time windows
+     *
+     * @param horizon the end of the time window, minus infinity outside the time windows
+     */
+    void setHorizon(double horizon) {
+        this.horizon = horizon;
+    }
+
+    /**
+     * Dispatches the event to the corresponding routine
+     *
+     * @param eventType the type of the current event
+     * @param curTask   the task associated with the current event
+     * @return true if the event ends the project
+     */
+    private boolean processEvent(Event.EventType eventType, Task curTask) {
+        switch (eventType) {
+            case PROJECT_PLANNING_END:
+                createProject();
+                break;
+            case RELEASE_PLANNING_END:
+                createRelease();
+                break;
+            case SPRINT_PLANNING_END:
+                createSprint();
+                break;
+            case DEVELOPMENT_END:
+                developmentSession(curTask);
+                break;
+            case TEST_END:
+                testingSession(curTask);
+                break;
+            case PROJECT_END:
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Creates the result of the simulation and commits the flight recorder event of the current replication
+     * Event fields are only filled when the event is being recorded
+     *
+     * @param replicationEvent the event started at the beginning of the run
+     */
+    void endRun(ReplicationEvent replicationEvent) {
+        result = new SimulationResult(useTdd, seed,
+                numberOfSeniorDevelopers, numberOfMidLevelDevelopers, numberOfJuniorDevelopers, numberOfTesters,
+                simTime, clockTicksPerHour,
+                developers, testers,
+                projectBacklog, releaseBacklog, doneTasks,
+                (profiler == null) ? null : profiler.getValues());
+
+        if (replicationEvent.shouldCommit()) {
+            replicationEvent.numberOfSeniorDevelopers = numberOfSeniorDevelopers;
+            replicationEvent.numberOfMidLevelDevelopers = numberOfMidLevelDevelopers;
+            replicationEvent.numberOfJuniorDevelopers = numberOfJuniorDevelopers;
+            replicationEvent.numberOfTesters = numberOfTesters;
+            replicationEvent.useTdd = useTdd;
+            replicationEvent.processedEvents = processedEvents;
+            replicationEvent.simTime = getSimTime();
+            replicationEvent.doneTasks = doneTasks.size();
+            replicationEvent.commit();
+        }
+    }
+
+    /**
+     * Commits the flight recorder event of a planning routine
+     * Fields are only filled when the event is being recorded
+     *
+     * @param planningEvent  the event started at the beginning of the planning routine
+     * @param phase          the planning phase
+     * @param planningNumber the number of the project, release or sprint
+     * @param plannedEffort  the effort of the backlog created by the planning routine
+     */
+    private void commitPlanningEvent(PlanningEvent planningEvent, String phase,
+                                     int planningNumber, double plannedEffort) {
+        if (planningEvent.shouldCommit()) {
+            planningEvent.phase = phase;
+            planningEvent.planningNumber = planningNumber;
+            planningEvent.teamSize = numberOfSeniorDevelopers + numberOfMidLevelDevelopers
+                    + numberOfJuniorDevelopers + numberOfTesters;
+            planningEvent.projectBacklogSize = projectBacklog.size();
+            planningEvent.releaseBacklogSize = releaseBacklog.size();
+            planningEvent.sprintBacklogSize = sprintTasks.size();
+            planningEvent.plannedEffort = plannedEffort;
+            planningEvent.commit();
+        }
+    }
+
     /**
      * Setup routine
      */
     public void setup() {
         LOGGER.log(Level.FINE, "\nsetup");
 
+        eventsQueue = new EventQueue();
+        doneTasks = new DoneTaskSink();
+
+        taskCreator = new TaskCreator(useTdd, seed);
+        createTeam();
+
+        initialize();
+    }
+
+    /**
+     * Prepares the simulator to run a new replication of the same configuration
+     * The resources, backlogs, task creator, tasks and events of the previous replication are reused, so the
+     * results of the previous replication must have been obtained from {@link #getResult()} before
+     *
+     * @param seed seed of the probability distributions, -1 to leave them unseeded
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        if (taskCreator == null) {
+            setup();
+            return;
+        }
+
+        LOGGER.log(Level.FINE, "\nreset");
+
+        freeEvents.addAll(eventsQueue);
+        eventsQueue.clear();
+
+        if (projectBacklog != null
+                && (projectBacklog instanceof MappedBacklog) == Constants.OUT_OF_CORE_PROJECT_BACKLOG) {
+            projectBacklog.clear();
+        } else {
+            closeProjectBacklog();
+            projectBacklog = createProjectBacklog();
+        }
+        releaseBacklog.clear();
+        sprintTasks.clear();
+        releaseTasks.clear();
+        doneTasks.clear();
+
+        if (developerDispatchPolicy == Constants.DEVELOPER_DISPATCH_POLICY
+                && testerDispatchPolicy == Constants.TESTER_DISPATCH_POLICY) {
+            developers.reset();
+            testers.reset();
+        } else {
+            createResources();
+        }
+
+        if (!taskCreator.reset(seed)) {
+            taskCreator = new TaskCreator(useTdd, seed);
+        }
+
+        initialize();
+    }
+
+    /**
+     * Initializes the state of the simulation and schedules the first events
+     */
+    private void initialize() {
         simTime = 0;
         timeLastEvent = -1;
+        clockTicksPerHour = Constants.CLOCK_TICKS_PER_HOUR;
         curProject = 0;
         curRelease = 0;
         curSprint = 0;
+        processedEvents = 0;
+        nextEventId = 1;
+        result = null;
 
-        eventsQueue = new PriorityQueue<>();
-        doneBacklog = new Backlog();
-
-        taskCreator = new TaskCreator(useTdd);
-        createTeam();
+        profiler = Constants.ENABLE_PROFILING ? new HandlerProfiler() : null;
 
         developers.occupyTeam();
         testers.occupyTeam();
 
         // add first event
-        eventsQueue.add(new Event(Event.EventType.PROJECT_PLANNING_END, null,
-                simTime + Constants.PROJECT_PLANNING_DURATION));
+        scheduleEvent(Event.EventType.PROJECT_PLANNING_END, null,
+                timeAfter(Constants.PROJECT_PLANNING_DURATION));
 
         // add end of simulation event
         if (Constants.SET_MAX_PROJECT_DURATION) {
-            eventsQueue.add(new Event(Event.EventType.PROJECT_END, null,
-                    simTime + Constants.MAX_PROJECT_DURATION));
+            scheduleEvent(Event.EventType.PROJECT_END, null,
+                    timeAfter(Constants.MAX_PROJECT_DURATION));
+        }
+    }
+
+    /**
+     * Adds a new event to the events queue
+     *
+     * @param type      the type of the event
+     * @param task      the task associated with the event
+     * @param startTime the start time of the event
+     */
+    private void scheduleEvent(Event.EventType type, Task task, double startTime) {
+        eventsQueue.add(createEvent(type, task, startTime));
+    }
+
+    /**
+     * Creates an event with the next identifier, reusing a processed event if possible
+     *
+     * @param type      the type of the event
+     * @param task      the task associated with the event
+     * @param startTime the start time of the event
+     * @return the event, still to be added to the events queue
+     */
+    private Event createEvent(Event.EventType type, Task task, double startTime) {
+        if (startTime < horizon
+                && (type == Event.EventType.DEVELOPMENT_END || type == Event.EventType.TEST_END)) {
+            throw new IllegalStateException("Session of " + task + " ends at " + startTime
+                    + ", before the end of the time window " + horizon);
+        }
+
+        Event event = freeEvents.poll();
+        if (event == null) {
+            event = new Event(nextEventId++, type, task, startTime);
+        } else {
+            event.reset(nextEventId++, type, task, startTime);
+        }
+        if (task != null) {
+            // the events of a task end its development or testing sessions
+            task.setEndEvent(event);
+        }
+        return event;
+    }
+
+    /**
+     * Interrupts a task in development or testing, cancelling the event that ends its session
+     * The developer is freed and the task returns to the queue of its resource with the effort it still needs,
+     * the caller decides the work of the freed developer
+     *
+     * @param task the task to interrupt
+     */
+    void preemptTask(Task task) {
+        Event endEvent = task.getEndEvent();
+        if (endEvent == null || !eventsQueue.remove(endEvent)) {
+            throw new IllegalStateException("The task is not in a development or testing session: " + task);
         }
+
+        double remainingTime = SimulationResult.toHours(endEvent.getStartTime() - simTime, clockTicksPerHour);
+        TaskResource resource = (endEvent.getType() == Event.EventType.DEVELOPMENT_END) ? developers : testers;
+        resource.preemptTask(task, simTime, remainingTime);
+
+        endEvent.reset(0, null, null, 0);
+        freeEvents.push(endEvent);
     }
 
     /**
@@ -175,6 +527,21 @@ public class Simulator {
     private void createTeam() {
         LOGGER.log(Level.FINE, "createTeam");
 
+        createResources();
+
+        closeProjectBacklog();
+        projectBacklog = createProjectBacklog();
+        releaseBacklog = new Backlog();
+    }
+
+    /**
+     * Creates the developers and testers, with the dispatch policies of {@link Constants}
+     * The team of a portfolio uses its share of the testers of the portfolio instead
+     */
+    private void createResources() {
+        developerDispatchPolicy = Constants.DEVELOPER_DISPATCH_POLICY;
+        testerDispatchPolicy = Constants.TESTER_DISPATCH_POLICY;
+
         List<Developer> developersList = new ArrayList<>();
         for (int i = 0; i < numberOfJuniorDevelopers; i++) {
             developersList.add(new Developer(Developer.DeveloperType.DEVELOPER,
@@ -191,7 +558,14 @@ public class Simulator {
                     Constants.DAILY_EFFORT, Developer.Skill.SENIOR));
         }
 
-        developers = new Resource(developersList);
+        developers = new Resource(developersList, developerDispatchPolicy.create());
+        dispatchedDevelopers = new Developer[developers.getNumberOfDevelopers()];
+
+        if (testerShare != null) {
+            testers = testerShare;
+            testers.reset();
+            return;
+        }
 
         ArrayList<Developer> testersList = new ArrayList<>();
         for (int i = 0; i < numberOfTesters; i++) {
@@ -199,11 +573,49 @@ public class Simulator {
                     Constants.DAILY_EFFORT, Developer.Skill.MID_LEVEL));
         }
 
-        testers = new Resource(testersList);
+        testers = new Resource(testersList, testerDispatchPolicy.create());
+    }
 
-        projectBacklog = new Backlog();
-        releaseBacklog = new Backlog();
-        sprintBacklog = new Backlog();
+    /**
+     * Creates the project backlog, kept out of the heap with {@link Constants#OUT_OF_CORE_PROJECT_BACKLOG}
+     *
+     * @return the project backlog
+     */
+    private TaskBacklog createProjectBacklog() {
+        if (!Constants.OUT_OF_CORE_PROJECT_BACKLOG) {
+            return new Backlog();
+        }
+
+        try {
+            // the current task creator is looked up on every call, since a reset may replace it
+            return new MappedBacklog(Paths.get(Constants.OUT_OF_CORE_DIRECTORY),
+                    () -> taskCreator.obtainTask(), task -> taskCreator.releaseTask(task));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the project backlog if it is kept out of the heap, deleting the file of its records
+     */
+    private void closeProjectBacklog() {
+        if (projectBacklog instanceof MappedBacklog) {
+            try {
+                ((MappedBacklog) projectBacklog).close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        projectBacklog = null;
+    }
+
+    /**
+     * Releases the project backlog kept out of the heap, once the simulator is no longer used
+     * The result of the last simulation stays available, and a closed simulator can be set up again
+     */
+    @Override
+    public void close() {
+        closeProjectBacklog();
     }
 
     /**
@@ -212,25 +624,37 @@ public class Simulator {
     private void createProject() {
         LOGGER.log(Level.FINE, "createProject");
 
+        PlanningEvent planningEvent = new PlanningEvent();
+        planningEvent.begin();
+
         developers.freeTeam();
         testers.freeTeam();
 
         curProject += 1;
 
-        while (projectBacklog.getBacklogEffort() <
-                Constants.MAX_PROJECT_EFFORT * (1.0 - Constants.PROJECT_DEFECT_EFFORT_PERC)) {
-            Task curTask = taskCreator.createTask(Task.TaskType.NEW_FEATURE);
-            projectBacklog.addTaskToBacklog(curTask);
+        double targetEffort = Constants.MAX_PROJECT_EFFORT * (1.0 - Constants.PROJECT_DEFECT_EFFORT_PERC);
+        if (projectBacklog instanceof MappedBacklog) {
+            // the features are stored as they are created, so they are never all on the heap
+            MappedBacklog mappedBacklog = (MappedBacklog) projectBacklog;
+            mappedBacklog.beginBulkLoad();
+            taskCreator.createProjectTasks(projectBacklog.getBacklogEffort(), targetEffort,
+                    mappedBacklog::addTasksToBacklog);
+            mappedBacklog.endBulkLoad();
+        } else {
+            projectBacklog.addTasksToBacklog(taskCreator.createProjectTasks(projectBacklog.getBacklogEffort(),
+                    targetEffort));
         }
 
         LOGGER.log(Level.FINE, "projectBacklog size: " + projectBacklog.size()
                 + ", currentProjectEffort: " + projectBacklog.getBacklogEffort());
 
+        commitPlanningEvent(planningEvent, PlanningEvent.PROJECT, curProject, projectBacklog.getBacklogEffort());
+
         developers.occupyTeam();
         testers.occupyTeam();
 
-        eventsQueue.add(new Event(Event.EventType.RELEASE_PLANNING_END, null,
-                simTime + Constants.RELEASE_PLANNING_DURATION));
+        scheduleEvent(Event.EventType.RELEASE_PLANNING_END, null,
+                timeAfter(Constants.RELEASE_PLANNING_DURATION));
     }
 
     /**
@@ -239,6 +663,9 @@ public class Simulator {
     private void createRelease() {
         LOGGER.log(Level.FINE, "createRelease");
 
+        PlanningEvent planningEvent = new PlanningEvent();
+        planningEvent.begin();
+
         developers.freeTeam();
         testers.freeTeam();
 
@@ -246,26 +673,25 @@ public class Simulator {
         curSprint = 0;
 
         // reorder priority queue based on the new assigned priorities
-        projectBacklog.updateTaskQueue(taskCreator.updatePriorityOfTasks(projectBacklog.getBacklog()));
+        projectBacklog.updatePriorities(taskCreator);
 
         // select the tasks for the current release
-        while (releaseBacklog.getBacklogEffort() < Constants.MAX_RELEASE_EFFORT) {
-            if (!projectBacklog.isEmpty()) {
-                Task task = projectBacklog.getNextTask();
-                releaseBacklog.addTaskToBacklog(task);
-            } else {
-                break;
-            }
+        projectBacklog.selectTasks(releaseBacklog.getBacklogEffort(), Constants.MAX_RELEASE_EFFORT, releaseTasks);
+        for (Task task : releaseTasks) {
+            releaseBacklog.addTaskToBacklog(task);
         }
+        releaseTasks.clear();
 
         LOGGER.log(Level.FINE, "releaseBacklog size: " + releaseBacklog.size()
                 + ", curReleaseEffort: " + releaseBacklog.getBacklogEffort());
 
+        commitPlanningEvent(planningEvent, PlanningEvent.RELEASE, curRelease, releaseBacklog.getBacklogEffort());
+
         developers.occupyTeam();
         testers.occupyTeam();
 
-        eventsQueue.add(new Event(Event.EventType.SPRINT_PLANNING_END, null,
-                simTime + Constants.SPRINT_PLANNING_DURATION));
+        scheduleEvent(Event.EventType.SPRINT_PLANNING_END, null,
+                timeAfter(Constants.SPRINT_PLANNING_DURATION));
     }
 
 
@@ -275,6 +701,9 @@ public class Simulator {
     private void createSprint() {
         LOGGER.log(Level.FINE, "createSprint");
 
+        PlanningEvent planningEvent = new PlanningEvent();
+        planningEvent.begin();
+
         developers.freeTeam();
         testers.freeTeam();
 
@@ -282,25 +711,50 @@ public class Simulator {
 
         curSprint += 1;
 
-        while (sprintBacklog.getBacklogEffort() < Constants.MAX_SPRINT_EFFORT) {
-            if (!releaseBacklog.isEmpty()) {
-                Task task = releaseBacklog.getNextTask();
-                sprintBacklog.addTaskToBacklog(task);
-            } else {
-                LOGGER.log(Level.FINE, "release is empty, simTime: " + simTime
-                        + " , sprint size: " + sprintBacklog.size());
-                break;
-            }
+        // the sprint is a batch of the release tasks, sorted once instead of going through a backlog of its own
+        double sprintEffort = releaseBacklog.selectTasks(0, Constants.MAX_SPRINT_EFFORT, sprintTasks);
+        if (releaseBacklog.isEmpty()) {
+            LOGGER.log(Level.FINE, "release is empty, simTime: " + simTime
+                    + " , sprint size: " + sprintTasks.size());
         }
+        sprintTasks.sort(null);
 
-        LOGGER.log(Level.FINE, "sprintBacklog size: " + sprintBacklog.size()
-                + ", curSprintEffort: " + sprintBacklog.getBacklogEffort());
+        LOGGER.log(Level.FINE, "sprint size: " + sprintTasks.size()
+                + ", curSprintEffort: " + sprintEffort);
         LOGGER.log(Level.FINE, "curSprint: " + curSprint);
 
-        while (!sprintBacklog.isEmpty()) {
-            Task taskToDevelop = sprintBacklog.getNextTask();
+        dispatchSprint();
+
+        commitPlanningEvent(planningEvent, PlanningEvent.SPRINT, curSprint, sprintEffort);
+        sprintTasks.clear();
+    }
+
+    /**
+     * Hands the tasks of the sprint to the developers in a single pass
+     * The tasks are assigned and queued as by one call to {@link #developmentEndEvent(Task)} per task, and
+     * their events are added to the events queue at once
+     */
+    private void dispatchSprint() {
+        int assigned = developers.getFreeDevelopers(sprintTasks, dispatchedDevelopers);
+
+        for (int i = 0; i < assigned; i++) {
+            Task taskToDevelop = sprintTasks.get(i);
             taskToDevelop.updateArrivalTime(simTime);
-            developmentEndEvent(taskToDevelop);
+            taskToDevelop.setDeveloper(dispatchedDevelopers[i]);
+            taskToDevelop.updateStatus(Task.TaskStatus.IN_PROGRESS);
+
+            developers.addDelay(simTime - taskToDevelop.getArrivalTime());
+            dispatchedEvents.add(createEvent(Event.EventType.DEVELOPMENT_END, taskToDevelop,
+                    timeAfter(taskToDevelop.getCodingEffort())));
+        }
+        eventsQueue.offerAll(dispatchedEvents);
+        dispatchedEvents.clear();
+        Arrays.fill(dispatchedDevelopers, 0, assigned, null);
+
+        for (int i = assigned; i < sprintTasks.size(); i++) {
+            Task taskToDevelop = sprintTasks.get(i);
+            taskToDevelop.updateArrivalTime(simTime);
+            developers.addTaskToQueue(taskToDevelop);
         }
     }
 
@@ -323,10 +777,11 @@ public class Simulator {
 
         developedTask.updateArrivalTime(simTime);
 
-        LOGGER.log(Level.FINER, "developedTask: " + developedTask);
+        if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.log(Level.FINER, "developedTask: " + developedTask);
+        }
 
-        Developer curDeveloper = developedTask.getDeveloper();
-        curDeveloper.updateState(false);
+        developers.releaseDeveloper(developedTask);
 
         if (!developers.isTaskQueueEmpty()) {
             Task nextTask = developers.getNextTask();
@@ -337,7 +792,7 @@ public class Simulator {
     }
 
     private void developmentEndEvent(Task curTask) {
-        Developer curDeveloper = developers.getFreeDeveloper();
+        Developer curDeveloper = developers.getFreeDeveloper(curTask);
 
         if (curDeveloper == null) {
             developers.addTaskToQueue(curTask);
@@ -346,8 +801,8 @@ public class Simulator {
             curTask.updateStatus(Task.TaskStatus.IN_PROGRESS);
 
             developers.addDelay(simTime - curTask.getArrivalTime());
-            eventsQueue.add(new Event(Event.EventType.DEVELOPMENT_END, curTask,
-                    simTime + curTask.getCodingEffort()));
+            scheduleEvent(Event.EventType.DEVELOPMENT_END, curTask,
+                    timeAfter(curTask.getCodingEffort()));
         }
     }
 
@@ -358,15 +813,20 @@ public class Simulator {
         LOGGER.log(Level.FINE, "testingSession");
 
         testedTask.updateArrivalTime(simTime);
-        LOGGER.log(Level.FINER, "testedTask: " + testedTask);
+        if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.log(Level.FINER, "testedTask: " + testedTask);
+        }
 
-        Developer curTester = testedTask.getDeveloper();
-        curTester.updateState(false);
+        testers.releaseDeveloper(testedTask);
 
         taskCreator.detectDefects(testedTask);
-        doneBacklog.addTaskToBacklog(testedTask);
+        doneTasks.addTask(testedTask);
+        taskCreator.releaseTask(testedTask);
 
-        if (!testers.isTaskQueueEmpty()) {
+        if (portfolio != null) {
+            // the freed tester may take a task of another team
+            portfolio.dispatchTesters(portfolioTeam);
+        } else if (!testers.isTaskQueueEmpty()) {
             Task nextTask = testers.getNextTask();
             testingEndEvent(nextTask);
         }
@@ -374,41 +834,88 @@ public class Simulator {
         if (testers.isTaskQueueEmpty() && developers.isTaskQueueEmpty()
                 && developers.isTeamFree() && testers.isTeamFree()) {
 
-            int injectedDefects = doneBacklog.getInjectedDefects();
+            DefectHarvestEvent defectHarvestEvent = new DefectHarvestEvent();
+            defectHarvestEvent.begin();
+
+            int injectedDefects = doneTasks.harvestInjectedDefects();
             createDefectTasks(injectedDefects);
 
             // reset priorities when defects are detected
             if (injectedDefects != 0) {
-                releaseBacklog.updateTaskQueue(taskCreator.updatePriorityOfTasks(releaseBacklog.getBacklog()));
+                releaseBacklog.updatePriorities(taskCreator);
             }
 
             LOGGER.log(Level.FINE, "detectedDefects: " + injectedDefects
                     + " , release backlog size: " + releaseBacklog.size());
 
+            if (defectHarvestEvent.shouldCommit()) {
+                defectHarvestEvent.injectedDefects = injectedDefects;
+                defectHarvestEvent.doneBacklogSize = doneTasks.size();
+                defectHarvestEvent.releaseBacklogSize = releaseBacklog.size();
+                defectHarvestEvent.simTime = getSimTime();
+                defectHarvestEvent.commit();
+            }
+
             // if all backlogs are empty finish the project
-            if (sprintBacklog.isEmpty() && releaseBacklog.isEmpty() && projectBacklog.isEmpty()) {
-                eventsQueue.add(new Event(Event.EventType.PROJECT_END, null, simTime));
+            if (releaseBacklog.isEmpty() && projectBacklog.isEmpty()) {
+                scheduleEvent(Event.EventType.PROJECT_END, null, simTime);
             }
             // if the max number of releases is reached end the project
             if (Constants.SET_MAX_PROJECT_DURATION && curRelease == Constants.NUMBER_RELEASES_PER_PROJECT) {
-                eventsQueue.add(new Event(Event.EventType.PROJECT_END, null, simTime));
+                scheduleEvent(Event.EventType.PROJECT_END, null, simTime);
             }
             // if the max number of sprints for the current release is reached schedule a new release planning event or
             // if the release does not have enough tasks to fill a sprint schedule a new release planning event
             else if (curSprint == Constants.NUMBER_SPRINTS_PER_RELEASE ||
                     releaseBacklog.getBacklogEffort() < Constants.MAX_SPRINT_EFFORT && !projectBacklog.isEmpty()) {
-                eventsQueue.add(new Event(Event.EventType.RELEASE_PLANNING_END, null,
-                        simTime + Constants.RELEASE_PLANNING_DURATION));
+                scheduleEvent(Event.EventType.RELEASE_PLANNING_END, null,
+                        timeAfter(Constants.RELEASE_PLANNING_DURATION));
             } else {
-                eventsQueue.add(new Event(Event.EventType.SPRINT_PLANNING_END, null,
-                        simTime + Constants.SPRINT_PLANNING_DURATION));
+                scheduleEvent(Event.EventType.SPRINT_PLANNING_END, null,
+                        timeAfter(Constants.SPRINT_PLANNING_DURATION));
             }
 
         }
     }
 
+    /**
+     * Joins a portfolio, whose testers are shared by its teams
+     * Must be called before the setup
+     *
+     * @param portfolio   the portfolio
+     * @param team        the index of the team in the portfolio
+     * @param testerShare the share of the team of the testers of the portfolio
+     */
+    void joinPortfolio(Portfolio portfolio, int team, TaskResource testerShare) {
+        this.portfolio = portfolio;
+        this.portfolioTeam = team;
+        this.testerShare = testerShare;
+    }
+
+    /**
+     * Hands a task waiting for a shared tester to the tester freed by another team
+     *
+     * @param task the task to be tested
+     * @param time current simulation time
+     */
+    void startTest(Task task, double time) {
+        simTime = time;
+        testingEndEvent(task);
+    }
+
+    /**
+     * Frees the shared testers still testing tasks of the team, once its project has ended
+     */
+    void releaseSharedTesters() {
+        for (Event event : eventsQueue) {
+            if (event.getType() == Event.EventType.TEST_END) {
+                testers.releaseDeveloper(event.getTask());
+            }
+        }
+    }
+
     private void testingEndEvent(Task curTask) {
-        Developer curTester = testers.getFreeDeveloper();
+        Developer curTester = testers.getFreeDeveloper(curTask);
 
         if (curTester == null) {
             testers.addTaskToQueue(curTask);
@@ -417,17 +924,50 @@ public class Simulator {
             curTask.updateStatus(Task.TaskStatus.TESTING);
 
             testers.addDelay(simTime - curTask.getArrivalTime());
-            eventsQueue.add(new Event(Event.EventType.TEST_END, curTask, simTime + curTask.getTestEffort()));
+            scheduleEvent(Event.EventType.TEST_END, curTask, timeAfter(curTask.getTestEffort()));
         }
     }
 
+    /**
+     * Get the current time of the clock of the simulation
+     *
+     * @return the simulation time, in ticks of the clock with a clock resolution and in hours otherwise
+     */
+    double getClock() {
+        return simTime;
+    }
+
     /**
      * Get the simulation time
      *
-     * @return the simulation time
+     * @return the simulation time, in hours
      */
     private double getSimTime() {
-        return simTime;
+        return SimulationResult.toHours(simTime, clockTicksPerHour);
+    }
+
+    /**
+     * Get the time at which a duration started now ends
+     * With a clock resolution the duration is rounded to whole ticks
+     *
+     * @param duration the duration, in hours
+     * @return the end time of the duration
+     */
+    private double timeAfter(double duration) {
+        if (clockTicksPerHour == 0) {
+            return simTime + duration;
+        }
+        return simTime + Math.round(duration * clockTicksPerHour);
+    }
+
+    /**
+     * Get the profiler of the event handlers
+     *
+     * @return the profiler of the event handlers, null when profiling is disabled
+     * @see Constants#ENABLE_PROFILING
+     */
+    public HandlerProfiler getProfiler() {
+        return profiler;
     }
 
     /**
@@ -448,86 +988,98 @@ public class Simulator {
         testers.updateUsageArea(timeSinceLastEvent);
     }
 
+    /**
+     * Get the result of the simulation
+     *
+     * @return the result of the simulation, null if the simulation has not been run
+     */
+    public SimulationResult getResult() {
+        return result;
+    }
+
+    private SimulationResult getFinishedResult() {
+        if (result == null) {
+            throw new IllegalStateException("The simulation has not been run");
+        }
+        return result;
+    }
+
     /**
      * Get the report for the current simulation
      *
      * @return the report for the current simulation
      */
     public String getReport() {
+        ReportEvent reportEvent = new ReportEvent();
+        reportEvent.begin();
+
+        SimulationResult result = getFinishedResult();
+
         String tab = "\t";
         String newline = "\n";
 
         StringBuilder builder = new StringBuilder();
 
-        builder.append("End of simulation time = ").append(simTime).append(newline);
+        builder.append("End of simulation time = ").append(result.getSimTime()).append(newline);
 
         builder.append("\nDevelopers:");
-        builder.append(newline).append(tab).append("Number of delays = ").append(developers.getDelays());
+        builder.append(newline).append(tab).append("Number of delays = ").append(result.getDevelopersDelays());
         builder.append(newline).append(tab).append("Developers usage rate = ")
-                .append(developers.calculateUsageRate(simTime));
+                .append(result.getDevelopersUsageRate());
         builder.append(newline).append(tab).append("Tasks's waiting time average = ")
-                .append(developers.calculateWaitingTimeAverage());
+                .append(result.getDevelopersWaitingTimeAverage());
         builder.append(newline).append(tab).append("Average number of tasks in queue = ").
-                append(developers.calculateWaitingAverage(simTime));
+                append(result.getDevelopersWaitingAverage());
         builder.append(newline);
 
         builder.append("\nTesters:");
-        builder.append(newline).append(tab).append("Number of delays = ").append(testers.getDelays());
+        builder.append(newline).append(tab).append("Number of delays = ").append(result.getTestersDelays());
         builder.append(newline).append(tab).append("Testers usage rate = ")
-                .append(testers.calculateUsageRate(simTime));
+                .append(result.getTestersUsageRate());
         builder.append(newline).append(tab).append("Tasks's waiting time average = ")
-                .append(testers.calculateWaitingTimeAverage());
+                .append(result.getTestersWaitingTimeAverage());
         builder.append(newline).append(tab).append("Average number of tasks in queue = ")
-                .append(testers.calculateWaitingAverage(simTime));
+                .append(result.getTestersWaitingAverage());
 
         builder.append(newline).append(newline);
 
-        builder.append(newline).append("projectBacklog, undone tasks: ").append(projectBacklog.size());
-        if (projectBacklog.size() > 0) {
-            builder.append(newline).append(tab).append("features = ")
-                    .append(projectBacklog.getNumberOfNewFeatures());
-            builder.append(newline).append(tab).append("major defects = ")
-                    .append(projectBacklog.getNumberOfMajorDefects());
-            builder.append(newline).append(tab).append("minor defects = ")
-                    .append(projectBacklog.getNumberOfMinorDefects());
+        appendBacklogReport(builder, "projectBacklog", result.getProjectBacklogSize(),
+                result.getProjectBacklogNewFeatures(), result.getProjectBacklogMajorDefects(),
+                result.getProjectBacklogMinorDefects());
+        appendBacklogReport(builder, "releaseBacklog", result.getReleaseBacklogSize(),
+                result.getReleaseBacklogNewFeatures(), result.getReleaseBacklogMajorDefects(),
+                result.getReleaseBacklogMinorDefects());
+        appendBacklogReport(builder, "sprintBacklog", result.getSprintBacklogSize(),
+                result.getSprintBacklogNewFeatures(), result.getSprintBacklogMajorDefects(),
+                result.getSprintBacklogMinorDefects());
+        appendBacklogReport(builder, "doneBacklog", result.getDoneBacklogSize(),
+                result.getNumberOfNewFeatures(), result.getNumberOfMajorDefects(),
+                result.getNumberOfMinorDefects());
+
+        String report = builder.toString();
+
+        if (reportEvent.shouldCommit()) {
+            reportEvent.reportType = ReportEvent.SUMMARY;
+            reportEvent.reportLength = report.length();
+            reportEvent.doneBacklogSize = result.getDoneBacklogSize();
+            reportEvent.commit();
         }
-        builder.append(newline);
 
-        builder.append(newline).append("releaseBacklog, undone tasks: ").append(releaseBacklog.size());
-        if (releaseBacklog.size() > 0) {
-            builder.append(newline).append(tab).append("features = ")
-                    .append(releaseBacklog.getNumberOfNewFeatures());
-            builder.append(newline).append(tab).append("major defects = ")
-                    .append(releaseBacklog.getNumberOfMajorDefects());
-            builder.append(newline).append(tab).append("minor defects = ")
-                    .append(releaseBacklog.getNumberOfMinorDefects());
-        }
-        builder.append(newline);
+        return report;
+    }
 
-        builder.append(newline).append("sprintBacklog, undone tasks: ").append(sprintBacklog.size());
-        if (sprintBacklog.size() > 0) {
-            builder.append(newline).append(tab).append("features = ").append(sprintBacklog.getNumberOfNewFeatures());
-            builder.append(newline).append(tab).append("major defects = ")
-                    .append(sprintBacklog.getNumberOfMajorDefects());
-            builder.append(newline).append(tab).append("minor defects = ")
-                    .append(sprintBacklog.getNumberOfMinorDefects());
-        }
-        builder.append(newline);
+    private static void appendBacklogReport(StringBuilder builder, String backlogName, int size,
+                                            int newFeatures, int majorDefects, int minorDefects) {
+        String tab = "\t";
+        String newline = "\n";
 
-        builder.append(newline).append("doneBacklog, undone tasks: ").append(doneBacklog.size());
-        if (doneBacklog.size() > 0) {
-            builder.append(newline).append(tab).append("features = ")
-                    .append(doneBacklog.getNumberOfNewFeatures());
-            builder.append(newline).append(tab).append("major defects = ")
-                    .append(doneBacklog.getNumberOfMajorDefects());
-            builder.append(newline).append(tab).append("minor defects = ")
-                    .append(doneBacklog.getNumberOfMinorDefects());
+        builder.append(newline).append(backlogName).append(", undone tasks: ").append(size);
+        if (size > 0) {
+            builder.append(newline).append(tab).append("features = ").append(newFeatures);
+            builder.append(newline).append(tab).append("major defects = ").append(majorDefects);
+            builder.append(newline).append(tab).append("minor defects = ").append(minorDefects);
         }
         builder.append(newline);
-
-        result += builder.toString();
-
-        return result;
     }
 
     /**
@@ -535,37 +1087,23 @@ public class Simulator {
      * The report is provided comma separated to be stored in a csv
      *
      * @return the full report for the current simulation
+     * @see CsvResultSerializer
      */
     public String getFullReport() {
-        String comma = ",";
-        String newline = "\n";
-
-        String result = "";
-        result += numberOfJuniorDevelopers + comma;
-        result += numberOfMidLevelDevelopers + comma;
-        result += numberOfSeniorDevelopers + comma;
-        result += numberOfTesters + comma;
+        ReportEvent reportEvent = new ReportEvent();
+        reportEvent.begin();
 
-        result += String.valueOf(developers.getDelays()) + comma;
-        result += String.valueOf(developers.calculateUsageRate(simTime)) + comma;
-        result += String.valueOf(developers.calculateWaitingTimeAverage()) + comma;
-        result += String.valueOf(developers.calculateWaitingAverage(simTime)) + comma;
+        SimulationResult result = getFinishedResult();
+        String report = new CsvResultSerializer(false).getRow(result);
 
-        result += String.valueOf(testers.getDelays()) + comma;
-        result += String.valueOf(testers.calculateUsageRate(simTime)) + comma;
-        result += String.valueOf(testers.calculateWaitingTimeAverage()) + comma;
-        result += String.valueOf(testers.calculateWaitingAverage(simTime)) + comma;
-
-        result += String.valueOf(doneBacklog.getNumberOfLocs()) + comma;
-        result += String.valueOf(doneBacklog.getNumberOfDefectsPerKLoc()) + comma;
-        result += String.valueOf(doneBacklog.getNumberOfNewFeatures()) + comma;
-        result += String.valueOf(doneBacklog.getNumberOfMajorDefects()) + comma;
-        result += String.valueOf(doneBacklog.getNumberOfMinorDefects()) + comma;
-
-        result += String.valueOf(simTime) + comma;
-        result += String.valueOf(useTdd) + comma;
+        if (reportEvent.shouldCommit()) {
+            reportEvent.reportType = ReportEvent.FULL;
+            reportEvent.reportLength = report.length();
+            reportEvent.doneBacklogSize = result.getDoneBacklogSize();
+            reportEvent.commit();
+        }
 
-        return result + newline;
+        return report;
     }
 
     /**
@@ -574,37 +1112,6 @@ public class Simulator {
      * @return the header of the full report
      */
     public static String getHeader() {
-        String comma = ",";
-        String newline = "\n";
-
-        String header = "";
-
-        header += "NUMBER_OF_JUNIOR_DEVELOPERS" + comma;
-        header += "NUMBER_OF_MID_LEVEL_DEVELOPERS" + comma;
-        header += "NUMBER_OF_SENIOR_DEVELOPERS" + comma;
-        header += "NUMBER_OF_TESTERS" + comma;
-
-        header += "DEVS_DELAYS" + comma;
-        header += "DEVS_USAGE_RATE" + comma;
-        header += "DEVS_WAITING_TIME_AVERAGE" + comma;
-        header += "DEVS_WAITING_AVERAGE" + comma;
-
-        header += "TESTERS_DELAYS" + comma;
-        header += "TESTERS_USAGE_RATE" + comma;
-        header += "TESTERS_WAITING_TIME_AVERAGE" + comma;
-        header += "TESTERS_WAITING_AVERAGE" + comma;
-
-        header += "NUMBER_OF_LOCS" + comma;
-        header += "NUMBER_DEFECTS_KLOC" + comma;
-        header += "NUMBER_OF_NEW_FEATURES" + comma;
-        header += "NUMBER_OF_MAJOR_DEFECTS" + comma;
-        header += "NUMBER_OF_MINOR_DEFECTS" + comma;
-
-        header += "SIM_TIME" + comma;
-        header += "USE_TDD" + comma;
-
-        return header + newline;
+        return new CsvResultSerializer(false).getHeader();
     }
-
-
 }
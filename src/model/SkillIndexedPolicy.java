@@ -0,0 +1,105 @@
+package model;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Base of the policies that choose among the free developers of each skill level
+ * The free developers of every skill level are kept in a bit set indexed by their position in the team, so the
+ * first free developer of a skill level is found by scanning one word per 64 developers instead of one developer
+ * at a time
+ */
+public abstract class SkillIndexedPolicy implements DispatchPolicy {
+
+    private static final Developer.Skill[] SKILLS = Developer.Skill.values();
+
+    /**
+     * Developers of every skill level, by position in the team
+     */
+    private final BitSet[] members = new BitSet[SKILLS.length];
+
+    /**
+     * Free developers of every skill level, by position in the team
+     */
+    private final BitSet[] free = new BitSet[SKILLS.length];
+
+    /**
+     * Skill level of every developer, by position in the team
+     */
+    private Developer.Skill[] skills;
+
+    @Override
+    public void attach(Resource resource, List<Developer> developers) {
+        for (int i = 0; i < SKILLS.length; i++) {
+            members[i] = new BitSet(developers.size());
+            free[i] = new BitSet(developers.size());
+        }
+
+        skills = new Developer.Skill[developers.size()];
+        for (int slot = 0; slot < skills.length; slot++) {
+            skills[slot] = developers.get(slot).getSkill();
+            members[skills[slot].ordinal()].set(slot);
+            if (!resource.isBusy(slot)) {
+                free[skills[slot].ordinal()].set(slot);
+            }
+        }
+    }
+
+    @Override
+    public void updateState(int slot, boolean busy) {
+        free[skills[slot].ordinal()].set(slot, !busy);
+    }
+
+    @Override
+    public void updateTeam(boolean busy) {
+        for (int i = 0; i < SKILLS.length; i++) {
+            if (busy) {
+                free[i].clear();
+            } else {
+                free[i].or(members[i]);
+            }
+        }
+    }
+
+    /**
+     * Get the first free developer of a skill level
+     *
+     * @param skill the skill level
+     * @return the index of the developer, -1 if every developer of the skill level is busy
+     */
+    protected int firstFree(Developer.Skill skill) {
+        return free[skill.ordinal()].nextSetBit(0);
+    }
+
+    /**
+     * Get the first free developer of the team, whatever its skill level
+     *
+     * @return the index of the developer, -1 if every developer is busy
+     */
+    protected int firstFree() {
+        int first = -1;
+        for (BitSet freeOfSkill : free) {
+            int slot = freeOfSkill.nextSetBit(0);
+            if (slot >= 0 && (first < 0 || slot < first)) {
+                first = slot;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Get the first free developer of the first skill level of a list that has one
+     *
+     * @param preferredSkills the skill levels, from the most to the least preferred
+     * @return the index of the developer, -1 if every developer of the skill levels is busy
+     */
+    protected int firstFree(Developer.Skill[] preferredSkills) {
+        for (Developer.Skill skill : preferredSkills) {
+            int slot = firstFree(skill);
+            if (slot >= 0) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+}
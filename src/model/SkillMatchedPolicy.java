@@ -0,0 +1,62 @@
+package model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Chooses a free developer with the skill level preferred for the type of the task
+ * When no developer of the preferred skill levels is free the first free developer takes the task, so a task never
+ * waits while a developer is free
+ */
+public class SkillMatchedPolicy extends SkillIndexedPolicy {
+
+    /**
+     * Preferred skill levels of every task type, from the most to the least preferred
+     */
+    private final Map<Task.TaskType, Developer.Skill[]> preferredSkills;
+
+    /**
+     * Constructor with the default preferences: major defects go to the most skilled developers, and the other
+     * tasks to the least skilled ones, which keeps the seniors free for the major defects
+     */
+    public SkillMatchedPolicy() {
+        this(defaultPreferences());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param preferredSkills preferred skill levels of every task type, from the most to the least preferred
+     */
+    public SkillMatchedPolicy(Map<Task.TaskType, Developer.Skill[]> preferredSkills) {
+        this.preferredSkills = new EnumMap<>(preferredSkills);
+    }
+
+    @Override
+    public int selectDeveloper(Task task) {
+        Developer.Skill[] skills = (task == null) ? null : preferredSkills.get(task.getType());
+        if (skills != null) {
+            int slot = firstFree(skills);
+            if (slot >= 0) {
+                return slot;
+            }
+        }
+        return firstFree();
+    }
+
+    /**
+     * Get the default preferences
+     *
+     * @return the default preferred skill levels of every task type
+     */
+    private static Map<Task.TaskType, Developer.Skill[]> defaultPreferences() {
+        Developer.Skill[] mostSkilledFirst = {Developer.Skill.SENIOR, Developer.Skill.MID_LEVEL, Developer.Skill.JUNIOR};
+        Developer.Skill[] leastSkilledFirst = {Developer.Skill.JUNIOR, Developer.Skill.MID_LEVEL, Developer.Skill.SENIOR};
+
+        Map<Task.TaskType, Developer.Skill[]> preferences = new EnumMap<>(Task.TaskType.class);
+        for (Task.TaskType type : Task.TaskType.values()) {
+            preferences.put(type, (type == Task.TaskType.MAJOR_DEFECT) ? mostSkilledFirst : leastSkilledFirst);
+        }
+        return preferences;
+    }
+}
@@ -29,20 +29,22 @@ public class Task implements Comparable {
         }
     }
 
-    private static int instanceCounter = 1;
-
-    private final int id;
+    /**
+     * Identifier of the task, unique within a simulation
+     * Used to break ties between tasks with the same priority
+     */
+    private int id;
 
     /**
      * Total size of the task measured in number of lines of code (LOC)
      */
-    private final int size;
+    private int size;
 
     /**
      * Type of the task
      * @see TaskType
      */
-    private final TaskType type;
+    private TaskType type;
 
     /**
      * Priority assigned to the task during the planning activities
@@ -82,12 +84,42 @@ public class Task implements Comparable {
      */
     private double arrivalTime;
 
-    Task(TaskType type,
-                float codingEffort,
-                float testEffort,
-                int size) {
+    /**
+     * Offset that keeps the priority of a sort key positive
+     */
+    private static final int PRIORITY_BIAS = 1 << 23;
+
+    /**
+     * Status priority, type priority, priority and identifier packed in the order compared by
+     * {@link #compareTo(Object)}, updated whenever one of them changes
+     */
+    private long sortKey;
 
-        this.id = instanceCounter++;
+    /**
+     * Event that ends the current development or testing session, null if the task is not in a session
+     */
+    private Event endEvent;
+
+    Task(int id,
+         TaskType type,
+         float codingEffort,
+         float testEffort,
+         int size) {
+
+        reset(id, type, codingEffort, testEffort, size);
+    }
+
+    /**
+     * Reinitializes the task, so a task of a previous simulation can be reused
+     *
+     * @param id           identifier of the task
+     * @param type         type of the task
+     * @param codingEffort coding effort of the task
+     * @param testEffort   test effort of the task
+     * @param size         size of the task in number of lines of code
+     */
+    void reset(int id, TaskType type, float codingEffort, float testEffort, int size) {
+        this.id = id;
         this.status = TaskStatus.TO_DO;
         this.priority = -1;
 
@@ -96,6 +128,10 @@ public class Task implements Comparable {
         this.testEffort = testEffort;
         this.size = size;
         this.injectedDefects = 0;
+        this.developer = null;
+        this.arrivalTime = 0;
+        this.endEvent = null;
+        updateSortKey();
     }
 
     /**
@@ -114,14 +150,56 @@ public class Task implements Comparable {
         }
     }
 
+    /**
+     * Interrupts the current development or testing session
+     * The effort of the session becomes the effort still to be done, measured without the productivity of the
+     * developer, and the task returns to the state it had while waiting for the session
+     *
+     * @param remainingTime time the developer still needed to finish the session
+     */
+    void preempt(double remainingTime) {
+        if (developer.getType() == Developer.DeveloperType.DEVELOPER) {
+            codingEffort = (float) (remainingTime / developer.getProductivity());
+            status = TaskStatus.TO_DO;
+        } else {
+            testEffort = (float) (remainingTime / developer.getProductivity());
+            status = TaskStatus.IN_PROGRESS;
+        }
+        developer = null;
+        endEvent = null;
+        updateSortKey();
+    }
+
+    /**
+     * Set the event that ends the current development or testing session
+     *
+     * @param event the event that ends the session, null when the session ends
+     */
+    void setEndEvent(Event event) {
+        endEvent = event;
+    }
+
+    /**
+     * Get the event that ends the current development or testing session
+     *
+     * @return the event that ends the session, null if the task is not in a session
+     */
+    public Event getEndEvent() {
+        return endEvent;
+    }
+
     /**
      * Set the priority of the current task
      * A lower number represents a higher priority
      *
-     * @param taskPriority the priority of the current task
+     * @param taskPriority the priority of the current task, between -2^23 and 2^23 - 1
      */
     public void setPriority(int taskPriority) {
+        if (taskPriority < -PRIORITY_BIAS || taskPriority >= PRIORITY_BIAS) {
+            throw new IllegalArgumentException("Task priority out of range: " + taskPriority);
+        }
         priority = taskPriority;
+        updateSortKey();
     }
 
     /**
@@ -141,6 +219,7 @@ public class Task implements Comparable {
      */
     public void updateStatus(TaskStatus taskStatus) {
         status = taskStatus;
+        updateSortKey();
     }
 
     /**
@@ -153,6 +232,24 @@ public class Task implements Comparable {
         injectedDefects += newDefects;
     }
 
+    /**
+     * Get the priority of the current task
+     *
+     * @return the priority of the current task
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Get the identifier of the current task
+     *
+     * @return the identifier of the current task
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Get the development status of the current task
      *
@@ -235,20 +332,42 @@ public class Task implements Comparable {
         return injectedDefects;
     }
 
-    @Override
-    public int compareTo(Object o) {
-        Task taskToCompare = (Task) o;
-
-        if (status.priority < taskToCompare.status.priority) return -1;
-        if (status.priority > taskToCompare.status.priority) return 1;
+    /**
+     * Get the sort key of the current task, a lower key is removed first from a task queue
+     *
+     * @return the sort key of the current task
+     */
+    public long getSortKey() {
+        return sortKey;
+    }
 
-        if (type.priority < taskToCompare.type.priority) return -1;
-        if (type.priority > taskToCompare.type.priority) return 1;
+    /**
+     * Recomputes the sort key after a compared field changes
+     */
+    private void updateSortKey() {
+        sortKey = sortKey(status, type, priority, id);
+    }
 
-        if (priority > taskToCompare.priority) return 1;
-        else if (priority < taskToCompare.priority) return -1;
+    /**
+     * Packs the fields compared by {@link #compareTo(Object)}, from the most to the least significant
+     * The sign bit of the identifier is flipped, so negative identifiers sort before positive ones
+     *
+     * @param status   status of the task
+     * @param type     type of the task
+     * @param priority priority of the task, between -2^23 and 2^23 - 1
+     * @param id       identifier of the task
+     * @return the sort key
+     */
+    static long sortKey(TaskStatus status, TaskType type, int priority, int id) {
+        return (long) status.priority << 60
+                | (long) type.priority << 56
+                | (long) (priority + PRIORITY_BIAS) << 32
+                | ((id ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
 
-        return Integer.compare(id, taskToCompare.id);
+    @Override
+    public int compareTo(Object o) {
+        return Long.compare(sortKey, ((Task) o).sortKey);
     }
 
     @Override
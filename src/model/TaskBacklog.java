@@ -0,0 +1,127 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Backlog of tasks, handed out in order of priority
+ * The tasks are kept on the heap by {@link Backlog}, or out of the heap by {@link MappedBacklog}
+ */
+public interface TaskBacklog {
+
+    /**
+     * Adds a new task to the backlog
+     *
+     * @param task task to be added
+     */
+    void addTaskToBacklog(Task task);
+
+    /**
+     * Adds several tasks to the backlog
+     *
+     * @param tasks tasks to be added
+     */
+    void addTasksToBacklog(List<Task> tasks);
+
+    /**
+     * Removes every task from the backlog
+     */
+    void clear();
+
+    /**
+     * Get the effort of the current backlog
+     *
+     * @return the effort of the current backlog
+     */
+    double getBacklogEffort();
+
+    /**
+     * Returns true if no tasks are left in the backlog
+     *
+     * @return true if no tasks are left in the backlog
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the next task of the backlog according to the task priority
+     *
+     * @return the next task of the backlog according to the task priority
+     */
+    Task getNextTask();
+
+    /**
+     * Removes the next tasks according to the task priority until their effort reaches the effort budget
+     *
+     * @param initialEffort effort already selected before these tasks
+     * @param effortBudget  effort to be reached by the selected tasks
+     * @param selected      receives the removed tasks, in the order they are removed
+     * @return the effort selected, including the initial effort
+     */
+    default double selectTasks(double initialEffort, double effortBudget, List<Task> selected) {
+        double effort = initialEffort;
+        while (effort < effortBudget && !isEmpty()) {
+            Task task = getNextTask();
+            selected.add(task);
+            effort += task.getEffort();
+        }
+        return effort;
+    }
+
+    /**
+     * Get the size of the backlog
+     *
+     * @return the size of the backlog
+     */
+    int size();
+
+    /**
+     * Get the total number of injected defects on the tasks of the backlog, marking the tested tasks as done
+     *
+     * @return the total number of injected defects
+     */
+    int getInjectedDefects();
+
+    /**
+     * Assigns new priorities to the tasks to be done
+     *
+     * @param taskCreator the task creator that samples the priorities
+     */
+    void updatePriorities(TaskCreator taskCreator);
+
+    /**
+     * Get the total number of minor defects of the backlog
+     *
+     * @return the total number of minor defects
+     */
+    int getNumberOfMinorDefects();
+
+    /**
+     * Get the total number of major defects of the backlog
+     *
+     * @return the total number of major defects
+     */
+    int getNumberOfMajorDefects();
+
+    /**
+     * Get the total number of new features of the backlog
+     *
+     * @return the total number of new features
+     */
+    int getNumberOfNewFeatures();
+
+    /**
+     * Get the number of lines of code (LOC) added by the tasks of the backlog
+     *
+     * @return the number of lines of code (LOC) added
+     */
+    int getNumberOfLocs();
+
+    /**
+     * Get the number of defects injected by 1000 LOCS
+     *
+     * @return the number of defects injected by 1000 LOCS
+     */
+    default float getNumberOfDefectsPerKLoc() {
+        int defects = getNumberOfMajorDefects() + getNumberOfMinorDefects();
+        return defects / (getNumberOfLocs() / 1000f);
+    }
+}
@@ -2,10 +2,21 @@ package model;
 
 import org.apache.commons.math3.distribution.EnumeratedDistribution;
 import org.apache.commons.math3.distribution.TriangularDistribution;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+import org.apache.commons.math3.util.Pair;
 import utils.Constants;
 
-import java.util.PriorityQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 public class TaskCreator {
 
@@ -14,55 +25,291 @@ public class TaskCreator {
     private final TriangularDistribution minorDefectEffortDistribution;
     private final TriangularDistribution majorDefectEffortDistribution;
 
-    private final EnumeratedDistribution newFeaturePriorityDistribution;
-    private final EnumeratedDistribution minorDefectPriorityDistribution;
-    private final EnumeratedDistribution majorDefectPriorityDistribution;
+    private final EnumeratedDistribution<Integer> newFeaturePriorityDistribution;
+    private final EnumeratedDistribution<Integer> minorDefectPriorityDistribution;
+    private final EnumeratedDistribution<Integer> majorDefectPriorityDistribution;
 
-    private final EnumeratedDistribution typeDefectDistribution;
+    private final EnumeratedDistribution<Task.TaskType> typeDefectDistribution;
 
     private final TriangularDistribution defectInjectionDistribution;
 
     private final boolean useTdd;
 
+    /**
+     * Identifier of the next task to be created
+     */
+    private int nextTaskId;
+
+    /**
+     * Counter based generator of the random attributes of the tasks, null to sample the distributions sequentially
+     */
+    private PhiloxRandom counterRandom;
+
+    /**
+     * True if the distributions sample the random streams of the replication
+     */
+    private final boolean streamGenerators;
+
+    /**
+     * Tasks created by this task creator, reused by the following simulations
+     * The first tasksInUse tasks belong to the current simulation
+     */
+    private final List<Task> taskPool;
+    private int tasksInUse;
+
+    /**
+     * Pooled tasks released before the end of the current simulation
+     */
+    private final Deque<Task> releasedTasks;
+
+    /**
+     * Number of times the priorities have been updated
+     */
+    private int priorityRound;
+
+    /**
+     * Buffers of the samples of the distributions by purpose, null to sample the distributions one at a time
+     */
+    private final TriangularSampleBuffer[] triangularBuffers;
+    private final EnumeratedSampleBuffer<Integer> newFeaturePriorityBuffer;
+    private final EnumeratedSampleBuffer<Integer> minorDefectPriorityBuffer;
+    private final EnumeratedSampleBuffer<Integer> majorDefectPriorityBuffer;
+    private final EnumeratedSampleBuffer<Task.TaskType> typeDefectBuffer;
+
+    /**
+     * Sizes and numbers of defects are rounded to units, efforts to hundredths
+     */
+    private static final double UNITS = 1.0;
+    private static final double HUNDREDTHS = 100.0;
+
+    /**
+     * Number of features created by a thread at a time when the project is created in parallel
+     */
+    private static final int PROJECT_CHUNK_SIZE = 1024;
+
+    /**
+     * Constructor
+     * The distributions are seeded with {@link Constants#SEED}
+     *
+     * @param useTdd true if tdd is used
+     */
     public TaskCreator(boolean useTdd) {
+        this(useTdd, Constants.SEED);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param useTdd true if tdd is used
+     * @param seed   seed of the distributions, -1 to leave them unseeded
+     *               with {@link Constants#USE_STREAM_SEEDING}, key of the random streams of the replication
+     */
+    public TaskCreator(boolean useTdd, long seed) {
         this.useTdd = useTdd;
+        this.nextTaskId = 1;
+        this.priorityRound = 0;
+        this.taskPool = new ArrayList<>();
+        this.tasksInUse = 0;
+        this.releasedTasks = new ArrayDeque<>();
+
+        if (Constants.USE_COUNTER_BASED_RANDOM) {
+            counterRandom = new PhiloxRandom(seed != -1 ? seed : ThreadLocalRandom.current().nextLong());
+        } else {
+            counterRandom = null;
+        }
+
+        // with stream seeding the seed is the key of the random streams of the replication
+        RandomStreams streams = Constants.USE_STREAM_SEEDING && seed != -1 ? new RandomStreams(seed) : null;
+        streamGenerators = streams != null;
+
+        // every distribution has its own generator, created here so the sample buffers can draw from it;
+        // without streams it is the generator the distributions create by default
+        RandomGenerator[] generators = new RandomGenerator[RandomStreams.Purpose.values().length];
+        for (RandomStreams.Purpose purpose : RandomStreams.Purpose.values()) {
+            generators[purpose.ordinal()] = streams != null ? streams.createGenerator(purpose) : new Well19937c();
+        }
 
-        taskSizeDistribution = new TriangularDistribution(Constants.TASK_SIZE_LOWER_LIMIT,
-                Constants.TASK_SIZE_MODE, Constants.TASK_SIZE_UPPER_LIMIT);
+        taskSizeDistribution = createTriangularDistribution(generators, RandomStreams.Purpose.TASK_SIZE,
+                Constants.TASK_SIZE_LOWER_LIMIT, Constants.TASK_SIZE_MODE, Constants.TASK_SIZE_UPPER_LIMIT);
 
-        newFeatureEffortDistribution = new TriangularDistribution(Constants.NEW_FEATURE_EFFORT_LOWER_LIMIT,
+        newFeatureEffortDistribution = createTriangularDistribution(generators,
+                RandomStreams.Purpose.NEW_FEATURE_EFFORT, Constants.NEW_FEATURE_EFFORT_LOWER_LIMIT,
                 Constants.NEW_FEATURE_EFFORT_MODE, Constants.NEW_FEATURE_EFFORT_UPPER_LIMIT);
 
-        minorDefectEffortDistribution = new TriangularDistribution(Constants.MINOR_DEFECT_EFFORT_LOWER_LIMIT,
+        minorDefectEffortDistribution = createTriangularDistribution(generators,
+                RandomStreams.Purpose.MINOR_DEFECT_EFFORT, Constants.MINOR_DEFECT_EFFORT_LOWER_LIMIT,
                 Constants.MINOR_DEFECT_EFFORT_MODE, Constants.MINOR_DEFECT_EFFORT_UPPER_LIMIT);
 
-        majorDefectEffortDistribution = new TriangularDistribution(Constants.MAJOR_DEFECT_EFFORT_LOWER_LIMIT,
+        majorDefectEffortDistribution = createTriangularDistribution(generators,
+                RandomStreams.Purpose.MAJOR_DEFECT_EFFORT, Constants.MAJOR_DEFECT_EFFORT_LOWER_LIMIT,
                 Constants.MAJOR_DEFECT_EFFORT_MODE, Constants.MAJOR_DEFECT_EFFORT_UPPER_LIMIT);
 
-        newFeaturePriorityDistribution = new EnumeratedDistribution(Constants.NEW_FEATURE_PRIORITIES);
-        minorDefectPriorityDistribution = new EnumeratedDistribution(Constants.MINOR_DEFECTS_PRIORITIES);
-        majorDefectPriorityDistribution = new EnumeratedDistribution(Constants.MAJOR_DEFECTS_PRIORITIES);
+        newFeaturePriorityDistribution = createEnumeratedDistribution(generators,
+                RandomStreams.Purpose.NEW_FEATURE_PRIORITY, Constants.NEW_FEATURE_PRIORITIES);
+        minorDefectPriorityDistribution = createEnumeratedDistribution(generators,
+                RandomStreams.Purpose.MINOR_DEFECT_PRIORITY, Constants.MINOR_DEFECTS_PRIORITIES);
+        majorDefectPriorityDistribution = createEnumeratedDistribution(generators,
+                RandomStreams.Purpose.MAJOR_DEFECT_PRIORITY, Constants.MAJOR_DEFECTS_PRIORITIES);
 
-        typeDefectDistribution = new EnumeratedDistribution(Constants.TYPE_OF_DEFECT);
+        typeDefectDistribution = createEnumeratedDistribution(generators,
+                RandomStreams.Purpose.DEFECT_TYPE, Constants.TYPE_OF_DEFECT);
 
-        defectInjectionDistribution = new TriangularDistribution(Constants.INJECTED_DEFECT_LOWER_LIMIT,
+        defectInjectionDistribution = createTriangularDistribution(generators,
+                RandomStreams.Purpose.DEFECT_INJECTION, Constants.INJECTED_DEFECT_LOWER_LIMIT,
                 Constants.INJECTED_DEFECT_MODE, Constants.INJECTED_DEFECT_UPPER_LIMIT);
 
-        if (Constants.SEED != -1) {
-            taskSizeDistribution.reseedRandomGenerator(Constants.SEED);
+        if (streams == null) {
+            reseedDistributions(seed);
+        }
+
+        // every distribution has its own generator, so sampling it in bulk keeps the same sequence
+        if (Constants.BATCH_SAMPLING && counterRandom == null) {
+            triangularBuffers = new TriangularSampleBuffer[RandomStreams.Purpose.values().length];
+            triangularBuffers[RandomStreams.Purpose.TASK_SIZE.ordinal()] =
+                    new TriangularSampleBuffer(taskSizeDistribution,
+                            generators[RandomStreams.Purpose.TASK_SIZE.ordinal()], UNITS);
+            triangularBuffers[RandomStreams.Purpose.NEW_FEATURE_EFFORT.ordinal()] =
+                    new TriangularSampleBuffer(newFeatureEffortDistribution,
+                            generators[RandomStreams.Purpose.NEW_FEATURE_EFFORT.ordinal()], HUNDREDTHS);
+            triangularBuffers[RandomStreams.Purpose.MINOR_DEFECT_EFFORT.ordinal()] =
+                    new TriangularSampleBuffer(minorDefectEffortDistribution,
+                            generators[RandomStreams.Purpose.MINOR_DEFECT_EFFORT.ordinal()], HUNDREDTHS);
+            triangularBuffers[RandomStreams.Purpose.MAJOR_DEFECT_EFFORT.ordinal()] =
+                    new TriangularSampleBuffer(majorDefectEffortDistribution,
+                            generators[RandomStreams.Purpose.MAJOR_DEFECT_EFFORT.ordinal()], HUNDREDTHS);
+            triangularBuffers[RandomStreams.Purpose.DEFECT_INJECTION.ordinal()] =
+                    new TriangularSampleBuffer(defectInjectionDistribution,
+                            generators[RandomStreams.Purpose.DEFECT_INJECTION.ordinal()], UNITS);
+
+            newFeaturePriorityBuffer = new EnumeratedSampleBuffer<>(newFeaturePriorityDistribution,
+                    generators[RandomStreams.Purpose.NEW_FEATURE_PRIORITY.ordinal()]);
+            minorDefectPriorityBuffer = new EnumeratedSampleBuffer<>(minorDefectPriorityDistribution,
+                    generators[RandomStreams.Purpose.MINOR_DEFECT_PRIORITY.ordinal()]);
+            majorDefectPriorityBuffer = new EnumeratedSampleBuffer<>(majorDefectPriorityDistribution,
+                    generators[RandomStreams.Purpose.MAJOR_DEFECT_PRIORITY.ordinal()]);
+            typeDefectBuffer = new EnumeratedSampleBuffer<>(typeDefectDistribution,
+                    generators[RandomStreams.Purpose.DEFECT_TYPE.ordinal()]);
+        } else {
+            triangularBuffers = null;
+            newFeaturePriorityBuffer = null;
+            minorDefectPriorityBuffer = null;
+            majorDefectPriorityBuffer = null;
+            typeDefectBuffer = null;
+        }
+    }
+
+    /**
+     * Reinitializes the task creator for a new simulation, reseeding the distributions instead of creating them
+     * The tasks created for the previous simulation are reused, so they must no longer be referenced
+     *
+     * @param seed seed of the distributions, -1 to leave them unseeded
+     * @return false if the task creator cannot be reused with the current constants and seed
+     */
+    public boolean reset(long seed) {
+        boolean batchSampling = Constants.BATCH_SAMPLING && !Constants.USE_COUNTER_BASED_RANDOM;
+        if (streamGenerators != (Constants.USE_STREAM_SEEDING && seed != -1)
+                || (counterRandom != null) != Constants.USE_COUNTER_BASED_RANDOM
+                || (triangularBuffers != null) != batchSampling) {
+            return false;
+        }
 
-            newFeatureEffortDistribution.reseedRandomGenerator(Constants.SEED + 1);
-            minorDefectEffortDistribution.reseedRandomGenerator(Constants.SEED + 2);
-            majorDefectEffortDistribution.reseedRandomGenerator(Constants.SEED + 3);
+        nextTaskId = 1;
+        priorityRound = 0;
+        tasksInUse = 0;
+        releasedTasks.clear();
 
-            newFeaturePriorityDistribution.reseedRandomGenerator(Constants.SEED + 4);
-            minorDefectPriorityDistribution.reseedRandomGenerator(Constants.SEED + 5);
-            majorDefectPriorityDistribution.reseedRandomGenerator(Constants.SEED + 6);
+        if (counterRandom != null) {
+            counterRandom = new PhiloxRandom(seed != -1 ? seed : ThreadLocalRandom.current().nextLong());
+        }
 
-            typeDefectDistribution.reseedRandomGenerator(Constants.SEED + 7);
+        if (streamGenerators) {
+            RandomStreams streams = new RandomStreams(seed);
+            taskSizeDistribution.reseedRandomGenerator(streams.getGeneratorSeed(RandomStreams.Purpose.TASK_SIZE));
+            newFeatureEffortDistribution.reseedRandomGenerator(
+                    streams.getGeneratorSeed(RandomStreams.Purpose.NEW_FEATURE_EFFORT));
+            minorDefectEffortDistribution.reseedRandomGenerator(
+                    streams.getGeneratorSeed(RandomStreams.Purpose.MINOR_DEFECT_EFFORT));
+            majorDefectEffortDistribution.reseedRandomGenerator(
+                    streams.getGeneratorSeed(RandomStreams.Purpose.MAJOR_DEFECT_EFFORT));
+            newFeaturePriorityDistribution.reseedRandomGenerator(
+                    streams.getGeneratorSeed(RandomStreams.Purpose.NEW_FEATURE_PRIORITY));
+            minorDefectPriorityDistribution.reseedRandomGenerator(
+                    streams.getGeneratorSeed(RandomStreams.Purpose.MINOR_DEFECT_PRIORITY));
+            majorDefectPriorityDistribution.reseedRandomGenerator(
+                    streams.getGeneratorSeed(RandomStreams.Purpose.MAJOR_DEFECT_PRIORITY));
+            typeDefectDistribution.reseedRandomGenerator(streams.getGeneratorSeed(RandomStreams.Purpose.DEFECT_TYPE));
+            defectInjectionDistribution.reseedRandomGenerator(
+                    streams.getGeneratorSeed(RandomStreams.Purpose.DEFECT_INJECTION));
+        } else {
+            reseedDistributions(seed);
+        }
 
-            defectInjectionDistribution.reseedRandomGenerator(Constants.SEED + 8);
+        if (triangularBuffers != null) {
+            for (TriangularSampleBuffer buffer : triangularBuffers) {
+                if (buffer != null) {
+                    buffer.clear();
+                }
+            }
+            newFeaturePriorityBuffer.clear();
+            minorDefectPriorityBuffer.clear();
+            majorDefectPriorityBuffer.clear();
+            typeDefectBuffer.clear();
         }
+
+        return true;
+    }
+
+    /**
+     * Seeds the distributions with consecutive seeds
+     *
+     * @param seed seed of the first distribution, -1 to leave them unseeded
+     */
+    private void reseedDistributions(long seed) {
+        if (seed != -1) {
+            taskSizeDistribution.reseedRandomGenerator(seed);
+
+            newFeatureEffortDistribution.reseedRandomGenerator(seed + 1);
+            minorDefectEffortDistribution.reseedRandomGenerator(seed + 2);
+            majorDefectEffortDistribution.reseedRandomGenerator(seed + 3);
+
+            newFeaturePriorityDistribution.reseedRandomGenerator(seed + 4);
+            minorDefectPriorityDistribution.reseedRandomGenerator(seed + 5);
+            majorDefectPriorityDistribution.reseedRandomGenerator(seed + 6);
+
+            typeDefectDistribution.reseedRandomGenerator(seed + 7);
+
+            defectInjectionDistribution.reseedRandomGenerator(seed + 8);
+        }
+    }
+
+    /**
+     * Creates a triangular distribution, sampled from the generator of its purpose
+     *
+     * @param generators generators of the distributions, by purpose
+     * @param purpose    purpose of the distribution
+     * @param a          lower limit
+     * @param c          mode
+     * @param b          upper limit
+     * @return the distribution
+     */
+    private static TriangularDistribution createTriangularDistribution(RandomGenerator[] generators,
+                                                                       RandomStreams.Purpose purpose,
+                                                                       double a, double c, double b) {
+        return new TriangularDistribution(generators[purpose.ordinal()], a, c, b);
+    }
+
+    /**
+     * Creates an enumerated distribution, sampled from the generator of its purpose
+     *
+     * @param generators generators of the distributions, by purpose
+     * @param purpose    purpose of the distribution
+     * @param pmf        probability mass function
+     * @return the distribution
+     */
+    private static <T> EnumeratedDistribution<T> createEnumeratedDistribution(RandomGenerator[] generators,
+                                                                              RandomStreams.Purpose purpose,
+                                                                              List<Pair<T, Double>> pmf) {
+        return new EnumeratedDistribution<>(generators[purpose.ordinal()], pmf);
     }
 
     /**
@@ -72,19 +319,147 @@ public class TaskCreator {
      * @return
      */
     public Task createTask(Task.TaskType taskType) {
+        return createTask(taskType, nextTaskId++);
+    }
+
+    /**
+     * Creates the new features of a project until their effort reaches the target effort
+     * With counter based random numbers and {@link Constants#PARALLEL_PROJECT_GENERATION} the features are created
+     * in parallel chunks; the features created beyond the target are discarded, so the features are the same as
+     * when created one at a time
+     *
+     * @param initialEffort effort of the project backlog before the features are added
+     * @param targetEffort  effort the project backlog must reach
+     * @return the new features, in creation order
+     */
+    public List<Task> createProjectTasks(double initialEffort, double targetEffort) {
+        List<Task> tasks = new ArrayList<>();
+        createProjectTasks(initialEffort, targetEffort, tasks::addAll);
+        return tasks;
+    }
+
+    /**
+     * Creates the new features of a project until their effort reaches the target effort, handing them over in
+     * batches, so the features of a large project do not have to be held at once
+     * The features are the same as the ones returned by {@link #createProjectTasks(double, double)}
+     *
+     * @param initialEffort effort of the project backlog before the features are added
+     * @param targetEffort  effort the project backlog must reach
+     * @param consumer      receives every batch of new features, in creation order
+     */
+    public void createProjectTasks(double initialEffort, double targetEffort, Consumer<List<Task>> consumer) {
+        double effort = initialEffort;
+
+        if (counterRandom == null || !Constants.PARALLEL_PROJECT_GENERATION) {
+            List<Task> batch = new ArrayList<>(PROJECT_CHUNK_SIZE);
+            while (effort < targetEffort) {
+                Task task = createTask(Task.TaskType.NEW_FEATURE);
+                batch.add(task);
+                effort += task.getEffort();
+
+                if (batch.size() == PROJECT_CHUNK_SIZE) {
+                    consumer.accept(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+            return;
+        }
+
+        int numberOfChunks = ForkJoinPool.getCommonPoolParallelism();
+        Task[] round = new Task[numberOfChunks * PROJECT_CHUNK_SIZE];
+
+        while (effort < targetEffort) {
+            // the tasks beyond the target are returned to the pool
+            for (int i = 0; i < round.length; i++) {
+                round[i] = obtainTask();
+            }
+
+            int firstTaskId = nextTaskId;
+            IntStream.range(0, numberOfChunks).parallel().forEach(chunk -> {
+                for (int i = chunk * PROJECT_CHUNK_SIZE; i < (chunk + 1) * PROJECT_CHUNK_SIZE; i++) {
+                    initializeTask(round[i], Task.TaskType.NEW_FEATURE, firstTaskId + i);
+                }
+            });
+
+            int acceptedTasks = 0;
+            while (acceptedTasks < round.length && effort < targetEffort) {
+                effort += round[acceptedTasks].getEffort();
+                acceptedTasks++;
+            }
+            nextTaskId += acceptedTasks;
+            for (int i = acceptedTasks; i < round.length; i++) {
+                releaseTask(round[i]);
+            }
+            consumer.accept(Arrays.asList(round).subList(0, acceptedTasks));
+        }
+    }
+
+    /**
+     * Creates a new task according to the task type
+     *
+     * @param taskType type of the task
+     * @param taskId   identifier of the task
+     * @return the new task
+     */
+    private Task createTask(Task.TaskType taskType, int taskId) {
+        Task task = obtainTask();
+        initializeTask(task, taskType, taskId);
+        return task;
+    }
+
+    /**
+     * Get a task from the pool, allocating it if every pooled task is in use
+     *
+     * @return a task to be initialized
+     */
+    Task obtainTask() {
+        if (!releasedTasks.isEmpty()) {
+            return releasedTasks.pop();
+        }
+        if (tasksInUse == taskPool.size()) {
+            taskPool.add(new Task(0, Task.TaskType.NEW_FEATURE, 0f, 0f, 0));
+        }
+        return taskPool.get(tasksInUse++);
+    }
+
+    /**
+     * Returns a task to the pool, so it is reused by the following created tasks
+     * The task must not be referenced by the simulation anymore
+     *
+     * @param task the released task
+     */
+    public void releaseTask(Task task) {
+        releasedTasks.push(task);
+    }
+
+    /**
+     * Initializes a task according to the task type
+     * Thread safe with counter based random numbers
+     *
+     * @param task     the task to be initialized
+     * @param taskType type of the task
+     * @param taskId   identifier of the task
+     */
+    private void initializeTask(Task task, Task.TaskType taskType, int taskId) {
         int curTaskSize = 0;
         float curEffort = 0f;
 
         switch (taskType) {
             case NEW_FEATURE:
-                curTaskSize = getTaskSize(taskSizeDistribution);
-                curEffort = getTaskEffort(newFeatureEffortDistribution);
+                curTaskSize = getTaskSize(taskSizeDistribution, taskId);
+                curEffort = getTaskEffort(newFeatureEffortDistribution,
+                        RandomStreams.Purpose.NEW_FEATURE_EFFORT, taskId);
                 break;
             case MAJOR_DEFECT:
-                curEffort = getTaskEffort(majorDefectEffortDistribution);
+                curEffort = getTaskEffort(majorDefectEffortDistribution,
+                        RandomStreams.Purpose.MAJOR_DEFECT_EFFORT, taskId);
                 break;
             case MINOR_DEFECT:
-                curEffort = getTaskEffort(minorDefectEffortDistribution);
+                curEffort = getTaskEffort(minorDefectEffortDistribution,
+                        RandomStreams.Purpose.MINOR_DEFECT_EFFORT, taskId);
                 break;
         }
 
@@ -99,36 +474,55 @@ public class TaskCreator {
             testingEffort *= Constants.NONTDD_TESTING_EFFORT;
         }
 
-        return new Task(taskType, codingEffort, testingEffort, curTaskSize);
+        task.reset(taskId, taskType, codingEffort, testingEffort, curTaskSize);
     }
 
     /**
      * Update the priority of the provided queue of tasks
      *
      * @param backlog
-     * @return the updated queue
      */
-    public PriorityQueue updatePriorityOfTasks(Queue<Task> backlog) {
+    public void updatePriorityOfTasks(Queue<Task> backlog) {
+        int round = nextPriorityRound();
 
         // set the priority for the tasks
         for (Task task : backlog) {
-            if (task.getStatus() == Task.TaskStatus.TO_DO) {
-                switch (task.getType()) {
-                    case NEW_FEATURE:
-                        task.setPriority(getTaskPriority(newFeaturePriorityDistribution));
-                        break;
-                    case MINOR_DEFECT:
-                        task.setPriority(getTaskPriority(minorDefectPriorityDistribution));
-                        break;
-                    case MAJOR_DEFECT:
-                        task.setPriority(getTaskPriority(majorDefectPriorityDistribution));
-                        break;
-                }
-            }
+            updatePriorityOfTask(task, round);
         }
+    }
+
+    /**
+     * Starts a new update of the priorities
+     *
+     * @return the round of the update, identifying it for counter based random numbers
+     */
+    int nextPriorityRound() {
+        return priorityRound++;
+    }
 
-        // reorder priority queue based on the new assigned priorities
-        return new PriorityQueue<>(backlog);
+    /**
+     * Update the priority of the provided task, if it is still to be done
+     *
+     * @param task  the task to update
+     * @param round the round of the current update of the priorities
+     */
+    void updatePriorityOfTask(Task task, int round) {
+        if (task.getStatus() == Task.TaskStatus.TO_DO) {
+            switch (task.getType()) {
+                case NEW_FEATURE:
+                    task.setPriority(getTaskPriority(newFeaturePriorityDistribution, newFeaturePriorityBuffer,
+                            RandomStreams.Purpose.NEW_FEATURE_PRIORITY, task.getId(), round));
+                    break;
+                case MINOR_DEFECT:
+                    task.setPriority(getTaskPriority(minorDefectPriorityDistribution, minorDefectPriorityBuffer,
+                            RandomStreams.Purpose.MINOR_DEFECT_PRIORITY, task.getId(), round));
+                    break;
+                case MAJOR_DEFECT:
+                    task.setPriority(getTaskPriority(majorDefectPriorityDistribution, majorDefectPriorityBuffer,
+                            RandomStreams.Purpose.MAJOR_DEFECT_PRIORITY, task.getId(), round));
+                    break;
+            }
+        }
     }
 
     /**
@@ -141,7 +535,7 @@ public class TaskCreator {
         float numberOfDefects;
         // only features can produce defects
         if (testedTask.getType() == Task.TaskType.NEW_FEATURE) {
-            numberOfDefects = (testedTask.getSize() * getInjectedDefects()) / 1000f;
+            numberOfDefects = (testedTask.getSize() * getInjectedDefects(testedTask.getId())) / 1000f;
             // update number of detected defects according to developer skill level
             numberOfDefects *= testedTask.getDeveloper().getDefectInjectionRate();
         } else {
@@ -162,48 +556,126 @@ public class TaskCreator {
      * Get the task size based on the provided triangular distribution
      *
      * @param distribution
+     * @param taskId       identifier of the task
      * @return the task size based on the provided triangular distribution
      */
-    private int getTaskSize(TriangularDistribution distribution) {
-        return Math.toIntExact(Math.round(distribution.sample()));
+    private int getTaskSize(TriangularDistribution distribution, int taskId) {
+        return Math.toIntExact((long) sampleRounded(distribution, RandomStreams.Purpose.TASK_SIZE, taskId, UNITS));
     }
 
     /**
      * Get the task effort based on the provided triangular distribution
      *
      * @param distribution
+     * @param purpose      purpose of the distribution
+     * @param taskId       identifier of the task
      * @return the task effort based on the provided triangular distribution
      */
-    private float getTaskEffort(TriangularDistribution distribution) {
-        return (float) (Math.round(distribution.sample() * 100.0) / 100.0);
+    private float getTaskEffort(TriangularDistribution distribution, RandomStreams.Purpose purpose, int taskId) {
+        return (float) sampleRounded(distribution, purpose, taskId, HUNDREDTHS);
     }
 
     /**
      * Get the task priority based on the provided triangular distribution
      *
      * @param distribution
+     * @param buffer       buffer of the samples of the distribution, null to sample it one at a time
+     * @param purpose      purpose of the distribution
+     * @param taskId       identifier of the task
+     * @param round        number of the priority update
      * @return the task priority based on the provided triangular distribution
      */
-    private int getTaskPriority(EnumeratedDistribution distribution) {
-        return (int) distribution.sample();
+    private int getTaskPriority(EnumeratedDistribution<Integer> distribution, EnumeratedSampleBuffer<Integer> buffer,
+                                RandomStreams.Purpose purpose, int taskId, int round) {
+        return sample(distribution, buffer, purpose, taskId, round);
     }
 
     /**
      * Get the defect type based on the defect injection distribution
+     * With counter based random numbers the type depends on the identifier of the defect to be created
      *
      * @return the defect type
      */
     public Task.TaskType getDefectType() {
-        return (Task.TaskType) typeDefectDistribution.sample();
+        return sample(typeDefectDistribution, typeDefectBuffer, RandomStreams.Purpose.DEFECT_TYPE, nextTaskId, 0);
     }
 
     /**
      * Get the number of injected defects based on the defect injection distribution
      *
+     * @param taskId identifier of the tested task
      * @return the number of injected defects
      */
-    private int getInjectedDefects() {
-        return Math.toIntExact(Math.round(defectInjectionDistribution.sample()));
+    private int getInjectedDefects(int taskId) {
+        return Math.toIntExact((long) sampleRounded(defectInjectionDistribution,
+                RandomStreams.Purpose.DEFECT_INJECTION, taskId, UNITS));
+    }
+
+    /**
+     * Samples a triangular distribution and rounds the sample
+     *
+     * @param distribution the distribution
+     * @param purpose      purpose of the distribution
+     * @param taskId       identifier of the task
+     * @param scale        the sample is rounded to a multiple of 1 / scale
+     * @return the rounded sample
+     */
+    private double sampleRounded(TriangularDistribution distribution, RandomStreams.Purpose purpose, int taskId,
+                                 double scale) {
+        if (triangularBuffers != null) {
+            return triangularBuffers[purpose.ordinal()].next();
+        }
+        return Math.round(sample(distribution, purpose, taskId, 0) * scale) / scale;
+    }
+
+    /**
+     * Samples a triangular distribution
+     * With counter based random numbers the sample is the inverse of the value of (task, purpose, round)
+     *
+     * @param distribution the distribution
+     * @param purpose      purpose of the distribution
+     * @param taskId       identifier of the task
+     * @param round        number of the sample of the task for the purpose
+     * @return the sample
+     */
+    private double sample(TriangularDistribution distribution, RandomStreams.Purpose purpose, int taskId, int round) {
+        if (counterRandom == null) {
+            return distribution.sample();
+        }
+        return distribution.inverseCumulativeProbability(counterRandom.nextDouble(taskId, purpose.ordinal(), round));
+    }
+
+    /**
+     * Samples an enumerated distribution
+     * With counter based random numbers the sample is the inverse of the value of (task, purpose, round)
+     *
+     * @param distribution the distribution
+     * @param buffer       buffer of the samples of the distribution, null to sample it one at a time
+     * @param purpose      purpose of the distribution
+     * @param taskId       identifier of the task
+     * @param round        number of the sample of the task for the purpose
+     * @return the sample
+     */
+    private <T> T sample(EnumeratedDistribution<T> distribution, EnumeratedSampleBuffer<T> buffer,
+                         RandomStreams.Purpose purpose, int taskId, int round) {
+        if (buffer != null) {
+            return buffer.next();
+        }
+        if (counterRandom == null) {
+            return distribution.sample();
+        }
+
+        double value = counterRandom.nextDouble(taskId, purpose.ordinal(), round);
+        List<Pair<T, Double>> pmf = distribution.getPmf();
+
+        double cumulativeProbability = 0;
+        for (Pair<T, Double> entry : pmf) {
+            cumulativeProbability += entry.getValue();
+            if (value < cumulativeProbability) {
+                return entry.getKey();
+            }
+        }
+        return pmf.get(pmf.size() - 1).getKey();
     }
 
 }
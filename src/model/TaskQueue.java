@@ -0,0 +1,181 @@
+package model;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * Priority queue of tasks ordered by their sort key, a single primitive comparison per step
+ * The sort key of a task is read when the task is compared, as {@link java.util.PriorityQueue} calls
+ * {@link Task#compareTo(Object)}, and the queue follows the same sift and heapify steps, so the tasks are
+ * stored and removed in the same order
+ * A queue may be ordered by another key instead, such as the queue order of a {@link DispatchPolicy}
+ */
+public class TaskQueue extends AbstractQueue<Task> {
+
+    private Task[] tasks;
+    private int size;
+
+    /**
+     * Key that orders the tasks, null to order them by their sort key
+     */
+    private final ToLongFunction<Task> order;
+
+    /**
+     * Constructor
+     */
+    public TaskQueue() {
+        this(null);
+    }
+
+    /**
+     * Constructor of a queue ordered by another key than the sort key of the tasks
+     * The key of a task must not change while the task is in the queue, and should be unique
+     *
+     * @param order key that orders the tasks, lower keys first, or null to order them by their sort key
+     */
+    public TaskQueue(ToLongFunction<Task> order) {
+        this.tasks = new Task[16];
+        this.size = 0;
+        this.order = order;
+    }
+
+    /**
+     * Fills an empty queue with the given tasks, ordered with a single heapify instead of one insertion per task
+     *
+     * @param newTasks the tasks to add
+     */
+    public void fill(Collection<Task> newTasks) {
+        if (size != 0) {
+            throw new IllegalStateException("Only an empty queue can be filled");
+        }
+
+        if (tasks.length < newTasks.size()) {
+            tasks = new Task[newTasks.size()];
+        }
+        for (Task task : newTasks) {
+            tasks[size++] = task;
+        }
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, tasks[i]);
+        }
+    }
+
+    @Override
+    public boolean offer(Task task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        if (size == tasks.length) {
+            tasks = Arrays.copyOf(tasks, size + (size >> 1));
+        }
+        siftUp(size++, task);
+        return true;
+    }
+
+    @Override
+    public Task poll() {
+        if (size == 0) {
+            return null;
+        }
+
+        Task first = tasks[0];
+        int last = --size;
+        Task task = tasks[last];
+        tasks[last] = null;
+        if (last > 0) {
+            siftDown(0, task);
+        }
+        return first;
+    }
+
+    @Override
+    public Task peek() {
+        return size == 0 ? null : tasks[0];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(tasks, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Iterates the tasks in the order they are stored, not in priority order
+     *
+     * @return an iterator over the tasks
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<Task>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Task next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return tasks[next++];
+            }
+        };
+    }
+
+    /**
+     * Get the key that orders a task in the queue
+     */
+    private long keyOf(Task task) {
+        return (order == null) ? task.getSortKey() : order.applyAsLong(task);
+    }
+
+    /**
+     * Moves a task up the queue until its parent precedes it
+     */
+    private void siftUp(int k, Task task) {
+        long key = keyOf(task);
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            Task parentTask = tasks[parent];
+            if (key >= keyOf(parentTask)) {
+                break;
+            }
+            tasks[k] = parentTask;
+            k = parent;
+        }
+        tasks[k] = task;
+    }
+
+    /**
+     * Moves a task down the queue until it precedes its children
+     */
+    private void siftDown(int k, Task task) {
+        long key = keyOf(task);
+        int half = size >>> 1;
+        while (k < half) {
+            int child = (k << 1) + 1;
+            Task childTask = tasks[child];
+            int right = child + 1;
+            if (right < size && keyOf(childTask) > keyOf(tasks[right])) {
+                childTask = tasks[child = right];
+            }
+            if (key <= keyOf(childTask)) {
+                break;
+            }
+            tasks[k] = childTask;
+            k = child;
+        }
+        tasks[k] = task;
+    }
+}
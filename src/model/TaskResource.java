@@ -0,0 +1,145 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Developers or testers of a team, as the simulator uses them: the tasks wait in the queue of the resource until a
+ * developer takes them, and the resource keeps the statistics of the delays and of the usage of the developers
+ * A team has its own resources, or a share of the testers of a portfolio, see {@link SharedResource}
+ */
+public interface TaskResource extends ResourceStatistics {
+
+    /**
+     * Resets the queue and statistics of the resource and frees the team, for a new simulation
+     */
+    void reset();
+
+    /**
+     * Adds a new task to the task queue
+     *
+     * @param task task to be added
+     */
+    void addTaskToQueue(Task task);
+
+    /**
+     * Returns true if the task queue of the current resource is empty
+     *
+     * @return true if the task queue of the current resource is empty
+     */
+    boolean isTaskQueueEmpty();
+
+    /**
+     * Gets next task on the waiting list
+     *
+     * @return next task
+     */
+    Task getNextTask();
+
+    /**
+     * Get the available developer chosen to take a task
+     * If no developers are available null is returned
+     *
+     * @param task the task to be taken
+     * @return available developer
+     */
+    Developer getFreeDeveloper(Task task);
+
+    /**
+     * Occupies free developers for a list of tasks, the same ones as successive calls to
+     * {@link #getFreeDeveloper(Task)}, until every task has a developer or every developer is busy
+     *
+     * @param tasks          the tasks to be taken, in order
+     * @param freeDevelopers receives the occupied developers, in the order of the tasks
+     * @return the number of occupied developers, the number of tasks that have a developer
+     */
+    default int getFreeDevelopers(List<Task> tasks, Developer[] freeDevelopers) {
+        int found = 0;
+        while (found < tasks.size()) {
+            Developer developer = getFreeDeveloper(tasks.get(found));
+            if (developer == null) {
+                break;
+            }
+            freeDevelopers[found++] = developer;
+        }
+        return found;
+    }
+
+    /**
+     * Frees the developer of a task at the end of its development or testing session
+     *
+     * @param task the task whose session ends
+     */
+    void releaseDeveloper(Task task);
+
+    /**
+     * Interrupts a task in development or testing by a developer of the resource
+     * The developer is freed and the task returns to the task queue with the effort it still needs
+     * The event that ends the session must have been removed from the events queue
+     *
+     * @param task          the interrupted task
+     * @param simTime       current simulation time
+     * @param remainingTime time the developer still needed to finish the session, in hours
+     */
+    default void preemptTask(Task task, double simTime, double remainingTime) {
+        releaseDeveloper(task);
+        task.preempt(remainingTime);
+        task.updateArrivalTime(simTime);
+        addTaskToQueue(task);
+    }
+
+    /**
+     * Returns true if at least one developer is free
+     *
+     * @return true if at least one developer is free
+     */
+    boolean hasFreeDeveloper();
+
+    /**
+     * Get the number of developers of the resource
+     *
+     * @return the number of developers
+     */
+    int getNumberOfDevelopers();
+
+    /**
+     * Occupies the entire team at once
+     * This is used for activities that use the entire team at one
+     * (such as planning activities)
+     */
+    void occupyTeam();
+
+    /**
+     * Frees the entire team at once
+     * This is used for activities that use the entire team at one
+     * (such as planning activities)
+     */
+    void freeTeam();
+
+    /**
+     * Returns true if the entire team is free
+     *
+     * @return true if the entire team is free
+     */
+    boolean isTeamFree();
+
+    /**
+     * Adds the delay of a task that waited for a developer
+     *
+     * @param delay the time the task waited
+     */
+    void addDelay(double delay);
+
+    /**
+     * Updates the task waiting area according to the time since last event
+     *
+     * @param timeLastEvent time since last event
+     */
+    void updateTaskWaitingArea(double timeLastEvent);
+
+    /**
+     * Updates the resource usage area according to the time since last event
+     *
+     * @param timeLastEvent time since last event
+     */
+    void updateUsageArea(double timeLastEvent);
+}
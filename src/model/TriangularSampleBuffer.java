@@ -0,0 +1,82 @@
+package model;
+
+import org.apache.commons.math3.distribution.TriangularDistribution;
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Buffer of rounded samples of a triangular distribution, refilled in bulk into a preallocated array
+ * The samples are the inverse of the uniform values of the generator of the distribution, as drawn by
+ * {@link TriangularDistribution#sample()}; the distribution is only sampled through the buffer, so the samples
+ * follow the same sequence as when they are drawn one at a time; batches grow from a few samples, so distributions that are rarely sampled
+ * do not draw many samples that are never used
+ */
+class TriangularSampleBuffer {
+
+    private static final int INITIAL_BATCH_SIZE = 16;
+
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final TriangularDistribution distribution;
+
+    private final RandomGenerator generator;
+
+    /**
+     * The samples are rounded to a multiple of 1 / scale
+     */
+    private final double scale;
+
+    private final double[] samples;
+
+    /**
+     * Number of samples of the current batch
+     */
+    private int batchSize;
+
+    private int position;
+
+    /**
+     * Constructor
+     *
+     * @param distribution the distribution
+     * @param generator    the generator of the distribution
+     * @param scale        the samples are rounded to a multiple of 1 / scale
+     */
+    TriangularSampleBuffer(TriangularDistribution distribution, RandomGenerator generator, double scale) {
+        this.distribution = distribution;
+        this.generator = generator;
+        this.scale = scale;
+        this.samples = new double[MAX_BATCH_SIZE];
+        this.batchSize = 0;
+        this.position = 0;
+    }
+
+    /**
+     * Discards the buffered samples, used when the distribution is reseeded
+     */
+    void clear() {
+        batchSize = 0;
+        position = 0;
+    }
+
+    /**
+     * Get the next rounded sample of the distribution
+     *
+     * @return the next rounded sample of the distribution
+     */
+    double next() {
+        if (position == batchSize) {
+            refill();
+        }
+        return samples[position++];
+    }
+
+    private void refill() {
+        batchSize = Math.min(Math.max(batchSize * 2, INITIAL_BATCH_SIZE), MAX_BATCH_SIZE);
+
+        for (int i = 0; i < batchSize; i++) {
+            double sample = distribution.inverseCumulativeProbability(generator.nextDouble());
+            samples[i] = Math.round(sample * scale) / scale;
+        }
+        position = 0;
+    }
+}
@@ -0,0 +1,28 @@
+package profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event emitted when the injected defects of the tested tasks
+ * are collected and turned into defect tasks at the end of a sprint
+ */
+@Name("eventsim.DefectHarvest")
+@Label("Defect Harvest")
+@Category({"Event Simulator", "Engine"})
+@Description("Conversion of the injected defects into defect tasks")
+@StackTrace(false)
+@Enabled(false)
+public class DefectHarvestEvent extends Event {
+
+    @Label("Injected Defects")
+    public int injectedDefects;
+
+    @Label("Done Backlog Size")
+    public int doneBacklogSize;
+
+    @Label("Release Backlog Size")
+    public int releaseBacklogSize;
+
+    @Label("Simulation Time")
+    public double simTime;
+}
@@ -0,0 +1,150 @@
+package profiling;
+
+import model.Event;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Attributes wall time and allocated bytes to the handlers of the simulation loop
+ * Each event type has its own slot, plus one slot for the statistics update that
+ * runs before every event
+ * The cost per measurement is constant (two clock reads and, when supported,
+ * two allocation counter reads), so the overhead grows linearly with the number of events
+ */
+public class HandlerProfiler {
+
+    /**
+     * Slot used for the statistics update routine
+     */
+    public static final int UPDATE_STATISTICS = Event.EventType.values().length;
+
+    private static final int NUMBER_OF_SLOTS = UPDATE_STATISTICS + 1;
+
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    private final long threadId;
+
+    private final long[] nanos;
+    private final long[] allocatedBytes;
+    private final long[] invocations;
+
+    private long startNanos;
+    private long startAllocatedBytes;
+
+    /**
+     * Constructor
+     * The profiler measures the allocations of the thread that creates it
+     */
+    public HandlerProfiler() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threadBean = (com.sun.management.ThreadMXBean) bean;
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            threadBean = null;
+        }
+
+        threadId = Thread.currentThread().getId();
+
+        nanos = new long[NUMBER_OF_SLOTS];
+        allocatedBytes = new long[NUMBER_OF_SLOTS];
+        invocations = new long[NUMBER_OF_SLOTS];
+    }
+
+    /**
+     * Starts the measurement of a handler
+     */
+    public void begin() {
+        startAllocatedBytes = readAllocatedBytes();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends the measurement of a handler and attributes it to the given slot
+     *
+     * @param slot the event type ordinal or {@link #UPDATE_STATISTICS}
+     */
+    public void end(int slot) {
+        long endNanos = System.nanoTime();
+        long endAllocatedBytes = readAllocatedBytes();
+
+        nanos[slot] += endNanos - startNanos;
+        allocatedBytes[slot] += endAllocatedBytes - startAllocatedBytes;
+        invocations[slot]++;
+    }
+
+    private long readAllocatedBytes() {
+        return (threadBean == null) ? 0 : threadBean.getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * Get the wall time spent on the given slot
+     *
+     * @param slot the event type ordinal or {@link #UPDATE_STATISTICS}
+     * @return the wall time in nanoseconds
+     */
+    public long getNanos(int slot) {
+        return nanos[slot];
+    }
+
+    /**
+     * Get the bytes allocated on the given slot
+     *
+     * @param slot the event type ordinal or {@link #UPDATE_STATISTICS}
+     * @return the allocated bytes, 0 if the JVM does not support allocation accounting
+     */
+    public long getAllocatedBytes(int slot) {
+        return allocatedBytes[slot];
+    }
+
+    /**
+     * Get the number of measurements of the given slot
+     *
+     * @param slot the event type ordinal or {@link #UPDATE_STATISTICS}
+     * @return the number of measurements
+     */
+    public long getInvocations(int slot) {
+        return invocations[slot];
+    }
+
+    private static String getSlotName(int slot) {
+        return (slot == UPDATE_STATISTICS) ? "UPDATE_STATISTICS" : Event.EventType.values()[slot].name();
+    }
+
+    /**
+     * Get the profile of the current replication
+     * For each slot: the number of measurements, the wall time in nanoseconds and the allocated bytes
+     *
+     * @return the profile in the order of {@link #getColumnNames()}
+     */
+    public long[] getValues() {
+        long[] values = new long[NUMBER_OF_SLOTS * 3];
+        for (int slot = 0; slot < NUMBER_OF_SLOTS; slot++) {
+            values[slot * 3] = invocations[slot];
+            values[slot * 3 + 1] = nanos[slot];
+            values[slot * 3 + 2] = allocatedBytes[slot];
+        }
+
+        return values;
+    }
+
+    /**
+     * Get the names of the profile values
+     *
+     * @return the names of the profile values
+     * @see #getValues()
+     */
+    public static String[] getColumnNames() {
+        String[] names = new String[NUMBER_OF_SLOTS * 3];
+        for (int slot = 0; slot < NUMBER_OF_SLOTS; slot++) {
+            String name = getSlotName(slot);
+            names[slot * 3] = "PROFILE_" + name + "_CALLS";
+            names[slot * 3 + 1] = "PROFILE_" + name + "_NANOS";
+            names[slot * 3 + 2] = "PROFILE_" + name + "_BYTES";
+        }
+
+        return names;
+    }
+}
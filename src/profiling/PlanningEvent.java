@@ -0,0 +1,43 @@
+package profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event emitted for each planning routine
+ * (project, release and sprint planning)
+ */
+@Name("eventsim.Planning")
+@Label("Planning")
+@Category({"Event Simulator", "Engine"})
+@Description("Creation of the project, release or sprint backlog")
+@StackTrace(false)
+@Enabled(false)
+public class PlanningEvent extends Event {
+
+    public static final String PROJECT = "PROJECT";
+    public static final String RELEASE = "RELEASE";
+    public static final String SPRINT = "SPRINT";
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Planning Number")
+    @Description("Number of the project, release or sprint being planned")
+    public int planningNumber;
+
+    @Label("Team Size")
+    public int teamSize;
+
+    @Label("Project Backlog Size")
+    public int projectBacklogSize;
+
+    @Label("Release Backlog Size")
+    public int releaseBacklogSize;
+
+    @Label("Sprint Backlog Size")
+    public int sprintBacklogSize;
+
+    @Label("Planned Effort")
+    @Description("Effort of the backlog created by the planning routine")
+    public double plannedEffort;
+}
@@ -0,0 +1,40 @@
+package profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event spanning a full replication, from the first event
+ * dispatched by the simulator until the end of the run
+ */
+@Name("eventsim.Replication")
+@Label("Replication")
+@Category({"Event Simulator", "Engine"})
+@Description("A single simulation run")
+@StackTrace(false)
+@Enabled(false)
+public class ReplicationEvent extends Event {
+
+    @Label("Senior Developers")
+    public int numberOfSeniorDevelopers;
+
+    @Label("Mid Level Developers")
+    public int numberOfMidLevelDevelopers;
+
+    @Label("Junior Developers")
+    public int numberOfJuniorDevelopers;
+
+    @Label("Testers")
+    public int numberOfTesters;
+
+    @Label("Use TDD")
+    public boolean useTdd;
+
+    @Label("Processed Events")
+    public int processedEvents;
+
+    @Label("End Of Simulation Time")
+    public double simTime;
+
+    @Label("Done Tasks")
+    public int doneTasks;
+}
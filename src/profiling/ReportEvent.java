@@ -0,0 +1,28 @@
+package profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event emitted when the report of a simulation is generated
+ */
+@Name("eventsim.Report")
+@Label("Report")
+@Category({"Event Simulator", "Reporting"})
+@Description("Generation of the simulation report")
+@StackTrace(false)
+@Enabled(false)
+public class ReportEvent extends Event {
+
+    public static final String FULL = "FULL";
+    public static final String SUMMARY = "SUMMARY";
+
+    @Label("Report Type")
+    public String reportType;
+
+    @Label("Report Length")
+    @Description("Number of characters of the generated report")
+    public int reportLength;
+
+    @Label("Done Backlog Size")
+    public int doneBacklogSize;
+}
@@ -0,0 +1,157 @@
+package results;
+
+import model.SimulationResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes simulation results as fixed width big endian records
+ * The file starts with the magic number, the format version and the record size,
+ * followed by one record per result with the layout:
+ * <pre>
+ * int     numberOfJuniorDevelopers, numberOfMidLevelDevelopers, numberOfSeniorDevelopers, numberOfTesters
+ * byte    useTdd
+ * long    seed
+ * double  developers delays, usage rate, waiting time average, waiting average
+ * double  testers delays, usage rate, waiting time average, waiting average
+ * int     numberOfLocs
+ * float   numberOfDefectsPerKLoc
+ * int     numberOfNewFeatures, numberOfMajorDefects, numberOfMinorDefects
+ * int     project, release and sprint backlogs: size, new features, major defects, minor defects
+ * int     doneBacklogSize
+ * double  simTime
+ * </pre>
+ * The profile of the event handlers is not written
+ */
+public class BinaryResultSerializer implements ResultSerializer {
+
+    public static final int MAGIC = 0x45535231;
+
+    public static final int VERSION = 1;
+
+    public static final int RECORD_SIZE = 4 * Integer.BYTES + 1 + Long.BYTES
+            + 8 * Double.BYTES
+            + Integer.BYTES + Float.BYTES + 3 * Integer.BYTES
+            + 13 * Integer.BYTES
+            + Double.BYTES;
+
+    @Override
+    public String getFileExtension() {
+        return ".bin";
+    }
+
+    @Override
+    public void writeHeader(OutputStream out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Integer.BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(RECORD_SIZE);
+        out.write(buffer.array());
+    }
+
+    @Override
+    public void write(SimulationResult result, OutputStream out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+
+        buffer.putInt(result.getNumberOfJuniorDevelopers());
+        buffer.putInt(result.getNumberOfMidLevelDevelopers());
+        buffer.putInt(result.getNumberOfSeniorDevelopers());
+        buffer.putInt(result.getNumberOfTesters());
+        buffer.put((byte) (result.isUseTdd() ? 1 : 0));
+        buffer.putLong(result.getSeed());
+
+        buffer.putDouble(result.getDevelopersDelays());
+        buffer.putDouble(result.getDevelopersUsageRate());
+        buffer.putDouble(result.getDevelopersWaitingTimeAverage());
+        buffer.putDouble(result.getDevelopersWaitingAverage());
+
+        buffer.putDouble(result.getTestersDelays());
+        buffer.putDouble(result.getTestersUsageRate());
+        buffer.putDouble(result.getTestersWaitingTimeAverage());
+        buffer.putDouble(result.getTestersWaitingAverage());
+
+        buffer.putInt(result.getNumberOfLocs());
+        buffer.putFloat(result.getNumberOfDefectsPerKLoc());
+        buffer.putInt(result.getNumberOfNewFeatures());
+        buffer.putInt(result.getNumberOfMajorDefects());
+        buffer.putInt(result.getNumberOfMinorDefects());
+
+        buffer.putInt(result.getProjectBacklogSize());
+        buffer.putInt(result.getProjectBacklogNewFeatures());
+        buffer.putInt(result.getProjectBacklogMajorDefects());
+        buffer.putInt(result.getProjectBacklogMinorDefects());
+
+        buffer.putInt(result.getReleaseBacklogSize());
+        buffer.putInt(result.getReleaseBacklogNewFeatures());
+        buffer.putInt(result.getReleaseBacklogMajorDefects());
+        buffer.putInt(result.getReleaseBacklogMinorDefects());
+
+        buffer.putInt(result.getSprintBacklogSize());
+        buffer.putInt(result.getSprintBacklogNewFeatures());
+        buffer.putInt(result.getSprintBacklogMajorDefects());
+        buffer.putInt(result.getSprintBacklogMinorDefects());
+
+        buffer.putInt(result.getDoneBacklogSize());
+
+        buffer.putDouble(result.getSimTime());
+
+        out.write(buffer.array());
+    }
+
+    /**
+     * Reads the next record from the buffer
+     *
+     * @param buffer buffer positioned at the beginning of a record
+     * @return the simulation result stored in the record
+     */
+    public SimulationResult read(ByteBuffer buffer) {
+        return read(buffer, null);
+    }
+
+    /**
+     * Reads the next record from the buffer, with the profile of the event handlers stored apart
+     *
+     * @param buffer  buffer positioned at the beginning of a record
+     * @param profile profile of the event handlers of the result, null if it was not profiled
+     * @return the simulation result stored in the record
+     */
+    public SimulationResult read(ByteBuffer buffer, long[] profile) {
+        int juniors = buffer.getInt();
+        int mid = buffer.getInt();
+        int seniors = buffer.getInt();
+        int testers = buffer.getInt();
+        boolean useTdd = buffer.get() != 0;
+        long seed = buffer.getLong();
+
+        double developersDelays = buffer.getDouble();
+        double developersUsageRate = buffer.getDouble();
+        double developersWaitingTimeAverage = buffer.getDouble();
+        double developersWaitingAverage = buffer.getDouble();
+
+        double testersDelays = buffer.getDouble();
+        double testersUsageRate = buffer.getDouble();
+        double testersWaitingTimeAverage = buffer.getDouble();
+        double testersWaitingAverage = buffer.getDouble();
+
+        int numberOfLocs = buffer.getInt();
+        float numberOfDefectsPerKLoc = buffer.getFloat();
+        int numberOfNewFeatures = buffer.getInt();
+        int numberOfMajorDefects = buffer.getInt();
+        int numberOfMinorDefects = buffer.getInt();
+
+        int[] backlogCounts = new int[SimulationResult.NUMBER_OF_BACKLOG_COUNTS];
+        for (int i = 0; i < backlogCounts.length; i++) {
+            backlogCounts[i] = buffer.getInt();
+        }
+
+        double simTime = buffer.getDouble();
+
+        return new SimulationResult(useTdd, seed, seniors, mid, juniors, testers,
+                developersDelays, developersUsageRate, developersWaitingTimeAverage, developersWaitingAverage,
+                testersDelays, testersUsageRate, testersWaitingTimeAverage, testersWaitingAverage,
+                numberOfLocs, numberOfDefectsPerKLoc, numberOfNewFeatures, numberOfMajorDefects, numberOfMinorDefects,
+                backlogCounts, simTime, profile);
+    }
+}
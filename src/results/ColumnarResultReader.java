@@ -0,0 +1,272 @@
+package results;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads simulation results written in the columnar format
+ * Column groups are memory mapped when first accessed, so a scan only reads the groups of the
+ * columns it uses
+ * Compressed groups are inflated to a temporary file before being mapped
+ *
+ * @see ColumnarResultWriter
+ */
+public class ColumnarResultReader implements Closeable {
+
+    /**
+     * Tests whether a row should be visited by a scan
+     */
+    public interface RowFilter {
+        boolean accept(ColumnarResultReader reader, long row);
+    }
+
+    /**
+     * Visits the rows accepted by a scan
+     */
+    public interface RowVisitor {
+        void visit(ColumnarResultReader reader, long row);
+    }
+
+    /**
+     * Maximum number of bytes of a mapped segment
+     * Segments hold a whole number of rows, so rows never cross segments
+     */
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+    private final Path directory;
+
+    private final long numberOfRows;
+
+    private final boolean compressed;
+
+    private final long[] rowsPerSegment;
+
+    /**
+     * Mapped segments of each group, null until the group is first accessed
+     */
+    private final MappedByteBuffer[][] segments;
+
+    /**
+     * Inflated copies of the compressed groups, deleted when the reader is closed
+     */
+    private final Path[] inflatedFiles;
+
+    private ColumnarResultReader(Path directory, long numberOfRows, boolean compressed) {
+        int numberOfGroups = ResultColumn.Group.values().length;
+
+        this.directory = directory;
+        this.numberOfRows = numberOfRows;
+        this.compressed = compressed;
+        this.rowsPerSegment = new long[numberOfGroups];
+        this.segments = new MappedByteBuffer[numberOfGroups][];
+        this.inflatedFiles = new Path[numberOfGroups];
+
+        for (ResultColumn.Group group : ResultColumn.Group.values()) {
+            rowsPerSegment[group.ordinal()] = MAX_SEGMENT_SIZE / group.getWidth();
+        }
+    }
+
+    /**
+     * Opens the columnar results stored in the given directory
+     *
+     * @param directory the directory written by a {@link ColumnarResultWriter}
+     * @return the reader of the results
+     * @throws IOException if the metadata cannot be read or does not match the current format
+     */
+    public static ColumnarResultReader open(Path directory) throws IOException {
+        Properties metadata = new Properties();
+        try (InputStream in = Files.newInputStream(directory.resolve(ColumnarResultWriter.METADATA_FILE))) {
+            metadata.load(in);
+        }
+
+        if (Integer.parseInt(metadata.getProperty("version")) != ColumnarResultWriter.VERSION) {
+            throw new IOException("Unsupported columnar format version: " + metadata.getProperty("version"));
+        }
+        for (ResultColumn.Group group : ResultColumn.Group.values()) {
+            String width = metadata.getProperty("width." + group.getFileName());
+            if (width == null || Integer.parseInt(width) != group.getWidth()) {
+                throw new IOException("Unexpected width for column group " + group.getFileName() + ": " + width);
+            }
+        }
+
+        return new ColumnarResultReader(directory,
+                Long.parseLong(metadata.getProperty("rows")),
+                Boolean.parseBoolean(metadata.getProperty("compressed")));
+    }
+
+    /**
+     * Get the number of rows
+     *
+     * @return the number of rows
+     */
+    public long getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    /**
+     * Get the value of an integer or byte column
+     *
+     * @param column the column
+     * @param row    the row
+     * @return the value of the column on the given row
+     */
+    public int getInt(ResultColumn column, long row) {
+        switch (column.getType()) {
+            case BYTE:
+                return segment(column, row).get(position(column, row));
+            case INT:
+                return segment(column, row).getInt(position(column, row));
+            default:
+                throw new IllegalArgumentException("Column " + column + " is of type " + column.getType());
+        }
+    }
+
+    /**
+     * Get the value of an integral column
+     *
+     * @param column the column
+     * @param row    the row
+     * @return the value of the column on the given row
+     */
+    public long getLong(ResultColumn column, long row) {
+        if (column.getType() == ResultColumn.Type.LONG) {
+            return segment(column, row).getLong(position(column, row));
+        }
+        return getInt(column, row);
+    }
+
+    /**
+     * Get the value of any column as a double
+     *
+     * @param column the column
+     * @param row    the row
+     * @return the value of the column on the given row
+     */
+    public double getDouble(ResultColumn column, long row) {
+        switch (column.getType()) {
+            case FLOAT:
+                return segment(column, row).getFloat(position(column, row));
+            case DOUBLE:
+                return segment(column, row).getDouble(position(column, row));
+            default:
+                return getLong(column, row);
+        }
+    }
+
+    /**
+     * Visits every row accepted by the filter, in row order
+     *
+     * @param filter  the filter of the rows, null to visit all rows
+     * @param visitor the visitor of the accepted rows
+     */
+    public void scan(RowFilter filter, RowVisitor visitor) {
+        for (long row = 0; row < numberOfRows; row++) {
+            if (filter == null || filter.accept(this, row)) {
+                visitor.visit(this, row);
+            }
+        }
+    }
+
+    /**
+     * Get the rows where the given column has the given value
+     * e.g. {@code findRows(ResultColumn.NUMBER_OF_TESTERS, 8)}
+     *
+     * @param column the column
+     * @param value  the value to be found
+     * @return the matching rows, in row order
+     */
+    public long[] findRows(ResultColumn column, double value) {
+        long[] rows = new long[16];
+        int size = 0;
+
+        for (long row = 0; row < numberOfRows; row++) {
+            if (getDouble(column, row) == value) {
+                if (size == rows.length) {
+                    rows = Arrays.copyOf(rows, size * 2);
+                }
+                rows[size++] = row;
+            }
+        }
+
+        return Arrays.copyOf(rows, size);
+    }
+
+    private int position(ResultColumn column, long row) {
+        ResultColumn.Group group = column.getGroup();
+        return (int) (row % rowsPerSegment[group.ordinal()]) * group.getWidth() + column.getOffset();
+    }
+
+    private MappedByteBuffer segment(ResultColumn column, long row) {
+        if (row < 0 || row >= numberOfRows) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + numberOfRows);
+        }
+
+        ResultColumn.Group group = column.getGroup();
+        MappedByteBuffer[] groupSegments = segments[group.ordinal()];
+        if (groupSegments == null) {
+            groupSegments = mapGroup(group);
+        }
+
+        return groupSegments[(int) (row / rowsPerSegment[group.ordinal()])];
+    }
+
+    private MappedByteBuffer[] mapGroup(ResultColumn.Group group) {
+        int index = group.ordinal();
+
+        try {
+            Path file = directory.resolve(group.getFileName() + ColumnarResultWriter.COLUMN_FILE_EXTENSION);
+            if (compressed) {
+                file = Files.createTempFile(group.getFileName(), ColumnarResultWriter.COLUMN_FILE_EXTENSION);
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(
+                        directory.resolve(group.getFileName() + ColumnarResultWriter.COMPRESSED_FILE_EXTENSION)))) {
+                    Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+                inflatedFiles[index] = file;
+            }
+
+            try (FileChannel channel = FileChannel.open(file)) {
+                long rowsPerGroupSegment = rowsPerSegment[index];
+                int numberOfSegments = (int) ((numberOfRows + rowsPerGroupSegment - 1) / rowsPerGroupSegment);
+
+                MappedByteBuffer[] groupSegments = new MappedByteBuffer[numberOfSegments];
+                for (int i = 0; i < numberOfSegments; i++) {
+                    long firstRow = i * rowsPerGroupSegment;
+                    long rows = Math.min(rowsPerGroupSegment, numberOfRows - firstRow);
+
+                    groupSegments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                            firstRow * group.getWidth(), rows * group.getWidth());
+                    groupSegments[i].order(ByteOrder.LITTLE_ENDIAN);
+                }
+
+                segments[index] = groupSegments;
+                return groupSegments;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot map column group " + group.getFileName(), e);
+        }
+    }
+
+    /**
+     * Deletes the inflated copies of the compressed groups
+     *
+     * @throws IOException if a temporary file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        for (Path file : inflatedFiles) {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package results;
+
+import model.SimulationResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes simulation results in the columnar format
+ * Every column group is stored in its own file of fixed width little endian rows, written through
+ * memory mapped segments of the file
+ * The number of rows is known in advance, so each result is written straight to its row and several
+ * threads can write different rows at the same time
+ *
+ * @see ColumnarResultReader
+ */
+public class ColumnarResultWriter implements Closeable {
+
+    static final String METADATA_FILE = "columns.properties";
+    static final String COLUMN_FILE_EXTENSION = ".col";
+    static final String COMPRESSED_FILE_EXTENSION = ".col.gz";
+
+    static final int VERSION = 1;
+
+    /**
+     * Maximum number of bytes of a mapped segment
+     */
+    private static final long SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private static final ResultColumn.Group[] GROUPS = ResultColumn.Group.values();
+
+    private static final ResultColumn[] COLUMNS = ResultColumn.values();
+
+    private final Path directory;
+
+    private final long numberOfRows;
+
+    private final boolean compress;
+
+    private final FileChannel[] channels;
+
+    /**
+     * Rows stored by each mapped segment of each group
+     */
+    private final long[] rowsPerSegment;
+
+    /**
+     * Mapped segments of each group, mapped when a row of the segment is first written
+     */
+    private final List<AtomicReferenceArray<MappedByteBuffer>> segments;
+
+    /**
+     * Constructor
+     *
+     * @param directory    directory where the column files are created
+     * @param numberOfRows number of rows to be written
+     * @param compress     true to compress the column files with GZIP when the writer is closed
+     * @throws IOException if the column files cannot be created
+     */
+    public ColumnarResultWriter(Path directory, long numberOfRows, boolean compress) throws IOException {
+        this.directory = directory;
+        this.numberOfRows = numberOfRows;
+        this.compress = compress;
+
+        Files.createDirectories(directory);
+
+        channels = new FileChannel[GROUPS.length];
+        rowsPerSegment = new long[GROUPS.length];
+        segments = new ArrayList<>(GROUPS.length);
+
+        for (ResultColumn.Group group : GROUPS) {
+            int index = group.ordinal();
+            channels[index] = FileChannel.open(directory.resolve(group.getFileName() + COLUMN_FILE_EXTENSION),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            rowsPerSegment[index] = SEGMENT_SIZE / group.getWidth();
+            segments.add(new AtomicReferenceArray<>(
+                    (int) ((numberOfRows + rowsPerSegment[index] - 1) / rowsPerSegment[index])));
+        }
+    }
+
+    /**
+     * Writes a simulation result to the given row
+     * Different rows can be written concurrently
+     *
+     * @param row    the row of the result
+     * @param result the simulation result
+     * @throws IOException if the segment of the row cannot be mapped
+     */
+    public void write(long row, SimulationResult result) throws IOException {
+        if (row < 0 || row >= numberOfRows) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + numberOfRows);
+        }
+
+        for (ResultColumn column : COLUMNS) {
+            ResultColumn.Group group = column.getGroup();
+            MappedByteBuffer segment = getSegment(group, row);
+            int position = (int) (row % rowsPerSegment[group.ordinal()]) * group.getWidth() + column.getOffset();
+
+            switch (column.getType()) {
+                case BYTE:
+                    segment.put(position, (byte) column.getLong(result));
+                    break;
+                case INT:
+                    segment.putInt(position, (int) column.getLong(result));
+                    break;
+                case LONG:
+                    segment.putLong(position, column.getLong(result));
+                    break;
+                case FLOAT:
+                    segment.putFloat(position, (float) column.getDouble(result));
+                    break;
+                case DOUBLE:
+                    segment.putDouble(position, column.getDouble(result));
+                    break;
+            }
+        }
+    }
+
+    private MappedByteBuffer getSegment(ResultColumn.Group group, long row) throws IOException {
+        int index = group.ordinal();
+        int segmentIndex = (int) (row / rowsPerSegment[index]);
+
+        MappedByteBuffer segment = segments.get(index).get(segmentIndex);
+        if (segment == null) {
+            long firstRow = segmentIndex * rowsPerSegment[index];
+            long rows = Math.min(rowsPerSegment[index], numberOfRows - firstRow);
+
+            MappedByteBuffer mapped = channels[index].map(FileChannel.MapMode.READ_WRITE,
+                    firstRow * group.getWidth(), rows * group.getWidth());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            // another thread may have mapped the same segment in the meantime
+            segments.get(index).compareAndSet(segmentIndex, null, mapped);
+            segment = segments.get(index).get(segmentIndex);
+        }
+
+        return segment;
+    }
+
+    /**
+     * Flushes the mapped segments, writes the metadata file and compresses the column files if requested
+     *
+     * @throws IOException if the files cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        for (ResultColumn.Group group : GROUPS) {
+            int index = group.ordinal();
+            for (int i = 0; i < segments.get(index).length(); i++) {
+                MappedByteBuffer segment = segments.get(index).get(i);
+                if (segment != null) {
+                    segment.force();
+                }
+            }
+
+            // segments that were never mapped are filled with zeros
+            long fileSize = numberOfRows * group.getWidth();
+            if (channels[index].size() < fileSize) {
+                channels[index].write(ByteBuffer.allocate(1), fileSize - 1);
+            }
+            channels[index].close();
+        }
+
+        if (compress) {
+            for (ResultColumn.Group group : GROUPS) {
+                Path columnFile = directory.resolve(group.getFileName() + COLUMN_FILE_EXTENSION);
+                Path compressedFile = directory.resolve(group.getFileName() + COMPRESSED_FILE_EXTENSION);
+
+                try (InputStream in = Files.newInputStream(columnFile);
+                     OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressedFile))) {
+                    byte[] buffer = new byte[1 << 16];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                }
+                Files.delete(columnFile);
+            }
+        }
+
+        Properties metadata = new Properties();
+        metadata.setProperty("version", String.valueOf(VERSION));
+        metadata.setProperty("rows", String.valueOf(numberOfRows));
+        metadata.setProperty("compressed", String.valueOf(compress));
+        for (ResultColumn.Group group : GROUPS) {
+            metadata.setProperty("width." + group.getFileName(), String.valueOf(group.getWidth()));
+        }
+
+        try (OutputStream out = Files.newOutputStream(directory.resolve(METADATA_FILE))) {
+            metadata.store(out, "Columnar simulation results");
+        }
+    }
+}
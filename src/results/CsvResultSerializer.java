@@ -0,0 +1,125 @@
+package results;
+
+import model.SimulationResult;
+import profiling.HandlerProfiler;
+import utils.Constants;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes simulation results as comma separated rows, one row per result
+ * The columns are the ones of {@link model.Simulator#getFullReport()},
+ * optionally followed by the profile of the event handlers
+ */
+public class CsvResultSerializer implements ResultSerializer {
+
+    private static final String COMMA = ",";
+    private static final String NEWLINE = "\n";
+
+    private final boolean includeProfile;
+
+    /**
+     * Constructor
+     * The profile columns are included when {@link Constants#ENABLE_PROFILING} is set
+     */
+    public CsvResultSerializer() {
+        this(Constants.ENABLE_PROFILING);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param includeProfile true to append the profile of the event handlers to each row
+     */
+    public CsvResultSerializer(boolean includeProfile) {
+        this.includeProfile = includeProfile;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".csv";
+    }
+
+    @Override
+    public void writeHeader(OutputStream out) throws IOException {
+        out.write(getHeader().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public void write(SimulationResult result, OutputStream out) throws IOException {
+        out.write(getRow(result).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Get the header of the csv
+     *
+     * @return the header of the csv
+     */
+    public String getHeader() {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append("NUMBER_OF_JUNIOR_DEVELOPERS").append(COMMA);
+        builder.append("NUMBER_OF_MID_LEVEL_DEVELOPERS").append(COMMA);
+        builder.append("NUMBER_OF_SENIOR_DEVELOPERS").append(COMMA);
+        builder.append("NUMBER_OF_TESTERS").append(COMMA);
+
+        for (String metric : SimulationResult.getMetricHeader()) {
+            builder.append(metric).append(COMMA);
+        }
+
+        builder.append("USE_TDD").append(COMMA);
+
+        if (includeProfile) {
+            for (String column : HandlerProfiler.getColumnNames()) {
+                builder.append(column).append(COMMA);
+            }
+        }
+
+        return builder.append(NEWLINE).toString();
+    }
+
+    /**
+     * Get the csv row of a simulation result
+     *
+     * @param result the simulation result
+     * @return the csv row of the simulation result
+     */
+    public String getRow(SimulationResult result) {
+        StringBuilder builder = new StringBuilder(256);
+
+        builder.append(result.getNumberOfJuniorDevelopers()).append(COMMA);
+        builder.append(result.getNumberOfMidLevelDevelopers()).append(COMMA);
+        builder.append(result.getNumberOfSeniorDevelopers()).append(COMMA);
+        builder.append(result.getNumberOfTesters()).append(COMMA);
+
+        builder.append(result.getDevelopersDelays()).append(COMMA);
+        builder.append(result.getDevelopersUsageRate()).append(COMMA);
+        builder.append(result.getDevelopersWaitingTimeAverage()).append(COMMA);
+        builder.append(result.getDevelopersWaitingAverage()).append(COMMA);
+
+        builder.append(result.getTestersDelays()).append(COMMA);
+        builder.append(result.getTestersUsageRate()).append(COMMA);
+        builder.append(result.getTestersWaitingTimeAverage()).append(COMMA);
+        builder.append(result.getTestersWaitingAverage()).append(COMMA);
+
+        builder.append(result.getNumberOfLocs()).append(COMMA);
+        builder.append(result.getNumberOfDefectsPerKLoc()).append(COMMA);
+        builder.append(result.getNumberOfNewFeatures()).append(COMMA);
+        builder.append(result.getNumberOfMajorDefects()).append(COMMA);
+        builder.append(result.getNumberOfMinorDefects()).append(COMMA);
+
+        builder.append(result.getSimTime()).append(COMMA);
+        builder.append(result.isUseTdd()).append(COMMA);
+
+        long[] profile = result.getProfile();
+        if (includeProfile && profile != null) {
+            for (long value : profile) {
+                builder.append(value).append(COMMA);
+            }
+        }
+
+        return builder.append(NEWLINE).toString();
+    }
+}
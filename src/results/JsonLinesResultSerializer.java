@@ -0,0 +1,131 @@
+package results;
+
+import model.SimulationResult;
+import profiling.HandlerProfiler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes simulation results as JSON lines, one object per result
+ * Non finite numbers are written as null
+ */
+public class JsonLinesResultSerializer implements ResultSerializer {
+
+    @Override
+    public String getFileExtension() {
+        return ".jsonl";
+    }
+
+    @Override
+    public void writeHeader(OutputStream out) {
+        // JSON lines do not have a header
+    }
+
+    @Override
+    public void write(SimulationResult result, OutputStream out) throws IOException {
+        out.write(getLine(result).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get the JSON line of a simulation result
+     *
+     * @param result the simulation result
+     * @return the JSON line of the simulation result
+     */
+    public String getLine(SimulationResult result) {
+        StringBuilder builder = new StringBuilder(1024);
+        builder.append('{');
+
+        appendField(builder, "numberOfJuniorDevelopers", result.getNumberOfJuniorDevelopers());
+        appendField(builder, "numberOfMidLevelDevelopers", result.getNumberOfMidLevelDevelopers());
+        appendField(builder, "numberOfSeniorDevelopers", result.getNumberOfSeniorDevelopers());
+        appendField(builder, "numberOfTesters", result.getNumberOfTesters());
+        builder.append("\"useTdd\":").append(result.isUseTdd()).append(',');
+        appendField(builder, "seed", result.getSeed());
+
+        appendField(builder, "developersDelays", result.getDevelopersDelays());
+        appendField(builder, "developersUsageRate", result.getDevelopersUsageRate());
+        appendField(builder, "developersWaitingTimeAverage", result.getDevelopersWaitingTimeAverage());
+        appendField(builder, "developersWaitingAverage", result.getDevelopersWaitingAverage());
+
+        appendField(builder, "testersDelays", result.getTestersDelays());
+        appendField(builder, "testersUsageRate", result.getTestersUsageRate());
+        appendField(builder, "testersWaitingTimeAverage", result.getTestersWaitingTimeAverage());
+        appendField(builder, "testersWaitingAverage", result.getTestersWaitingAverage());
+
+        appendField(builder, "numberOfLocs", result.getNumberOfLocs());
+        appendField(builder, "numberOfDefectsPerKLoc", result.getNumberOfDefectsPerKLoc());
+        appendField(builder, "numberOfNewFeatures", result.getNumberOfNewFeatures());
+        appendField(builder, "numberOfMajorDefects", result.getNumberOfMajorDefects());
+        appendField(builder, "numberOfMinorDefects", result.getNumberOfMinorDefects());
+
+        appendBacklog(builder, "projectBacklog", result.getProjectBacklogSize(),
+                result.getProjectBacklogNewFeatures(), result.getProjectBacklogMajorDefects(),
+                result.getProjectBacklogMinorDefects());
+        appendBacklog(builder, "releaseBacklog", result.getReleaseBacklogSize(),
+                result.getReleaseBacklogNewFeatures(), result.getReleaseBacklogMajorDefects(),
+                result.getReleaseBacklogMinorDefects());
+        appendBacklog(builder, "sprintBacklog", result.getSprintBacklogSize(),
+                result.getSprintBacklogNewFeatures(), result.getSprintBacklogMajorDefects(),
+                result.getSprintBacklogMinorDefects());
+        appendBacklog(builder, "doneBacklog", result.getDoneBacklogSize(),
+                result.getNumberOfNewFeatures(), result.getNumberOfMajorDefects(),
+                result.getNumberOfMinorDefects());
+
+        long[] profile = result.getProfile();
+        if (profile != null) {
+            String[] names = HandlerProfiler.getColumnNames();
+            builder.append("\"profile\":{");
+            for (int i = 0; i < profile.length; i++) {
+                appendField(builder, names[i], profile[i]);
+            }
+            builder.setCharAt(builder.length() - 1, '}');
+            builder.append(',');
+        }
+
+        builder.append("\"simTime\":");
+        appendNumber(builder, result.getSimTime());
+
+        return builder.append('}').append('\n').toString();
+    }
+
+    private static void appendBacklog(StringBuilder builder, String name, int size,
+                                      int newFeatures, int majorDefects, int minorDefects) {
+        builder.append('"').append(name).append("\":{");
+        appendField(builder, "size", size);
+        appendField(builder, "newFeatures", newFeatures);
+        appendField(builder, "majorDefects", majorDefects);
+        builder.append("\"minorDefects\":").append(minorDefects);
+        builder.append("},");
+    }
+
+    private static void appendField(StringBuilder builder, String name, long value) {
+        builder.append('"').append(name).append("\":").append(value).append(',');
+    }
+
+    private static void appendField(StringBuilder builder, String name, double value) {
+        builder.append('"').append(name).append("\":");
+        appendNumber(builder, value);
+        builder.append(',');
+    }
+
+    private static void appendField(StringBuilder builder, String name, float value) {
+        builder.append('"').append(name).append("\":");
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            builder.append("null");
+        } else {
+            builder.append(value);
+        }
+        builder.append(',');
+    }
+
+    private static void appendNumber(StringBuilder builder, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            builder.append("null");
+        } else {
+            builder.append(value);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package results;
+
+import model.SimulationResult;
+
+/**
+ * Columns of the columnar result format
+ * Columns are stored in groups, one file per group, and every column has a fixed width
+ * so the value of any row is found at {@code row * group width + column offset}
+ */
+public enum ResultColumn {
+
+    NUMBER_OF_JUNIOR_DEVELOPERS(Group.CONFIGURATION, Type.INT),
+    NUMBER_OF_MID_LEVEL_DEVELOPERS(Group.CONFIGURATION, Type.INT),
+    NUMBER_OF_SENIOR_DEVELOPERS(Group.CONFIGURATION, Type.INT),
+    NUMBER_OF_TESTERS(Group.CONFIGURATION, Type.INT),
+    USE_TDD(Group.CONFIGURATION, Type.BYTE),
+    SEED(Group.CONFIGURATION, Type.LONG),
+
+    DEVS_DELAYS(Group.DEVELOPERS, Type.DOUBLE),
+    DEVS_USAGE_RATE(Group.DEVELOPERS, Type.DOUBLE),
+    DEVS_WAITING_TIME_AVERAGE(Group.DEVELOPERS, Type.DOUBLE),
+    DEVS_WAITING_AVERAGE(Group.DEVELOPERS, Type.DOUBLE),
+
+    TESTERS_DELAYS(Group.TESTERS, Type.DOUBLE),
+    TESTERS_USAGE_RATE(Group.TESTERS, Type.DOUBLE),
+    TESTERS_WAITING_TIME_AVERAGE(Group.TESTERS, Type.DOUBLE),
+    TESTERS_WAITING_AVERAGE(Group.TESTERS, Type.DOUBLE),
+
+    NUMBER_OF_LOCS(Group.DONE_BACKLOG, Type.INT),
+    NUMBER_DEFECTS_KLOC(Group.DONE_BACKLOG, Type.FLOAT),
+    NUMBER_OF_NEW_FEATURES(Group.DONE_BACKLOG, Type.INT),
+    NUMBER_OF_MAJOR_DEFECTS(Group.DONE_BACKLOG, Type.INT),
+    NUMBER_OF_MINOR_DEFECTS(Group.DONE_BACKLOG, Type.INT),
+    DONE_BACKLOG_SIZE(Group.DONE_BACKLOG, Type.INT),
+
+    PROJECT_BACKLOG_SIZE(Group.BACKLOGS, Type.INT),
+    PROJECT_BACKLOG_NEW_FEATURES(Group.BACKLOGS, Type.INT),
+    PROJECT_BACKLOG_MAJOR_DEFECTS(Group.BACKLOGS, Type.INT),
+    PROJECT_BACKLOG_MINOR_DEFECTS(Group.BACKLOGS, Type.INT),
+    RELEASE_BACKLOG_SIZE(Group.BACKLOGS, Type.INT),
+    RELEASE_BACKLOG_NEW_FEATURES(Group.BACKLOGS, Type.INT),
+    RELEASE_BACKLOG_MAJOR_DEFECTS(Group.BACKLOGS, Type.INT),
+    RELEASE_BACKLOG_MINOR_DEFECTS(Group.BACKLOGS, Type.INT),
+    SPRINT_BACKLOG_SIZE(Group.BACKLOGS, Type.INT),
+    SPRINT_BACKLOG_NEW_FEATURES(Group.BACKLOGS, Type.INT),
+    SPRINT_BACKLOG_MAJOR_DEFECTS(Group.BACKLOGS, Type.INT),
+    SPRINT_BACKLOG_MINOR_DEFECTS(Group.BACKLOGS, Type.INT),
+
+    SIM_TIME(Group.SIM_TIME, Type.DOUBLE);
+
+    /**
+     * Group of columns stored in the same file
+     */
+    public enum Group {
+        CONFIGURATION("configuration"),
+        DEVELOPERS("developers"),
+        TESTERS("testers"),
+        DONE_BACKLOG("done_backlog"),
+        BACKLOGS("backlogs"),
+        SIM_TIME("sim_time");
+
+        private final String fileName;
+
+        Group(String fileName) {
+            this.fileName = fileName;
+        }
+
+        /**
+         * Get the name of the file that stores the group, without extension
+         *
+         * @return the name of the file that stores the group
+         */
+        public String getFileName() {
+            return fileName;
+        }
+
+        /**
+         * Get the number of bytes of a row of the group
+         *
+         * @return the number of bytes of a row of the group
+         */
+        public int getWidth() {
+            return GROUP_WIDTHS[ordinal()];
+        }
+    }
+
+    /**
+     * Primitive type of a column
+     */
+    public enum Type {
+        BYTE(Byte.BYTES),
+        INT(Integer.BYTES),
+        LONG(Long.BYTES),
+        FLOAT(Float.BYTES),
+        DOUBLE(Double.BYTES);
+
+        private final int size;
+
+        Type(int size) {
+            this.size = size;
+        }
+    }
+
+    /**
+     * Number of bytes of a row of each group
+     */
+    private static final int[] GROUP_WIDTHS = new int[Group.values().length];
+
+    static {
+        for (ResultColumn column : values()) {
+            column.offset = GROUP_WIDTHS[column.group.ordinal()];
+            GROUP_WIDTHS[column.group.ordinal()] += column.type.size;
+        }
+    }
+
+    private final Group group;
+
+    private final Type type;
+
+    /**
+     * Offset of the column within a row of its group
+     */
+    private int offset;
+
+    ResultColumn(Group group, Type type) {
+        this.group = group;
+        this.type = type;
+    }
+
+    /**
+     * Get the group of the column
+     *
+     * @return the group of the column
+     */
+    public Group getGroup() {
+        return group;
+    }
+
+    /**
+     * Get the type of the column
+     *
+     * @return the type of the column
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the offset of the column within a row of its group
+     *
+     * @return the offset of the column
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the value of the column from a simulation result
+     * Integer and long values are returned through {@link #getLong(SimulationResult)}
+     *
+     * @param result the simulation result
+     * @return the value of the column
+     */
+    double getDouble(SimulationResult result) {
+        switch (this) {
+            case DEVS_DELAYS:
+                return result.getDevelopersDelays();
+            case DEVS_USAGE_RATE:
+                return result.getDevelopersUsageRate();
+            case DEVS_WAITING_TIME_AVERAGE:
+                return result.getDevelopersWaitingTimeAverage();
+            case DEVS_WAITING_AVERAGE:
+                return result.getDevelopersWaitingAverage();
+            case TESTERS_DELAYS:
+                return result.getTestersDelays();
+            case TESTERS_USAGE_RATE:
+                return result.getTestersUsageRate();
+            case TESTERS_WAITING_TIME_AVERAGE:
+                return result.getTestersWaitingTimeAverage();
+            case TESTERS_WAITING_AVERAGE:
+                return result.getTestersWaitingAverage();
+            case NUMBER_DEFECTS_KLOC:
+                return result.getNumberOfDefectsPerKLoc();
+            case SIM_TIME:
+                return result.getSimTime();
+            default:
+                return getLong(result);
+        }
+    }
+
+    /**
+     * Get the value of an integral column from a simulation result
+     *
+     * @param result the simulation result
+     * @return the value of the column
+     */
+    long getLong(SimulationResult result) {
+        switch (this) {
+            case NUMBER_OF_JUNIOR_DEVELOPERS:
+                return result.getNumberOfJuniorDevelopers();
+            case NUMBER_OF_MID_LEVEL_DEVELOPERS:
+                return result.getNumberOfMidLevelDevelopers();
+            case NUMBER_OF_SENIOR_DEVELOPERS:
+                return result.getNumberOfSeniorDevelopers();
+            case NUMBER_OF_TESTERS:
+                return result.getNumberOfTesters();
+            case USE_TDD:
+                return result.isUseTdd() ? 1 : 0;
+            case SEED:
+                return result.getSeed();
+            case NUMBER_OF_LOCS:
+                return result.getNumberOfLocs();
+            case NUMBER_OF_NEW_FEATURES:
+                return result.getNumberOfNewFeatures();
+            case NUMBER_OF_MAJOR_DEFECTS:
+                return result.getNumberOfMajorDefects();
+            case NUMBER_OF_MINOR_DEFECTS:
+                return result.getNumberOfMinorDefects();
+            case DONE_BACKLOG_SIZE:
+                return result.getDoneBacklogSize();
+            case PROJECT_BACKLOG_SIZE:
+                return result.getProjectBacklogSize();
+            case PROJECT_BACKLOG_NEW_FEATURES:
+                return result.getProjectBacklogNewFeatures();
+            case PROJECT_BACKLOG_MAJOR_DEFECTS:
+                return result.getProjectBacklogMajorDefects();
+            case PROJECT_BACKLOG_MINOR_DEFECTS:
+                return result.getProjectBacklogMinorDefects();
+            case RELEASE_BACKLOG_SIZE:
+                return result.getReleaseBacklogSize();
+            case RELEASE_BACKLOG_NEW_FEATURES:
+                return result.getReleaseBacklogNewFeatures();
+            case RELEASE_BACKLOG_MAJOR_DEFECTS:
+                return result.getReleaseBacklogMajorDefects();
+            case RELEASE_BACKLOG_MINOR_DEFECTS:
+                return result.getReleaseBacklogMinorDefects();
+            case SPRINT_BACKLOG_SIZE:
+                return result.getSprintBacklogSize();
+            case SPRINT_BACKLOG_NEW_FEATURES:
+                return result.getSprintBacklogNewFeatures();
+            case SPRINT_BACKLOG_MAJOR_DEFECTS:
+                return result.getSprintBacklogMajorDefects();
+            case SPRINT_BACKLOG_MINOR_DEFECTS:
+                return result.getSprintBacklogMinorDefects();
+            default:
+                throw new IllegalStateException("Column " + this + " is not integral");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package results;
+
+import model.SimulationResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Serializes simulation results to an output stream
+ * Implementations are stateless, so a single instance can be shared by several threads
+ */
+public interface ResultSerializer {
+
+    /**
+     * Get the extension of the files written by the serializer
+     *
+     * @return the file extension, including the leading dot
+     */
+    String getFileExtension();
+
+    /**
+     * Writes the header that precedes the results
+     *
+     * @param out the output stream
+     * @throws IOException if the header cannot be written
+     */
+    void writeHeader(OutputStream out) throws IOException;
+
+    /**
+     * Writes a simulation result
+     *
+     * @param result the simulation result
+     * @param out    the output stream
+     * @throws IOException if the result cannot be written
+     */
+    void write(SimulationResult result, OutputStream out) throws IOException;
+}
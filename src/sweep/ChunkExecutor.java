@@ -0,0 +1,24 @@
+package sweep;
+
+import model.SimulationResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Runs consecutive replications of a point of a sweep
+ * Each worker thread of a {@link SweepRunner} owns its executor
+ */
+interface ChunkExecutor extends Closeable {
+
+    /**
+     * Runs consecutive replications of a point
+     *
+     * @param pointIndex       index of the point
+     * @param firstReplication first replication to be run
+     * @param lastReplication  replication after the last one to be run
+     * @return the results of the replications, in order
+     * @throws IOException if the replications cannot be run
+     */
+    SimulationResult[] run(int pointIndex, int firstReplication, int lastReplication) throws IOException;
+}
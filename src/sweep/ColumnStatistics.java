@@ -0,0 +1,169 @@
+package sweep;
+
+import org.apache.commons.math3.distribution.TDistribution;
+
+/**
+ * Streaming statistics of one column of the full report
+ * Mean and variance are updated with Welford's algorithm and merged with
+ * the parallel formulation of Chan et al., so memory does not depend on the number of values
+ */
+public class ColumnStatistics {
+
+    private static final double SKETCH_RELATIVE_ACCURACY = 0.01;
+    private static final int SKETCH_MAX_NUMBER_OF_BUCKETS = 2048;
+
+    private long count;
+
+    private double mean;
+
+    /**
+     * Sum of the squared differences from the mean
+     */
+    private double m2;
+
+    private double min;
+    private double max;
+
+    private final QuantileSketch sketch;
+
+    /**
+     * Constructor
+     */
+    public ColumnStatistics() {
+        this.count = 0;
+        this.mean = 0;
+        this.m2 = 0;
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+        this.sketch = new QuantileSketch(SKETCH_RELATIVE_ACCURACY, SKETCH_MAX_NUMBER_OF_BUCKETS);
+    }
+
+    /**
+     * Adds a new value
+     * NaN values are ignored
+     *
+     * @param value value to be added
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        sketch.add(value);
+    }
+
+    /**
+     * Adds the values summarized by another instance to the current one
+     *
+     * @param other statistics to be merged
+     */
+    public void merge(ColumnStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+
+        long totalCount = count + other.count;
+        double delta = other.mean - mean;
+
+        mean += delta * other.count / totalCount;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / totalCount);
+        count = totalCount;
+
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+
+        sketch.merge(other.sketch);
+    }
+
+    /**
+     * Get the number of values
+     *
+     * @return the number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the mean of the values
+     *
+     * @return the mean of the values, NaN if there are no values
+     */
+    public double getMean() {
+        return (count == 0) ? Double.NaN : mean;
+    }
+
+    /**
+     * Get the sample variance of the values
+     *
+     * @return the sample variance, NaN if there are less than two values
+     */
+    public double getVariance() {
+        return (count < 2) ? Double.NaN : m2 / (count - 1);
+    }
+
+    /**
+     * Get the sample standard deviation of the values
+     *
+     * @return the sample standard deviation, NaN if there are less than two values
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Get the half width of the confidence interval of the mean
+     * Based on the Student's t distribution
+     *
+     * @param confidenceLevel confidence level of the interval, e.g. 0.95
+     * @return the half width of the confidence interval, NaN if there are less than two values
+     */
+    public double getConfidenceHalfWidth(double confidenceLevel) {
+        if (count < 2) {
+            return Double.NaN;
+        }
+
+        double t = new TDistribution(count - 1).inverseCumulativeProbability(1 - (1 - confidenceLevel) / 2);
+        return t * getStandardDeviation() / Math.sqrt(count);
+    }
+
+    /**
+     * Get the minimum value
+     *
+     * @return the minimum value, NaN if there are no values
+     */
+    public double getMin() {
+        return (count == 0) ? Double.NaN : min;
+    }
+
+    /**
+     * Get the maximum value
+     *
+     * @return the maximum value, NaN if there are no values
+     */
+    public double getMax() {
+        return (count == 0) ? Double.NaN : max;
+    }
+
+    /**
+     * Get the estimated value of the given quantile
+     * The estimate is bounded by the exact minimum and maximum values
+     *
+     * @param quantile quantile between 0 and 1
+     * @return the estimated value, NaN if there are no values
+     */
+    public double getQuantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return Math.min(Math.max(sketch.getQuantile(quantile), min), max);
+    }
+}
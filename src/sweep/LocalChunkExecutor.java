@@ -0,0 +1,65 @@
+package sweep;
+
+import model.SimulationResult;
+import model.Simulator;
+
+/**
+ * Runs the replications in the current thread
+ * The simulator is reset between the replications of a point, so its objects are reused instead of reallocated
+ */
+class LocalChunkExecutor implements ChunkExecutor {
+
+    private final Sweep sweep;
+
+    /**
+     * Simulator of the last point run, reused while the point does not change
+     */
+    private Simulator simulator;
+    private SweepPoint simulatorPoint;
+
+    /**
+     * Constructor
+     *
+     * @param sweep the sweep whose replications are run
+     */
+    LocalChunkExecutor(Sweep sweep) {
+        this.sweep = sweep;
+    }
+
+    @Override
+    public SimulationResult[] run(int pointIndex, int firstReplication, int lastReplication) {
+        SweepPoint point = sweep.getPoints().get(pointIndex);
+        SimulationResult[] results = new SimulationResult[lastReplication - firstReplication];
+
+        for (int replication = firstReplication; replication < lastReplication; replication++) {
+            long seed = sweep.getSeed(pointIndex, replication);
+            if (simulator == null || !point.equals(simulatorPoint)) {
+                close();
+                simulator = new Simulator(point.isUseTdd(),
+                        point.getNumberOfSeniorDevelopers(),
+                        point.getNumberOfMidLevelDevelopers(),
+                        point.getNumberOfJuniorDevelopers(),
+                        point.getNumberOfTesters(),
+                        seed);
+                simulatorPoint = point;
+                simulator.setup();
+            } else {
+                simulator.reset(seed);
+            }
+
+            simulator.run();
+
+            results[replication - firstReplication] = simulator.getResult();
+        }
+
+        return results;
+    }
+
+    @Override
+    public void close() {
+        if (simulator != null) {
+            simulator.close();
+            simulator = null;
+        }
+    }
+}
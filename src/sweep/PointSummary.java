@@ -0,0 +1,142 @@
+package sweep;
+
+import model.SimulationResult;
+
+/**
+ * Summary of the replications of one point of a sweep
+ * Keeps the streaming statistics of every measured column of the full report
+ */
+public class PointSummary {
+
+    private static final double[] QUANTILES = {0.05, 0.5, 0.95};
+    private static final String[] QUANTILE_NAMES = {"P05", "P50", "P95"};
+
+    private final SweepPoint point;
+
+    private final ColumnStatistics[] columns;
+
+    /**
+     * Constructor
+     *
+     * @param point the summarized point
+     */
+    public PointSummary(SweepPoint point) {
+        this.point = point;
+
+        this.columns = new ColumnStatistics[SimulationResult.getNumberOfMetrics()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ColumnStatistics();
+        }
+    }
+
+    /**
+     * Adds the result of a replication
+     *
+     * @param result the result of a replication
+     */
+    public void add(SimulationResult result) {
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].add(result.getMetric(i));
+        }
+    }
+
+    /**
+     * Adds the replications summarized by another instance of the same point
+     *
+     * @param other summary to be merged
+     */
+    public void merge(PointSummary other) {
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].merge(other.columns[i]);
+        }
+    }
+
+    /**
+     * Get the summarized point
+     *
+     * @return the summarized point
+     */
+    public SweepPoint getPoint() {
+        return point;
+    }
+
+    /**
+     * Get the statistics of a measured column
+     *
+     * @param column index of the column
+     * @return the statistics of the column
+     * @see SimulationResult#getMetricHeader()
+     */
+    public ColumnStatistics getColumn(int column) {
+        return columns[column];
+    }
+
+    /**
+     * Get the summary of the current point
+     * The summary is provided comma separated to be stored in a csv
+     *
+     * @param confidenceLevel confidence level of the confidence intervals of the means
+     * @return the summary of the current point
+     */
+    public String getSummary(double confidenceLevel) {
+        String comma = ",";
+        String newline = "\n";
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(point.getNumberOfJuniorDevelopers()).append(comma);
+        builder.append(point.getNumberOfMidLevelDevelopers()).append(comma);
+        builder.append(point.getNumberOfSeniorDevelopers()).append(comma);
+        builder.append(point.getNumberOfTesters()).append(comma);
+        builder.append(point.isUseTdd()).append(comma);
+        builder.append(columns[0].getCount()).append(comma);
+
+        for (ColumnStatistics column : columns) {
+            double mean = column.getMean();
+            double halfWidth = column.getConfidenceHalfWidth(confidenceLevel);
+
+            builder.append(mean).append(comma);
+            builder.append(column.getStandardDeviation()).append(comma);
+            builder.append(mean - halfWidth).append(comma);
+            builder.append(mean + halfWidth).append(comma);
+            builder.append(column.getMin()).append(comma);
+            builder.append(column.getMax()).append(comma);
+            for (double quantile : QUANTILES) {
+                builder.append(column.getQuantile(quantile)).append(comma);
+            }
+        }
+
+        return builder.append(newline).toString();
+    }
+
+    /**
+     * Get the header of the summary
+     *
+     * @return the header of the summary
+     */
+    public static String getHeader() {
+        String comma = ",";
+        String newline = "\n";
+
+        StringBuilder builder = new StringBuilder();
+        builder.append("NUMBER_OF_JUNIOR_DEVELOPERS").append(comma);
+        builder.append("NUMBER_OF_MID_LEVEL_DEVELOPERS").append(comma);
+        builder.append("NUMBER_OF_SENIOR_DEVELOPERS").append(comma);
+        builder.append("NUMBER_OF_TESTERS").append(comma);
+        builder.append("USE_TDD").append(comma);
+        builder.append("REPLICATIONS").append(comma);
+
+        for (String column : SimulationResult.getMetricHeader()) {
+            builder.append(column).append("_MEAN").append(comma);
+            builder.append(column).append("_SD").append(comma);
+            builder.append(column).append("_CI_LOW").append(comma);
+            builder.append(column).append("_CI_HIGH").append(comma);
+            builder.append(column).append("_MIN").append(comma);
+            builder.append(column).append("_MAX").append(comma);
+            for (String quantileName : QUANTILE_NAMES) {
+                builder.append(column).append("_").append(quantileName).append(comma);
+            }
+        }
+
+        return builder.append(newline).toString();
+    }
+}
@@ -0,0 +1,141 @@
+package sweep;
+
+import model.SimulationResult;
+import results.BinaryResultSerializer;
+import utils.Constants;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the replications in a {@link ShardWorker} process, started on demand
+ * A shard whose worker crashes is run again by a new worker, since its results only depend on the seeds
+ */
+class ProcessChunkExecutor implements ChunkExecutor {
+
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+
+    private final Sweep sweep;
+
+    private final List<String> command;
+
+    /**
+     * Number of times a shard is tried before the sweep fails
+     */
+    private final int maxAttempts;
+
+    private final BinaryResultSerializer serializer;
+
+    private Process process;
+
+    private DataInputStream in;
+
+    private DataOutputStream out;
+
+    /**
+     * Constructor
+     *
+     * @param sweep       the sweep whose replications are run
+     * @param command     command that starts a worker
+     * @param maxAttempts number of times a shard is tried before the sweep fails
+     */
+    ProcessChunkExecutor(Sweep sweep, List<String> command, int maxAttempts) {
+        this.sweep = sweep;
+        this.command = command;
+        this.maxAttempts = maxAttempts;
+        this.serializer = new BinaryResultSerializer();
+    }
+
+    @Override
+    public SimulationResult[] run(int pointIndex, int firstReplication, int lastReplication) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (process == null) {
+                    start();
+                }
+
+                out.writeInt(pointIndex);
+                out.writeInt(firstReplication);
+                out.writeInt(lastReplication);
+                out.flush();
+
+                byte[] record = new byte[BinaryResultSerializer.RECORD_SIZE];
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                SimulationResult[] results = new SimulationResult[lastReplication - firstReplication];
+                for (int i = 0; i < results.length; i++) {
+                    in.readFully(record);
+                    buffer.clear();
+                    results[i] = serializer.read(buffer, ShardWorker.readProfile(in));
+                }
+                return results;
+            } catch (IOException e) {
+                destroy();
+                if (attempt == maxAttempts) {
+                    throw new IOException("Worker failed " + maxAttempts + " times on point " + pointIndex
+                            + ", replications " + firstReplication + "-" + lastReplication, e);
+                }
+
+                System.out.println(sweep.getName() + ", restarting worker: "
+                        + (e instanceof EOFException ? "worker exited" : e.getMessage()));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (process == null) {
+            return;
+        }
+
+        try {
+            out.writeInt(ShardWorker.STOP);
+            out.flush();
+            if (!process.waitFor(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                destroy();
+            }
+        } catch (IOException e) {
+            destroy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            destroy();
+        } finally {
+            process = null;
+        }
+    }
+
+    private void start() throws IOException {
+        process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+
+        if (in.readInt() != ShardWorker.MAGIC) {
+            throw new IOException("Unexpected worker output");
+        }
+        String fingerprint = in.readUTF();
+        if (!fingerprint.equals(ShardWorker.getFingerprint())) {
+            destroy();
+            throw new IllegalStateException("Worker simulation constants differ from the coordinator");
+        }
+
+        ShardWorker.writeSweep(sweep, out);
+        // the worker profiles its simulations as the coordinator does, the profile columns depend on it
+        out.writeBoolean(Constants.ENABLE_PROFILING);
+        out.flush();
+    }
+
+    private void destroy() {
+        if (process != null) {
+            process.destroyForcibly();
+            process = null;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package sweep;
+
+/**
+ * Mergeable quantile sketch with bounded relative error
+ * Values are counted in logarithmic buckets, so any quantile is estimated within
+ * the relative accuracy of the sketch and two sketches are merged by adding their buckets
+ * The number of buckets is capped, collapsing the lowest buckets when the cap is reached
+ */
+public class QuantileSketch {
+
+    /**
+     * Values closer to zero than this are counted as zero
+     */
+    private static final double MIN_INDEXABLE_VALUE = 1e-9;
+
+    private final double relativeAccuracy;
+
+    private final int maxNumberOfBuckets;
+
+    private final double gamma;
+    private final double logGamma;
+
+    private final Store positiveValues;
+    private final Store negativeValues;
+
+    private long zeroCount;
+
+    /**
+     * Constructor
+     *
+     * @param relativeAccuracy   relative accuracy of the estimated quantiles
+     * @param maxNumberOfBuckets maximum number of buckets of each sign
+     */
+    public QuantileSketch(double relativeAccuracy, int maxNumberOfBuckets) {
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxNumberOfBuckets = maxNumberOfBuckets;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+
+        this.positiveValues = new Store(maxNumberOfBuckets);
+        this.negativeValues = new Store(maxNumberOfBuckets);
+        this.zeroCount = 0;
+    }
+
+    /**
+     * Adds a new value to the sketch
+     *
+     * @param value value to be added
+     */
+    public void add(double value) {
+        if (value > MIN_INDEXABLE_VALUE) {
+            positiveValues.add(index(value), 1);
+        } else if (value < -MIN_INDEXABLE_VALUE) {
+            negativeValues.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+    }
+
+    /**
+     * Adds the values of another sketch with the same accuracy to the current sketch
+     *
+     * @param other sketch to be merged
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy || other.maxNumberOfBuckets != maxNumberOfBuckets) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+
+        positiveValues.merge(other.positiveValues);
+        negativeValues.merge(other.negativeValues);
+        zeroCount += other.zeroCount;
+    }
+
+    /**
+     * Get the number of values added to the sketch
+     *
+     * @return the number of values added to the sketch
+     */
+    public long getCount() {
+        return positiveValues.count + negativeValues.count + zeroCount;
+    }
+
+    /**
+     * Get the estimated value of the given quantile
+     *
+     * @param quantile quantile between 0 and 1
+     * @return the estimated value, NaN if the sketch is empty
+     */
+    public double getQuantile(double quantile) {
+        long count = getCount();
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        long rank = (long) (quantile * (count - 1));
+
+        if (rank < negativeValues.count) {
+            // negative values are stored by magnitude, so they are visited from the highest bucket
+            long seen = 0;
+            for (int i = negativeValues.counts.length - 1; i >= 0; i--) {
+                seen += negativeValues.counts[i];
+                if (seen > rank) {
+                    return -value(negativeValues.offset + i);
+                }
+            }
+        }
+        rank -= negativeValues.count;
+
+        if (rank < zeroCount) {
+            return 0;
+        }
+        rank -= zeroCount;
+
+        long seen = 0;
+        for (int i = 0; i < positiveValues.counts.length; i++) {
+            seen += positiveValues.counts[i];
+            if (seen > rank) {
+                return value(positiveValues.offset + i);
+            }
+        }
+
+        return value(positiveValues.offset + positiveValues.counts.length - 1);
+    }
+
+    /**
+     * Creates a copy of the current sketch
+     *
+     * @return a copy of the current sketch
+     */
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy, maxNumberOfBuckets);
+        copy.merge(this);
+        return copy;
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * Dense bucket counts for consecutive bucket indexes starting at offset
+     */
+    private static class Store {
+
+        private final int maxNumberOfBuckets;
+
+        private long[] counts;
+
+        private int offset;
+
+        private long count;
+
+        Store(int maxNumberOfBuckets) {
+            this.maxNumberOfBuckets = maxNumberOfBuckets;
+            this.counts = new long[0];
+            this.offset = 0;
+            this.count = 0;
+        }
+
+        void add(int index, long bucketCount) {
+            if (counts.length == 0) {
+                counts = new long[8];
+                offset = index;
+            }
+
+            if (index < offset) {
+                extendDown(index);
+            } else if (index >= offset + counts.length) {
+                extendUp(index);
+            }
+
+            // the lowest buckets may have been collapsed
+            counts[Math.max(index, offset) - offset] += bucketCount;
+            count += bucketCount;
+        }
+
+        void merge(Store other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        private void extendDown(int index) {
+            int newLength = Math.min(offset + counts.length - index, maxNumberOfBuckets);
+            int newOffset = offset + counts.length - newLength;
+            resize(newOffset, newLength);
+        }
+
+        private void extendUp(int index) {
+            int newLength = index - offset + 1;
+            if (newLength <= maxNumberOfBuckets) {
+                resize(offset, Math.min(Math.max(newLength, counts.length * 2), maxNumberOfBuckets));
+            } else {
+                // the lowest buckets are collapsed into the first kept bucket
+                resize(index - maxNumberOfBuckets + 1, maxNumberOfBuckets);
+            }
+        }
+
+        private void resize(int newOffset, int newLength) {
+            long[] newCounts = new long[newLength];
+            for (int i = 0; i < counts.length; i++) {
+                int newIndex = offset + i - newOffset;
+                if (newIndex >= 0 && newIndex < newLength) {
+                    newCounts[newIndex] += counts[i];
+                } else if (newIndex < 0) {
+                    // collapsed bucket
+                    newCounts[0] += counts[i];
+                }
+            }
+            counts = newCounts;
+            offset = newOffset;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package sweep;
+
+import model.SimulationResult;
+import model.Simulator;
+import org.apache.commons.math3.util.Pair;
+import results.BinaryResultSerializer;
+import utils.Constants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * On disk cache of simulation results, addressed by the content of the configuration
+ * The key of a point hashes the engine version, the record format, every simulation constant and the
+ * team configuration; the results of all the seeds of a point are appended to the file of its key
+ * Records are appended with a single write, a partially written record at the end of a file is ignored
+ */
+public class ResultCache {
+
+    /**
+     * Constants that do not change the outcome of a simulation
+     * The seed is stored in every record
+     */
+    private static final Set<String> IGNORED_CONSTANTS = new HashSet<>(Arrays.asList(
+            "SEED",
+            "ENABLE_PROFILING",
+            "CONFIDENCE_LEVEL",
+            "WRITE_COLUMNAR_RESULTS",
+            "COMPRESS_COLUMNAR_RESULTS",
+            "USE_RESULT_CACHE",
+            "RESULT_CACHE_DIRECTORY",
+            "RESUMABLE_SWEEPS",
+            "NUMBER_OF_WORKER_PROCESSES",
+            "BATCH_SAMPLING",
+            "PARALLEL_PROJECT_GENERATION"
+    ));
+
+    private static final String FILE_EXTENSION = ".results";
+
+    private final Path directory;
+
+    private final BinaryResultSerializer serializer;
+
+    /**
+     * Hash of the constants, computed once since they must not change while sweeps are running
+     */
+    private final String constantsHash;
+
+    /**
+     * Constructor
+     *
+     * @param directory directory where the results are stored
+     * @throws IOException if the directory cannot be created
+     */
+    public ResultCache(Path directory) throws IOException {
+        this.directory = directory;
+        this.serializer = new BinaryResultSerializer();
+        this.constantsHash = hash(describeConstants());
+
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Get the key of a point
+     *
+     * @param point the point
+     * @return the key of the point
+     */
+    public String getKey(SweepPoint point) {
+        String description = "engine=" + Simulator.ENGINE_VERSION
+                + ";format=" + BinaryResultSerializer.VERSION + "/" + BinaryResultSerializer.RECORD_SIZE
+                + ";constants=" + constantsHash
+                + ";useTdd=" + point.isUseTdd()
+                + ";seniors=" + point.getNumberOfSeniorDevelopers()
+                + ";mid=" + point.getNumberOfMidLevelDevelopers()
+                + ";juniors=" + point.getNumberOfJuniorDevelopers()
+                + ";testers=" + point.getNumberOfTesters();
+
+        return hash(description);
+    }
+
+    /**
+     * Loads the cached results of a point
+     *
+     * @param point the point
+     * @return the cached results of the point by seed
+     * @throws IOException if the cached results cannot be read
+     */
+    public Map<Long, SimulationResult> load(SweepPoint point) throws IOException {
+        Map<Long, SimulationResult> results = new HashMap<>();
+
+        Path file = getFile(point);
+        if (!Files.exists(file)) {
+            return results;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (buffer.remaining() >= BinaryResultSerializer.RECORD_SIZE) {
+            SimulationResult result = serializer.read(buffer);
+            results.putIfAbsent(result.getSeed(), result);
+        }
+
+        return results;
+    }
+
+    /**
+     * Stores the results of a point
+     *
+     * @param point   the point
+     * @param results the results to be stored
+     * @throws IOException if the results cannot be written
+     */
+    public void store(SweepPoint point, List<SimulationResult> results) throws IOException {
+        if (results.isEmpty()) {
+            return;
+        }
+
+        ByteArrayOutputStream records = new ByteArrayOutputStream(results.size() * BinaryResultSerializer.RECORD_SIZE);
+        for (SimulationResult result : results) {
+            serializer.write(result, records);
+        }
+
+        Path file = getFile(point);
+        Files.createDirectories(file.getParent());
+        Files.write(file, records.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private Path getFile(SweepPoint point) {
+        String key = getKey(point);
+        return directory.resolve(key.substring(0, 2)).resolve(key + FILE_EXTENSION);
+    }
+
+    /**
+     * Describes every constant that may change the outcome of a simulation, sorted by name
+     *
+     * @return the description of the constants
+     */
+    static String describeConstants() {
+        Field[] fields = Constants.class.getDeclaredFields();
+        Arrays.sort(fields, Comparator.comparing(Field::getName));
+
+        StringBuilder builder = new StringBuilder();
+        for (Field field : fields) {
+            if (!Modifier.isStatic(field.getModifiers()) || IGNORED_CONSTANTS.contains(field.getName())) {
+                continue;
+            }
+
+            try {
+                builder.append(field.getName()).append('=');
+                appendValue(builder, field.get(null));
+                builder.append(';');
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read constant " + field.getName(), e);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static void appendValue(StringBuilder builder, Object value) {
+        if (value instanceof List) {
+            builder.append('[');
+            for (Object element : (List<?>) value) {
+                appendValue(builder, element);
+                builder.append(',');
+            }
+            builder.append(']');
+        } else if (value instanceof Pair) {
+            builder.append('(');
+            appendValue(builder, ((Pair<?, ?>) value).getKey());
+            builder.append(':');
+            appendValue(builder, ((Pair<?, ?>) value).getValue());
+            builder.append(')');
+        } else {
+            builder.append(value);
+        }
+    }
+
+    /**
+     * Get the SHA-256 of a description
+     *
+     * @param description the description
+     * @return the hexadecimal SHA-256 of the description
+     */
+    static String hash(String description) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(description.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder builder = new StringBuilder();
+            for (byte b : hash) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
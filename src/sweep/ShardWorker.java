@@ -0,0 +1,161 @@
+package sweep;
+
+import model.SimulationResult;
+import model.Simulator;
+import results.BinaryResultSerializer;
+import utils.Constants;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Worker process of a {@link ShardedSweepRunner}
+ * The worker announces the fingerprint of its simulation constants, reads the sweep and whether to profile the
+ * simulations from its standard input, and then runs the shards it is sent, writing the binary record of every result
+ * to its standard output, followed by the profile of the result since the binary record does not hold it
+ * A shard with a negative point index stops the worker
+ * Anything printed by the simulation is sent to the standard error, which is inherited from the coordinator
+ */
+public class ShardWorker {
+
+    static final int MAGIC = 0x45535731;
+
+    /**
+     * Point index of the shard that stops the worker
+     */
+    static final int STOP = -1;
+
+    public static void main(String[] args) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.err), true));
+
+        out.writeInt(MAGIC);
+        out.writeUTF(getFingerprint());
+        out.flush();
+
+        Sweep sweep = readSweep(in);
+        Constants.ENABLE_PROFILING = in.readBoolean();
+        LocalChunkExecutor executor = new LocalChunkExecutor(sweep);
+        BinaryResultSerializer serializer = new BinaryResultSerializer();
+
+        int pointIndex;
+        while ((pointIndex = in.readInt()) != STOP) {
+            int firstReplication = in.readInt();
+            int lastReplication = in.readInt();
+
+            for (SimulationResult result : executor.run(pointIndex, firstReplication, lastReplication)) {
+                serializer.write(result, out);
+                writeProfile(result.getProfile(), out);
+            }
+            out.flush();
+        }
+
+        executor.close();
+    }
+
+    /**
+     * Get the fingerprint of the engine and simulation constants of this process
+     * The coordinator and its workers must agree on it for the results to be the same
+     *
+     * @return the fingerprint of the engine and simulation constants
+     */
+    static String getFingerprint() {
+        return ResultCache.hash("engine=" + Simulator.ENGINE_VERSION + ";constants=" + ResultCache.describeConstants());
+    }
+
+    /**
+     * Writes the profile of the event handlers of a result, as its length followed by its values
+     *
+     * @param profile the profile, null if the result was not profiled
+     * @param out     the stream the profile is written to
+     * @throws IOException if the profile cannot be written
+     */
+    static void writeProfile(long[] profile, DataOutputStream out) throws IOException {
+        if (profile == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(profile.length);
+        for (long value : profile) {
+            out.writeLong(value);
+        }
+    }
+
+    /**
+     * Reads the profile of the event handlers of a result
+     *
+     * @param in the stream the profile is read from
+     * @return the profile, null if the result was not profiled
+     * @throws IOException if the profile cannot be read
+     */
+    static long[] readProfile(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == 0) {
+            return null;
+        }
+        long[] profile = new long[length];
+        for (int i = 0; i < length; i++) {
+            profile[i] = in.readLong();
+        }
+        return profile;
+    }
+
+    /**
+     * Writes the definition of a sweep
+     *
+     * @param sweep the sweep
+     * @param out   the stream the sweep is written to
+     * @throws IOException if the sweep cannot be written
+     */
+    static void writeSweep(Sweep sweep, DataOutputStream out) throws IOException {
+        out.writeUTF(sweep.getName());
+        out.writeInt(sweep.getReplications());
+        out.writeLong(sweep.getBaseSeed());
+        out.writeBoolean(sweep.isCommonRandomNumbers());
+
+        out.writeInt(sweep.getPoints().size());
+        for (SweepPoint point : sweep.getPoints()) {
+            out.writeBoolean(point.isUseTdd());
+            out.writeInt(point.getNumberOfSeniorDevelopers());
+            out.writeInt(point.getNumberOfMidLevelDevelopers());
+            out.writeInt(point.getNumberOfJuniorDevelopers());
+            out.writeInt(point.getNumberOfTesters());
+        }
+    }
+
+    /**
+     * Reads the definition of a sweep
+     *
+     * @param in the stream the sweep is read from
+     * @return the sweep
+     * @throws IOException if the sweep cannot be read
+     */
+    static Sweep readSweep(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        int replications = in.readInt();
+        long baseSeed = in.readLong();
+        boolean commonRandomNumbers = in.readBoolean();
+
+        int numberOfPoints = in.readInt();
+        List<SweepPoint> points = new ArrayList<>(numberOfPoints);
+        for (int i = 0; i < numberOfPoints; i++) {
+            boolean useTdd = in.readBoolean();
+            int seniors = in.readInt();
+            int mid = in.readInt();
+            int juniors = in.readInt();
+            int testers = in.readInt();
+            points.add(new SweepPoint(useTdd, seniors, mid, juniors, testers));
+        }
+
+        return new Sweep(name, points, replications, baseSeed, commonRandomNumbers);
+    }
+}
@@ -0,0 +1,66 @@
+package sweep;
+
+import results.ResultSerializer;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the replications of a sweep on worker processes
+ * Every worker thread of the runner drives one {@link ShardWorker} JVM, sending it shards of a point and
+ * receiving the results through the pipes of the process, so the heap and garbage collection of the simulations
+ * are spread over several JVMs; results are merged and written by the coordinator exactly as by {@link SweepRunner}
+ * Workers are started with the Java and class path of the coordinator, and must have the same simulation constants
+ */
+public class ShardedSweepRunner extends SweepRunner {
+
+    /**
+     * Number of times a shard is tried, on a new worker after a crash, before the sweep fails
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final List<String> jvmOptions;
+
+    /**
+     * Constructor
+     *
+     * @param numberOfProcesses    number of worker processes
+     * @param chunkSize            number of replications sent to a worker at once
+     * @param resultSerializer     serializer of the result of every replication, null to skip them
+     * @param writeSummary         true to write the summary of every point
+     * @param writeColumnarResults true to also write the result of every replication in the columnar format
+     * @param resultCache          cache of the results of previous sweeps, null to always run the replications
+     * @param resumable            true to journal the completed replications so an interrupted sweep can be resumed
+     * @param jvmOptions           options of the worker JVMs, such as the heap size
+     */
+    public ShardedSweepRunner(int numberOfProcesses, int chunkSize, ResultSerializer resultSerializer,
+                              boolean writeSummary, boolean writeColumnarResults, ResultCache resultCache,
+                              boolean resumable, List<String> jvmOptions) {
+        super(numberOfProcesses, chunkSize, resultSerializer, writeSummary, writeColumnarResults, resultCache,
+                resumable);
+        this.jvmOptions = jvmOptions;
+    }
+
+    @Override
+    ChunkExecutor createExecutor(Sweep sweep) throws IOException {
+        return new ProcessChunkExecutor(sweep, getWorkerCommand(), MAX_ATTEMPTS);
+    }
+
+    /**
+     * Get the command that starts a worker
+     * The worker only needs its standard input and output, so the command may as well start it on another host
+     *
+     * @return the command that starts a worker
+     */
+    List<String> getWorkerCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        return command;
+    }
+}
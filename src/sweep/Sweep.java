@@ -0,0 +1,118 @@
+package sweep;
+
+import model.RandomStreams;
+import utils.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Definition of a sweep: the points to be simulated, the number of replications
+ * of each point and the seeds of every replication
+ */
+public class Sweep {
+
+    /**
+     * Name of the sweep, used as prefix of the output files
+     */
+    private final String name;
+
+    private final List<SweepPoint> points;
+
+    private final int replications;
+
+    private final long baseSeed;
+
+    /**
+     * True if every point uses the same seeds for its replications (common random numbers)
+     * False if the seeds keep decreasing from one point to the next
+     */
+    private final boolean commonRandomNumbers;
+
+    /**
+     * Constructor
+     *
+     * @param name                name of the sweep, used as prefix of the output files
+     * @param points              points to be simulated
+     * @param replications        number of replications of each point
+     * @param baseSeed            seed of the first replication of the first point
+     * @param commonRandomNumbers true if every point uses the same seeds for its replications
+     */
+    public Sweep(String name, List<SweepPoint> points, int replications, long baseSeed, boolean commonRandomNumbers) {
+        this.name = name;
+        this.points = Collections.unmodifiableList(new ArrayList<>(points));
+        this.replications = replications;
+        this.baseSeed = baseSeed;
+        this.commonRandomNumbers = commonRandomNumbers;
+    }
+
+    /**
+     * Get the name of the sweep
+     *
+     * @return the name of the sweep
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the points of the sweep
+     *
+     * @return the points of the sweep
+     */
+    public List<SweepPoint> getPoints() {
+        return points;
+    }
+
+    /**
+     * Get the number of replications of each point
+     *
+     * @return the number of replications of each point
+     */
+    public int getReplications() {
+        return replications;
+    }
+
+    /**
+     * Get the seed of the first replication of the first point
+     *
+     * @return the seed of the first replication
+     */
+    public long getBaseSeed() {
+        return baseSeed;
+    }
+
+    /**
+     * Returns true if every point uses the same seeds for its replications
+     *
+     * @return true if every point uses the same seeds for its replications
+     */
+    public boolean isCommonRandomNumbers() {
+        return commonRandomNumbers;
+    }
+
+    /**
+     * Get the seed of a replication
+     * With {@link Constants#USE_STREAM_SEEDING} the seed is the key of the random streams of the replication,
+     * experiment, point and replication, the point being the same for every point with common random numbers
+     * Otherwise the seeds decrease by one for each replication, the same way
+     * {@link utils.Constants#SEED} is decremented by a sequential run
+     *
+     * @param pointIndex  index of the point
+     * @param replication index of the replication within the point
+     * @return the seed of the replication
+     */
+    public long getSeed(int pointIndex, int replication) {
+        if (Constants.USE_STREAM_SEEDING) {
+            return RandomStreams.forExperiment(baseSeed)
+                    .getChild(commonRandomNumbers ? 0 : pointIndex)
+                    .getChild(replication)
+                    .getKey();
+        }
+        if (commonRandomNumbers) {
+            return baseSeed - replication;
+        }
+        return baseSeed - ((long) pointIndex * replications + replication);
+    }
+}
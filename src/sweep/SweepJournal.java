@@ -0,0 +1,217 @@
+package sweep;
+
+import model.SimulationResult;
+import model.Simulator;
+import results.BinaryResultSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Write-ahead journal of the replications completed by a sweep
+ * The journal starts with the fingerprint of the sweep, followed by one fixed size entry per replication
+ * with the point index, the replication and the binary record of the result
+ * Entries are forced to disk as soon as a chunk completes, so a sweep that is killed can be resumed
+ * from the replications that were completed; a partially written entry at the end is ignored
+ */
+public class SweepJournal {
+
+    private static final int MAGIC = 0x45534a31;
+
+    private static final int FINGERPRINT_SIZE = 64;
+
+    private static final int HEADER_SIZE = Integer.BYTES + FINGERPRINT_SIZE;
+
+    private static final int ENTRY_SIZE = 2 * Integer.BYTES + BinaryResultSerializer.RECORD_SIZE;
+
+    private final Path file;
+
+    private final Sweep sweep;
+
+    private final BinaryResultSerializer serializer;
+
+    /**
+     * Results recovered from a previous run, by {@code pointIndex * replications + replication}
+     */
+    private final Map<Long, SimulationResult> recoveredResults;
+
+    private final FileChannel channel;
+
+    /**
+     * Opens the journal of a sweep
+     * The entries of a previous run of the same sweep are recovered, the journal of a different sweep is discarded
+     *
+     * @param file  the journal file
+     * @param sweep the sweep
+     * @throws IOException if the journal cannot be read or created
+     */
+    public SweepJournal(Path file, Sweep sweep) throws IOException {
+        this.file = file;
+        this.sweep = sweep;
+        this.serializer = new BinaryResultSerializer();
+        this.recoveredResults = new HashMap<>();
+
+        byte[] fingerprint = getFingerprint(sweep).getBytes(StandardCharsets.US_ASCII);
+        long validLength = recover(fingerprint);
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (validLength == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.put(fingerprint);
+            header.flip();
+
+            channel.truncate(0);
+            writeFully(header, 0);
+            validLength = HEADER_SIZE;
+        } else {
+            // drop the partially written entry, if any, so new entries stay aligned
+            channel.truncate(validLength);
+        }
+        channel.position(validLength);
+        channel.force(true);
+    }
+
+    /**
+     * Get the result of a replication completed by a previous run
+     *
+     * @param pointIndex  index of the point
+     * @param replication the replication
+     * @return the result of the replication, null if it was not completed
+     */
+    public SimulationResult getRecoveredResult(int pointIndex, int replication) {
+        return recoveredResults.get((long) pointIndex * sweep.getReplications() + replication);
+    }
+
+    /**
+     * Get the number of replications completed by a previous run
+     *
+     * @return the number of replications completed by a previous run
+     */
+    public int getNumberOfRecoveredResults() {
+        return recoveredResults.size();
+    }
+
+    /**
+     * Appends the results of consecutive replications of a point and forces them to disk
+     *
+     * @param pointIndex       index of the point
+     * @param firstReplication replication of the first result
+     * @param results          the results, null for the replications that are already journaled
+     * @throws IOException if the results cannot be written
+     */
+    public void append(int pointIndex, int firstReplication, SimulationResult[] results) throws IOException {
+        int numberOfEntries = 0;
+        for (SimulationResult result : results) {
+            if (result != null) {
+                numberOfEntries++;
+            }
+        }
+        if (numberOfEntries == 0) {
+            return;
+        }
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream(BinaryResultSerializer.RECORD_SIZE);
+        ByteBuffer entries = ByteBuffer.allocate(numberOfEntries * ENTRY_SIZE);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                continue;
+            }
+
+            record.reset();
+            serializer.write(results[i], record);
+
+            entries.putInt(pointIndex);
+            entries.putInt(firstReplication + i);
+            entries.put(record.toByteArray());
+        }
+        entries.flip();
+
+        synchronized (channel) {
+            while (entries.hasRemaining()) {
+                channel.write(entries);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Closes the journal
+     *
+     * @param completed true if the sweep has completed, in which case the journal is deleted
+     * @throws IOException if the journal cannot be closed
+     */
+    public void close(boolean completed) throws IOException {
+        channel.close();
+        if (completed) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Reads the entries of a previous run of the same sweep
+     *
+     * @param fingerprint fingerprint of the sweep
+     * @return length of the journal up to the last complete entry, 0 if there is nothing to recover
+     * @throws IOException if the journal cannot be read
+     */
+    private long recover(byte[] fingerprint) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            return 0;
+        }
+
+        byte[] journalFingerprint = new byte[FINGERPRINT_SIZE];
+        buffer.get(journalFingerprint);
+        if (!Arrays.equals(journalFingerprint, fingerprint)) {
+            System.out.println(sweep.getName() + ", discarding the journal of a different sweep");
+            return 0;
+        }
+
+        while (buffer.remaining() >= ENTRY_SIZE) {
+            int pointIndex = buffer.getInt();
+            int replication = buffer.getInt();
+            recoveredResults.put((long) pointIndex * sweep.getReplications() + replication, serializer.read(buffer));
+        }
+
+        return buffer.position();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Get the fingerprint of a sweep, which covers everything that changes its results
+     *
+     * @param sweep the sweep
+     * @return the fingerprint of the sweep
+     */
+    private static String getFingerprint(Sweep sweep) {
+        StringBuilder description = new StringBuilder();
+        description.append("engine=").append(Simulator.ENGINE_VERSION)
+                .append(";format=").append(BinaryResultSerializer.VERSION)
+                .append(";constants=").append(ResultCache.describeConstants())
+                .append(";replications=").append(sweep.getReplications())
+                .append(";baseSeed=").append(sweep.getBaseSeed())
+                .append(";commonRandomNumbers=").append(sweep.isCommonRandomNumbers())
+                .append(";points=").append(sweep.getPoints());
+
+        return ResultCache.hash(description.toString());
+    }
+}
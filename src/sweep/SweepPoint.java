@@ -0,0 +1,102 @@
+package sweep;
+
+import java.util.Objects;
+
+/**
+ * Configuration of the team simulated at one point of a sweep
+ */
+public class SweepPoint {
+
+    private final int numberOfSeniorDevelopers;
+    private final int numberOfMidLevelDevelopers;
+    private final int numberOfJuniorDevelopers;
+    private final int numberOfTesters;
+
+    private final boolean useTdd;
+
+    /**
+     * Constructor
+     *
+     * @param useTdd  true if tdd is used
+     * @param seniors number of senior developers
+     * @param mid     number of mid level developers
+     * @param juniors number of junior developers
+     * @param testers number of testers
+     */
+    public SweepPoint(boolean useTdd, int seniors, int mid, int juniors, int testers) {
+        this.useTdd = useTdd;
+        this.numberOfSeniorDevelopers = seniors;
+        this.numberOfMidLevelDevelopers = mid;
+        this.numberOfJuniorDevelopers = juniors;
+        this.numberOfTesters = testers;
+    }
+
+    /**
+     * Get the number of senior developers
+     *
+     * @return the number of senior developers
+     */
+    public int getNumberOfSeniorDevelopers() {
+        return numberOfSeniorDevelopers;
+    }
+
+    /**
+     * Get the number of mid level developers
+     *
+     * @return the number of mid level developers
+     */
+    public int getNumberOfMidLevelDevelopers() {
+        return numberOfMidLevelDevelopers;
+    }
+
+    /**
+     * Get the number of junior developers
+     *
+     * @return the number of junior developers
+     */
+    public int getNumberOfJuniorDevelopers() {
+        return numberOfJuniorDevelopers;
+    }
+
+    /**
+     * Get the number of testers
+     *
+     * @return the number of testers
+     */
+    public int getNumberOfTesters() {
+        return numberOfTesters;
+    }
+
+    /**
+     * Returns true if tdd is used
+     *
+     * @return true if tdd is used
+     */
+    public boolean isUseTdd() {
+        return useTdd;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SweepPoint point = (SweepPoint) o;
+        return numberOfSeniorDevelopers == point.numberOfSeniorDevelopers &&
+                numberOfMidLevelDevelopers == point.numberOfMidLevelDevelopers &&
+                numberOfJuniorDevelopers == point.numberOfJuniorDevelopers &&
+                numberOfTesters == point.numberOfTesters &&
+                useTdd == point.useTdd;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(numberOfSeniorDevelopers, numberOfMidLevelDevelopers,
+                numberOfJuniorDevelopers, numberOfTesters, useTdd);
+    }
+
+    @Override
+    public String toString() {
+        return "juniors: " + numberOfJuniorDevelopers + ", mid: " + numberOfMidLevelDevelopers
+                + ", seniors: " + numberOfSeniorDevelopers + ", testers: " + numberOfTesters + ", useTdd: " + useTdd;
+    }
+}
@@ -0,0 +1,459 @@
+package sweep;
+
+import model.SimulationResult;
+import results.ColumnarResultWriter;
+import results.ResultSerializer;
+import utils.Constants;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs the replications of a sweep on several worker threads
+ * The replications of a point are split into chunks, each chunk is summarized by the worker
+ * that runs it and the chunk summaries are merged, in chunk order, by the worker that completes the point
+ * Results are written in point order as soon as all the previous points are complete,
+ * so only the points in flight are kept in memory
+ */
+public class SweepRunner {
+
+    private final int numberOfThreads;
+
+    /**
+     * Number of replications run by a worker before its results are merged
+     */
+    private final int chunkSize;
+
+    /**
+     * Serializer of the result of every replication, null to skip them
+     */
+    private final ResultSerializer resultSerializer;
+
+    private final boolean writeSummary;
+
+    private final boolean writeColumnarResults;
+
+    /**
+     * Cache of the results of previous sweeps, null to always run the replications
+     */
+    private final ResultCache resultCache;
+
+    /**
+     * True to journal the completed replications so an interrupted sweep can be resumed
+     */
+    private final boolean resumable;
+
+    /**
+     * Constructor
+     *
+     * @param numberOfThreads  number of worker threads
+     * @param chunkSize        number of replications run by a worker before its results are merged
+     * @param resultSerializer serializer of the result of every replication, null to skip them
+     * @param writeSummary     true to write the summary of every point
+     */
+    public SweepRunner(int numberOfThreads, int chunkSize, ResultSerializer resultSerializer, boolean writeSummary) {
+        this(numberOfThreads, chunkSize, resultSerializer, writeSummary, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param numberOfThreads      number of worker threads
+     * @param chunkSize            number of replications run by a worker before its results are merged
+     * @param resultSerializer     serializer of the result of every replication, null to skip them
+     * @param writeSummary         true to write the summary of every point
+     * @param writeColumnarResults true to also write the result of every replication in the columnar format
+     */
+    public SweepRunner(int numberOfThreads, int chunkSize, ResultSerializer resultSerializer, boolean writeSummary,
+                       boolean writeColumnarResults) {
+        this(numberOfThreads, chunkSize, resultSerializer, writeSummary, writeColumnarResults, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param numberOfThreads      number of worker threads
+     * @param chunkSize            number of replications run by a worker before its results are merged
+     * @param resultSerializer     serializer of the result of every replication, null to skip them
+     * @param writeSummary         true to write the summary of every point
+     * @param writeColumnarResults true to also write the result of every replication in the columnar format
+     * @param resultCache          cache of the results of previous sweeps, null to always run the replications
+     */
+    public SweepRunner(int numberOfThreads, int chunkSize, ResultSerializer resultSerializer, boolean writeSummary,
+                       boolean writeColumnarResults, ResultCache resultCache) {
+        this(numberOfThreads, chunkSize, resultSerializer, writeSummary, writeColumnarResults, resultCache, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param numberOfThreads      number of worker threads
+     * @param chunkSize            number of replications run by a worker before its results are merged
+     * @param resultSerializer     serializer of the result of every replication, null to skip them
+     * @param writeSummary         true to write the summary of every point
+     * @param writeColumnarResults true to also write the result of every replication in the columnar format
+     * @param resultCache          cache of the results of previous sweeps, null to always run the replications
+     * @param resumable            true to journal the completed replications so an interrupted sweep can be resumed
+     */
+    public SweepRunner(int numberOfThreads, int chunkSize, ResultSerializer resultSerializer, boolean writeSummary,
+                       boolean writeColumnarResults, ResultCache resultCache, boolean resumable) {
+        this.numberOfThreads = numberOfThreads;
+        this.chunkSize = chunkSize;
+        this.resultSerializer = resultSerializer;
+        this.writeSummary = writeSummary;
+        this.writeColumnarResults = writeColumnarResults;
+        this.resultCache = resultCache;
+        this.resumable = resumable;
+    }
+
+    /**
+     * Runs all the replications of the sweep
+     * The results are written to {@code <name>} followed by the extension of the serializer
+     * and the summaries to {@code <name>_summary.csv}
+     * Columnar results are written to the {@code <name>_columns} directory, with row
+     * {@code pointIndex * replications + replication}
+     * When resumable, the completed replications are journaled to {@code <name>.journal} and the replications
+     * journaled by an interrupted run of the same sweep are not run again; the journal is deleted once the
+     * sweep completes; sweeps are not journaled while profiling since the journal does not keep the profiles
+     *
+     * @param sweep the sweep to be run
+     * @throws IOException if the results cannot be written
+     */
+    public void run(Sweep sweep) throws IOException {
+        OutputStream rawWriter = null;
+        Writer summaryWriter = null;
+        ColumnarResultWriter columnarWriter = null;
+        SweepJournal journal = null;
+        boolean completed = false;
+
+        try {
+            // journaled results carry no profile, so the sweeps are not journaled while profiling
+            if (resumable && !Constants.ENABLE_PROFILING) {
+                journal = new SweepJournal(Paths.get(sweep.getName() + ".journal"), sweep);
+                if (journal.getNumberOfRecoveredResults() > 0) {
+                    System.out.println(sweep.getName() + ", resuming with "
+                            + journal.getNumberOfRecoveredResults() + " completed replications");
+                }
+            }
+
+            if (resultSerializer != null) {
+                rawWriter = new BufferedOutputStream(
+                        new FileOutputStream(sweep.getName() + resultSerializer.getFileExtension()));
+                resultSerializer.writeHeader(rawWriter);
+            }
+            if (writeSummary) {
+                summaryWriter = new BufferedWriter(new FileWriter(sweep.getName() + "_summary.csv"));
+                summaryWriter.write(PointSummary.getHeader());
+            }
+            if (writeColumnarResults) {
+                columnarWriter = new ColumnarResultWriter(Paths.get(sweep.getName() + "_columns"),
+                        (long) sweep.getPoints().size() * sweep.getReplications(),
+                        Constants.COMPRESS_COLUMNAR_RESULTS);
+            }
+
+            new Execution(sweep, rawWriter, summaryWriter, columnarWriter, journal).run();
+            completed = true;
+        } finally {
+            if (columnarWriter != null) {
+                columnarWriter.close();
+            }
+            if (rawWriter != null) {
+                rawWriter.close();
+            }
+            if (summaryWriter != null) {
+                summaryWriter.close();
+            }
+            if (journal != null) {
+                journal.close(completed);
+            }
+        }
+    }
+
+    /**
+     * Creates the executor used by a worker thread to run its replications
+     *
+     * @param sweep the sweep being run
+     * @return the executor of the worker thread
+     * @throws IOException if the executor cannot be created
+     */
+    ChunkExecutor createExecutor(Sweep sweep) throws IOException {
+        return new LocalChunkExecutor(sweep);
+    }
+
+    /**
+     * Results of a chunk of replications of a point
+     */
+    private static class ChunkResult {
+
+        private final PointSummary summary;
+
+        private final byte[] rawResults;
+
+        ChunkResult(PointSummary summary, byte[] rawResults) {
+            this.summary = summary;
+            this.rawResults = rawResults;
+        }
+    }
+
+    /**
+     * Chunks of a point that is being run
+     */
+    private static class PointState {
+
+        private final AtomicReferenceArray<ChunkResult> chunks;
+
+        private final AtomicInteger remainingChunks;
+
+        PointState(int numberOfChunks) {
+            this.chunks = new AtomicReferenceArray<>(numberOfChunks);
+            this.remainingChunks = new AtomicInteger(numberOfChunks);
+        }
+    }
+
+    /**
+     * State of a single run of a sweep
+     */
+    private class Execution {
+
+        private final Sweep sweep;
+
+        private final List<SweepPoint> points;
+
+        private final int chunksPerPoint;
+
+        private final OutputStream rawWriter;
+
+        private final Writer summaryWriter;
+
+        private final ColumnarResultWriter columnarWriter;
+
+        private final SweepJournal journal;
+
+        /**
+         * Next unit of work, a unit being one chunk of one point
+         */
+        private final AtomicLong nextUnit;
+
+        private final AtomicReferenceArray<PointState> runningPoints;
+
+        private final AtomicReferenceArray<PointState> completedPoints;
+
+        /**
+         * True while a worker is writing the completed points
+         */
+        private final AtomicBoolean writing;
+
+        /**
+         * Index of the next point to be written, only accessed by the writing worker
+         */
+        private volatile int nextPointToWrite;
+
+        private final AtomicReference<Throwable> failure;
+
+        Execution(Sweep sweep, OutputStream rawWriter, Writer summaryWriter, ColumnarResultWriter columnarWriter,
+                  SweepJournal journal) {
+            this.sweep = sweep;
+            this.points = sweep.getPoints();
+            this.chunksPerPoint = (sweep.getReplications() + chunkSize - 1) / chunkSize;
+            this.rawWriter = rawWriter;
+            this.summaryWriter = summaryWriter;
+            this.columnarWriter = columnarWriter;
+            this.journal = journal;
+
+            this.nextUnit = new AtomicLong(0);
+            this.runningPoints = new AtomicReferenceArray<>(points.size());
+            this.completedPoints = new AtomicReferenceArray<>(points.size());
+            this.writing = new AtomicBoolean(false);
+            this.nextPointToWrite = 0;
+            this.failure = new AtomicReference<>();
+        }
+
+        void run() throws IOException {
+            Thread[] workers = new Thread[numberOfThreads];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = new Thread(this::work, "sweep-worker-" + i);
+                workers[i].start();
+            }
+
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure.compareAndSet(null, e);
+                }
+            }
+
+            Throwable cause = failure.get();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause != null) {
+                throw new IllegalStateException("Sweep " + sweep.getName() + " failed", cause);
+            }
+        }
+
+        private void work() {
+            long totalUnits = (long) points.size() * chunksPerPoint;
+
+            try (ChunkExecutor executor = createExecutor(sweep)) {
+                long unit;
+                while (failure.get() == null && (unit = nextUnit.getAndIncrement()) < totalUnits) {
+                    int pointIndex = (int) (unit / chunksPerPoint);
+                    int chunk = (int) (unit % chunksPerPoint);
+
+                    ChunkResult result = runChunk(executor, pointIndex, chunk);
+                    completeChunk(pointIndex, chunk, result);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        private ChunkResult runChunk(ChunkExecutor executor, int pointIndex, int chunk) throws IOException {
+            SweepPoint point = points.get(pointIndex);
+            PointSummary summary = new PointSummary(point);
+            ByteArrayOutputStream rawResults = new ByteArrayOutputStream();
+
+            int firstReplication = chunk * chunkSize;
+            int lastReplication = Math.min(firstReplication + chunkSize, sweep.getReplications());
+
+            SimulationResult[] results = new SimulationResult[lastReplication - firstReplication];
+            SimulationResult[] unjournaledResults = new SimulationResult[results.length];
+
+            if (journal != null) {
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = journal.getRecoveredResult(pointIndex, firstReplication + i);
+                }
+            }
+
+            // cached results carry no profile, so they are not used while profiling
+            boolean useCache = resultCache != null && !Constants.ENABLE_PROFILING;
+            Map<Long, SimulationResult> cachedResults = useCache ? resultCache.load(point) : Collections.emptyMap();
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    results[i] = cachedResults.get(sweep.getSeed(pointIndex, firstReplication + i));
+                    unjournaledResults[i] = results[i];
+                }
+            }
+
+            // run the missing replications, one executor call per run of consecutive replications
+            List<SimulationResult> newResults = new ArrayList<>();
+            int i = 0;
+            while (i < results.length) {
+                if (results[i] != null) {
+                    i++;
+                    continue;
+                }
+
+                int first = i;
+                while (i < results.length && results[i] == null) {
+                    i++;
+                }
+
+                SimulationResult[] executed = executor.run(pointIndex, firstReplication + first, firstReplication + i);
+                for (int j = 0; j < executed.length; j++) {
+                    results[first + j] = executed[j];
+                    unjournaledResults[first + j] = executed[j];
+                    newResults.add(executed[j]);
+                }
+            }
+
+            for (int replication = firstReplication; replication < lastReplication; replication++) {
+                SimulationResult result = results[replication - firstReplication];
+
+                summary.add(result);
+                if (rawWriter != null) {
+                    resultSerializer.write(result, rawResults);
+                }
+                if (columnarWriter != null) {
+                    columnarWriter.write((long) pointIndex * sweep.getReplications() + replication, result);
+                }
+            }
+
+            if (useCache) {
+                resultCache.store(point, newResults);
+            }
+            if (journal != null) {
+                journal.append(pointIndex, firstReplication, unjournaledResults);
+            }
+
+            return new ChunkResult(summary, rawResults.toByteArray());
+        }
+
+        private void completeChunk(int pointIndex, int chunk, ChunkResult result) throws IOException {
+            PointState state = runningPoints.get(pointIndex);
+            if (state == null) {
+                runningPoints.compareAndSet(pointIndex, null, new PointState(chunksPerPoint));
+                state = runningPoints.get(pointIndex);
+            }
+
+            state.chunks.set(chunk, result);
+            if (state.remainingChunks.decrementAndGet() != 0) {
+                return;
+            }
+
+            // last chunk of the point, merge the chunks in order so the result does not depend on scheduling
+            PointSummary summary = state.chunks.get(0).summary;
+            for (int i = 1; i < chunksPerPoint; i++) {
+                summary.merge(state.chunks.get(i).summary);
+            }
+
+            runningPoints.set(pointIndex, null);
+            completedPoints.set(pointIndex, state);
+
+            writeCompletedPoints();
+        }
+
+        /**
+         * Writes the completed points that follow the last written point
+         * Only one worker writes at a time, the others leave their points to be written by it
+         */
+        private void writeCompletedPoints() throws IOException {
+            while (writing.compareAndSet(false, true)) {
+                try {
+                    PointState state;
+                    while (nextPointToWrite < points.size()
+                            && (state = completedPoints.get(nextPointToWrite)) != null) {
+                        if (rawWriter != null) {
+                            for (int i = 0; i < chunksPerPoint; i++) {
+                                rawWriter.write(state.chunks.get(i).rawResults);
+                            }
+                        }
+                        if (summaryWriter != null) {
+                            // the chunk summaries have been merged into the first one
+                            summaryWriter.write(state.chunks.get(0).summary.getSummary(Constants.CONFIDENCE_LEVEL));
+                        }
+
+                        completedPoints.set(nextPointToWrite, null);
+                        nextPointToWrite++;
+
+                        System.out.println(sweep.getName() + ", point: " + nextPointToWrite + "/" + points.size());
+                    }
+                } finally {
+                    writing.set(false);
+                }
+
+                // another worker may have completed the next point after the check above
+                if (nextPointToWrite >= points.size() || completedPoints.get(nextPointToWrite) == null) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package utils;
 
+import model.DispatchPolicy;
 import model.Task;
 import org.apache.commons.math3.util.Pair;
 
@@ -12,6 +13,74 @@ public class Constants {
 
     public static boolean SET_MAX_PROJECT_DURATION = false;
 
+    /**
+     * Measures the wall time and allocations of each event handler
+     * The breakdown is appended to the full report of each replication
+     */
+    public static boolean ENABLE_PROFILING = false;
+
+    /**
+     * Confidence level of the confidence intervals written to the sweep summaries
+     */
+    public static double CONFIDENCE_LEVEL = 0.95;
+
+    /**
+     * Writes the result of every replication of a sweep in the columnar format
+     */
+    public static boolean WRITE_COLUMNAR_RESULTS = false;
+
+    /**
+     * Compresses the columnar results with GZIP
+     */
+    public static boolean COMPRESS_COLUMNAR_RESULTS = false;
+
+    /**
+     * Reuses the results of replications already computed by previous sweeps
+     */
+    public static boolean USE_RESULT_CACHE = false;
+
+    public static String RESULT_CACHE_DIRECTORY = "cache";
+
+    /**
+     * Journals the completed replications of every sweep so an interrupted sweep can be resumed
+     */
+    public static boolean RESUMABLE_SWEEPS = false;
+
+    /**
+     * Number of worker processes that run the replications of a sweep, 0 to run them in the current process
+     */
+    public static int NUMBER_OF_WORKER_PROCESSES = 0;
+
+    /**
+     * Seeds every replication of a sweep with its own independent random streams, derived from the experiment seed,
+     * the point and the replication, instead of consecutive seeds whose streams overlap between replications
+     */
+    public static boolean USE_STREAM_SEEDING = false;
+
+    /**
+     * Derives the random attributes of every task from a counter based generator keyed by the seed, the task,
+     * the purpose and the planning round, so they do not depend on the order in which tasks are created
+     */
+    public static boolean USE_COUNTER_BASED_RANDOM = false;
+
+    /**
+     * Samples the distributions of the tasks in bulk, the samples are the same as when drawn one at a time
+     */
+    public static boolean BATCH_SAMPLING = true;
+
+    /**
+     * Creates the features of a project on several threads, only with {@link #USE_COUNTER_BASED_RANDOM}
+     */
+    public static boolean PARALLEL_PROJECT_GENERATION = false;
+
+    /**
+     * Keeps the tasks of the project backlog in a memory mapped file instead of the heap, for projects with more
+     * tasks than the heap can hold
+     */
+    public static boolean OUT_OF_CORE_PROJECT_BACKLOG = false;
+
+    public static String OUT_OF_CORE_DIRECTORY = System.getProperty("java.io.tmpdir");
+
     /**
      * Seed to generate the probability distributions
      */
@@ -23,6 +92,12 @@ public class Constants {
 
     public static int NUMBER_OF_TESTERS = 8; //3;
 
+    /**
+     * Policies that choose which free developer or tester takes a task, and in which order the waiting tasks are taken
+     */
+    public static DispatchPolicy.Type DEVELOPER_DISPATCH_POLICY = DispatchPolicy.Type.FIRST_FREE;
+    public static DispatchPolicy.Type TESTER_DISPATCH_POLICY = DispatchPolicy.Type.FIRST_FREE;
+
     public static int NUMBER_RELEASES_PER_PROJECT = 3;
     public static int NUMBER_SPRINTS_PER_RELEASE = 3;
 
@@ -35,6 +110,13 @@ public class Constants {
 
     public static float DAILY_EFFORT = 7f;
 
+    /**
+     * Resolution of the simulation clock in ticks per hour, 0 for a continuous clock
+     * With a resolution, every duration is rounded to whole ticks, so times are exact integers and events at the
+     * same tick are exact ties
+     */
+    public static int CLOCK_TICKS_PER_HOUR = 0;
+
     public static float MAX_PROJECT_DURATION_DAYS = 45f;
     public static float MAX_PROJECT_DURATION = MAX_PROJECT_DURATION_DAYS * DAILY_EFFORT;
 